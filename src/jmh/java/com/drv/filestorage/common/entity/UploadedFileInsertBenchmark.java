@@ -0,0 +1,114 @@
+package com.drv.filestorage.common.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de inserciones sostenidas en uploaded_files sobre H2 en memoria en modo PostgreSQL.
+ * Compara IDs UUID aleatorios (version 4) contra UUID version 7 y sentencias individuales contra lotes JDBC.
+ * La tabla no se vacia entre iteraciones, por lo que el indice de la clave primaria crece durante la prueba
+ * como en produccion; con IDs aleatorios cada INSERT cae en una hoja distinta del arbol.
+ * Cada operacion inserta y confirma ROWS_PER_OPERATION filas: operaciones/s x 1000 = filas/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UploadedFileInsertBenchmark {
+
+    private static final int ROWS_PER_OPERATION = 1000;
+    private static final String INSERT = "INSERT INTO uploaded_files (id, filename, content_type, s3_key, upload_id, "
+            + "bucket_name, size_bytes, part_size_bytes, uploaded_by, status, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"random", "v7"})
+    public String idType;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:uploads_" + idType + "_" + batchSize + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE uploaded_files (
+                        id UUID PRIMARY KEY,
+                        filename TEXT NOT NULL,
+                        content_type TEXT,
+                        s3_key TEXT NOT NULL,
+                        upload_id TEXT,
+                        bucket_name TEXT,
+                        size_bytes BIGINT,
+                        part_size_bytes BIGINT,
+                        uploaded_by TEXT,
+                        status TEXT DEFAULT 'pending',
+                        created_at TIMESTAMP
+                    )""");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(INSERT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int insertRows() throws SQLException {
+        int inserted = 0;
+        for (int i = 0; i < ROWS_PER_OPERATION; i++) {
+            bindRow(sequence++);
+            if (batchSize == 1) {
+                inserted += insert.executeUpdate();
+                continue;
+            }
+            insert.addBatch();
+            if ((i + 1) % batchSize == 0) {
+                inserted += insert.executeBatch().length;
+            }
+        }
+        if (batchSize > 1 && ROWS_PER_OPERATION % batchSize != 0) {
+            inserted += insert.executeBatch().length;
+        }
+        connection.commit();
+        return inserted;
+    }
+
+    private void bindRow(long n) throws SQLException {
+        UUID id = "v7".equals(idType) ? UuidV7.next() : UUID.randomUUID();
+        String filename = "archivo_" + n + ".bak";
+        insert.setObject(1, id);
+        insert.setString(2, filename);
+        insert.setString(3, "application/octet-stream");
+        insert.setString(4, "user123/2025/06/" + id + "_" + filename);
+        insert.setString(5, "VXBsb2FkSUQ" + n);
+        insert.setString(6, "benchmark-bucket");
+        insert.setLong(7, 1024L * 1024 * 1024);
+        insert.setLong(8, 100L * 1024 * 1024);
+        insert.setString(9, "user123");
+        insert.setString(10, "pending");
+        insert.setTimestamp(11, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.drv.filestorage.config;
+
+import com.drv.filestorage.service.impl.PartUrlSigner;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.GetParameterResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga del inicio de una carga con hilos de plataforma vs hilos virtuales.
+ * Cada iteracion lanza una rafaga de peticiones simultaneas; cada peticion resuelve el bucket en SSM,
+ * espera la latencia de S3 y de la BD (simuladas) y firma 10 partes. En modo platform las peticiones
+ * se atienden con un pool de 200 hilos, el maximo por defecto de Tomcat; en modo virtual, con un hilo
+ * virtual por peticion, como Tomcat con spring.threads.virtual.enabled=true.
+ * El tiempo de la rafaga dividido entre el numero de peticiones es la latencia media por peticion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ThreadModeLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final String BUCKET_PARAM = "/filestorage/bucket-name";
+    private static final int PARTS_PER_REQUEST = 10;
+
+    @Param({"platform", "virtual"})
+    public String threadMode;
+
+    @Param({"200", "2000"})
+    public int concurrentRequests;
+
+    @Param({"50"})
+    public int s3LatencyMillis;
+
+    @Param({"10"})
+    public int dbLatencyMillis;
+
+    private ExecutorService executor;
+    private S3Presigner presigner;
+    private PartUrlSigner.UploadSigningContext context;
+    private ParameterStoreService parameterStoreService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threadMode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        StaticCredentialsProvider provider = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(provider)
+                .build();
+        context = new PartUrlSigner(provider).prepare(presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(60))
+                .uploadPartRequest(UploadPartRequest.builder()
+                        .bucket("benchmark-bucket")
+                        .key("user123/2025/06/0f8fad5b-d9cb-469f-a165-70867728950e_backup.bak")
+                        .uploadId("VXBsb2FkSUQxMjM0NTY3ODkw")
+                        .partNumber(1)
+                        .build())
+                .build())).orElseThrow();
+    }
+
+    /**
+     * Cache de SSM vacia en cada rafaga para que las primeras peticiones concurran sobre el mismo parametro
+     */
+    @Setup(Level.Iteration)
+    public void resetParameterCache() {
+        parameterStoreService = new ParameterStoreService(new SlowSsmClient(s3LatencyMillis));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        presigner.close();
+    }
+
+    @Benchmark
+    public long burst() throws Exception {
+        List<Future<Integer>> requests = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.add(executor.submit(this::handleRequest));
+        }
+        long urlBytes = 0;
+        for (Future<Integer> request : requests) {
+            urlBytes += request.get();
+        }
+        return urlBytes;
+    }
+
+    private int handleRequest() throws InterruptedException {
+        parameterStoreService.getParameter(BUCKET_PARAM);
+        Thread.sleep(s3LatencyMillis);
+        int urlBytes = 0;
+        for (int partNumber = 1; partNumber <= PARTS_PER_REQUEST; partNumber++) {
+            urlBytes += context.sign(partNumber).length();
+        }
+        Thread.sleep(dbLatencyMillis);
+        return urlBytes;
+    }
+
+    /**
+     * Cliente SSM sin red que responde despues de la latencia indicada
+     */
+    private static final class SlowSsmClient implements SsmClient {
+
+        private final int latencyMillis;
+
+        private SlowSsmClient(int latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public GetParameterResponse getParameter(GetParameterRequest request) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return GetParameterResponse.builder()
+                    .parameter(Parameter.builder().name(request.name()).value("benchmark-bucket").build())
+                    .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.PartInfoResponseDto;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la firma de la ventana inicial de partes de createMultipartUpload, sin red y con credenciales estaticas.
+ * Ejecutar con -prof gc para ver la asignacion de memoria por operacion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratePresignedUrlsBenchmark {
+
+    private static final String BUCKET = "benchmark-bucket";
+    private static final String KEY = "user123/2025/06/0f8fad5b-d9cb-469f-a165-70867728950e_backup.bak";
+    private static final String UPLOAD_ID = "VXBsb2FkSUQxMjM0NTY3ODkwVXBsb2FkSUQxMjM0NTY3ODkw";
+
+    @Param({"10", "1000", "10000"})
+    public int parts;
+
+    @Param({"true", "false"})
+    public boolean fastPartSigner;
+
+    private S3Presigner presigner;
+    private ForkJoinPool presignForkJoinPool;
+    private FilestorageServiceImpl filestorageService;
+
+    @Setup
+    public void setUp() {
+        StaticCredentialsProvider provider = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(provider)
+                .build();
+        presignForkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        // La cache de URLs queda deshabilitada (maxEntries = 0) para medir siempre la firma
+        filestorageService = new FilestorageServiceImpl(null, presigner, null, null, presignForkJoinPool,
+                new PartUrlSigner(provider), new PartSizePlanner(), new PresignedUrlCache(), null, null);
+        TestUtils.setField(filestorageService, "presignDurationMinutes", 60);
+        TestUtils.setField(filestorageService, "parallelPresignThreshold", 64);
+        TestUtils.setField(filestorageService, "fastPartSigner", fastPartSigner);
+    }
+
+    @TearDown
+    public void tearDown() {
+        presignForkJoinPool.shutdown();
+        presigner.close();
+    }
+
+    @Benchmark
+    public List<PartInfoResponseDto> generatePresignedUrls() {
+        return filestorageService.generatePresignedUrls(BUCKET, KEY, UPLOAD_ID, 1, parts);
+    }
+}
@@ -0,0 +1,75 @@
+package com.drv.filestorage.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el throughput de firma de URLs de partes: S3Presigner vs firmador rapido con llave cacheada
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartUrlSignerBenchmark {
+
+    private static final String BUCKET = "benchmark-bucket";
+    private static final String KEY = "user123/2025/06/0f8fad5b-d9cb-469f-a165-70867728950e_backup.bak";
+    private static final String UPLOAD_ID = "VXBsb2FkSUQxMjM0NTY3ODkwVXBsb2FkSUQxMjM0NTY3ODkw";
+
+    private S3Presigner presigner;
+    private PartUrlSigner.UploadSigningContext context;
+    private int partNumber;
+
+    @Setup
+    public void setUp() {
+        StaticCredentialsProvider provider = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(provider)
+                .build();
+        context = new PartUrlSigner(provider).prepare(presigner.presignUploadPart(presignRequest(1))).orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() {
+        presigner.close();
+    }
+
+    @Benchmark
+    public String s3Presigner() {
+        return presigner.presignUploadPart(presignRequest(nextPartNumber())).url().toString();
+    }
+
+    @Benchmark
+    public String partUrlSigner() {
+        return context.sign(nextPartNumber());
+    }
+
+    private int nextPartNumber() {
+        partNumber = partNumber % 10_000 + 1;
+        return partNumber;
+    }
+
+    private static UploadPartPresignRequest presignRequest(int partNumber) {
+        return UploadPartPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(60))
+                .uploadPartRequest(UploadPartRequest.builder()
+                        .bucket(BUCKET)
+                        .key(KEY)
+                        .uploadId(UPLOAD_ID)
+                        .partNumber(partNumber)
+                        .build())
+                .build();
+    }
+}
@@ -9,6 +9,8 @@ public class SwaggerExamples {
                 "data": {
                     "key": "usuario/2025/06/uuid_test_test.png",
                     "uploadId": "EjemploUploadId",
+                    "totalParts": 2,
+                    "partSizeBytes": 5242880,
                     "urls": [
                         { "partNumber": 1, "url": "https://s3...1" },
                         { "partNumber": 2, "url": "https://s3...2" }
@@ -17,6 +19,21 @@ public class SwaggerExamples {
             }
             """;
 
+    public static final String EXAMPLE_COMPACT_SUCCESS_RESPONSE = """
+            {
+                "success": true,
+                "message": "Multipart upload iniciado correctamente para el archivo test.png",
+                "data": {
+                    "key": "usuario/2025/06/uuid_test_test.png",
+                    "uploadId": "EjemploUploadId",
+                    "totalParts": 2,
+                    "partSizeBytes": 5242880,
+                    "urlTemplate": "https://bucket.s3.amazonaws.com/usuario/2025/06/uuid_test_test.png?X-Amz-Algorithm=AWS4-HMAC-SHA256&partNumber={partNumber}&uploadId=EjemploUploadId&X-Amz-Signature={signature}",
+                    "signatures": "q83vEjRWeJCrze8SNFZ4kKvN7xI0VniQq83vEjRWeJCrze8SNFZ4kKvN7xI0VniQq83vEjRWeJCrze8SNFZ4kKvN7xI0VniQ"
+                }
+            }
+            """;
+
     public static final String EXAMPLE_VALIDATION_ERROR = """
             {
                 "success": false,
@@ -64,4 +81,252 @@ public class SwaggerExamples {
                 "message": "Errores de validación"
             }
             """;
+
+    public static final String EXAMPLE_PART_URLS_SUCCESS = """
+            {
+                "success": true,
+                "message": "URLs generadas correctamente para el archivo usuario/2025/06/uuid_test_test.png",
+                "data": {
+                    "key": "usuario/2025/06/uuid_test_test.png",
+                    "uploadId": "EjemploUploadId",
+                    "totalParts": 1200,
+                    "partSizeBytes": 104857600,
+                    "urls": [
+                        { "partNumber": 501, "url": "https://s3...501" },
+                        { "partNumber": 502, "url": "https://s3...502" }
+                    ]
+                }
+            }
+            """;
+
+    public static final String EXAMPLE_INVALID_PART_RANGE = """
+            {
+                "error": "INVALID_PART_RANGE",
+                "message": "No se pueden solicitar más de 1000 partes por petición",
+                "status": 400
+            }
+            """;
+
+    public static final String EXAMPLE_UPLOAD_NOT_FOUND = """
+            {
+                "error": "UPLOAD_NOT_FOUND",
+                "message": "No se encontro la carga del archivo [usuario/2025/06/archivo.jpg] con uploadId [EjemploUploadId]",
+                "status": 404
+            }
+            """;
+
+    public static final String EXAMPLE_UPLOAD_PARTS_MISMATCH = """
+            {
+                "error": "UPLOAD_PARTS_MISMATCH",
+                "message": "Se encontraron 998 de 1000 partes del archivo",
+                "status": 409
+            }
+            """;
+
+    public static final String EXAMPLE_CHECKSUM_MISMATCH = """
+            {
+                "error": "CHECKSUM_MISMATCH",
+                "message": "El checksum de la carga [EjemploUploadId] no coincide: se esperaba yZRlqg==-3 y S3 devolvio AAAAAA==-3",
+                "status": 409
+            }
+            """;
+
+    public static final String EXAMPLE_UPLOAD_FINISHED = """
+            {
+                "error": "UPLOAD_FINISHED",
+                "message": "La carga con uploadId [EjemploUploadId] ya termino con estado completed",
+                "status": 409
+            }
+            """;
+
+    public static final String EXAMPLE_COMPLETION_ACCEPTED = """
+            {
+                "success": true,
+                "data": {
+                    "key": "usuario/2025/06/archivo.jpg",
+                    "uploadId": "EjemploUploadId",
+                    "status": "completing"
+                },
+                "errors": null,
+                "message": "Finalizacion de la carga en proceso"
+            }
+            """;
+
+    public static final String EXAMPLE_UPLOAD_STATUS = """
+            {
+                "success": true,
+                "data": {
+                    "key": "usuario/2025/06/archivo.jpg",
+                    "uploadId": "EjemploUploadId",
+                    "status": "completed"
+                },
+                "errors": null,
+                "message": "Estado de la carga consultado correctamente"
+            }
+            """;
+
+    public static final String EXAMPLE_COMPLETION_QUEUE_FULL = """
+            {
+                "error": "COMPLETION_QUEUE_FULL",
+                "message": "Hay demasiadas cargas en proceso de finalizacion, intenta de nuevo en unos segundos",
+                "status": 503
+            }
+            """;
+
+    public static final String EXAMPLE_UPLOAD_PAGE = """
+            {
+                "success": true,
+                "data": {
+                    "uploads": [
+                        {
+                            "key": "usuario/2025/06/archivo.jpg",
+                            "uploadId": "EjemploUploadId",
+                            "filename": "archivo.jpg",
+                            "contentType": "image/jpeg",
+                            "sizeBytes": 104857600,
+                            "status": "completed",
+                            "createdAt": "2025-06-14T10:15:30"
+                        }
+                    ],
+                    "nextCursor": "MjAyNS0wNi0xNFQxMDoxNTozMF8wMTkwMWE0ZS03YjNjLTdhMmQtOGYxZS0zYzRkNWU2ZjcwODE"
+                },
+                "errors": null,
+                "message": "Cargas consultadas correctamente"
+            }
+            """;
+
+    public static final String EXAMPLE_INVALID_UPLOAD_QUERY = """
+            {
+                "error": "INVALID_UPLOAD_QUERY",
+                "message": "El cursor no es valido, use el nextCursor de la pagina anterior",
+                "status": 400
+            }
+            """;
+
+    public static final String EXAMPLE_PROGRESS_ACCEPTED = """
+            {
+                "success": true,
+                "data": null,
+                "errors": null,
+                "message": "Se registraron 25 partes"
+            }
+            """;
+
+    public static final String EXAMPLE_PROGRESS_VALIDATION_ERROR = """
+            {
+                "success": false,
+                "data": null,
+                "errors": {
+                    "parts[0].eTag": "El eTag es obligatorio"
+                },
+                "message": "Errores de validación"
+            }
+            """;
+
+    public static final String EXAMPLE_UPLOAD_PROGRESS = """
+            {
+                "success": true,
+                "data": {
+                    "key": "usuario/2025/06/archivo.jpg",
+                    "uploadId": "EjemploUploadId",
+                    "status": "pending",
+                    "totalParts": 1000,
+                    "reportedParts": 250,
+                    "totalBytes": 104857600000,
+                    "reportedBytes": 26214400000,
+                    "percentComplete": 25.0
+                },
+                "errors": null,
+                "message": "Avance de la carga consultado correctamente"
+            }
+            """;
+
+    public static final String EXAMPLE_COMPOSE_SUCCESS = """
+            {
+                "success": true,
+                "data": {
+                    "key": "usuario/2025/06/c3_logs_junio.log",
+                    "sizeBytes": 10737418240,
+                    "totalParts": 20
+                },
+                "errors": null,
+                "message": "Archivo compuesto correctamente"
+            }
+            """;
+
+    public static final String EXAMPLE_BULK_UPLOAD_SUCCESS = """
+            {
+                "success": true,
+                "data": {
+                    "initiated": 1,
+                    "failed": 1,
+                    "files": [
+                        {
+                            "index": 0,
+                            "filename": "foto_01.jpg",
+                            "success": true,
+                            "upload": {
+                                "key": "usuario/2025/06/uuid_foto_01.jpg",
+                                "uploadId": "EjemploUploadId",
+                                "totalParts": 2,
+                                "partSizeBytes": 5242880,
+                                "urls": null
+                            },
+                            "error": null,
+                            "message": null
+                        },
+                        {
+                            "index": 1,
+                            "filename": "foto_02.jpg",
+                            "success": false,
+                            "upload": null,
+                            "error": "INITIATE_FAILED",
+                            "message": "No fue posible iniciar la carga del archivo en S3"
+                        }
+                    ]
+                },
+                "errors": null,
+                "message": "Cargas iniciadas: 1 de 2"
+            }
+            """;
+
+    public static final String EXAMPLE_BULK_UPLOAD_VALIDATION_ERROR = """
+            {
+                "success": false,
+                "data": null,
+                "errors": {
+                    "files[3].contentType": "El tipo MIME no coincide con la extensión: se esperaba image/jpeg"
+                },
+                "message": "Errores de validación"
+            }
+            """;
+
+    public static final String EXAMPLE_INVALID_COMPOSE_SOURCE = """
+            {
+                "error": "INVALID_COMPOSE_SOURCE",
+                "message": "El archivo origen [usuario/2025/06/log_01.log] no existe o no esta completado",
+                "status": 400
+            }
+            """;
+
+    public static final String EXAMPLE_RESUME_SUCCESS = """
+            {
+                "success": true,
+                "message": "Carga reanudada, faltan 2 partes del archivo usuario/2025/06/uuid_test_test.png",
+                "data": {
+                    "key": "usuario/2025/06/uuid_test_test.png",
+                    "uploadId": "EjemploUploadId",
+                    "totalParts": 10,
+                    "partSizeBytes": 104857600,
+                    "uploadedParts": [
+                        { "partNumber": 1, "eTag": "abc123etaghashabcdef1234567890ab" },
+                        { "partNumber": 2, "eTag": "def456etaghashabcdef1234567890cd" }
+                    ],
+                    "urls": [
+                        { "partNumber": 3, "url": "https://s3...3" },
+                        { "partNumber": 7, "url": "https://s3...7" }
+                    ]
+                }
+            }
+            """;
 }
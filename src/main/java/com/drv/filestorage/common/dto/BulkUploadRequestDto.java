@@ -0,0 +1,23 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Petición para iniciar en una sola llamada la carga multipart de varios archivos")
+public class BulkUploadRequestDto {
+
+    @Schema(description = "Archivos a cargar; cada uno con los mismos datos que una carga individual")
+    @NotNull(message = "La lista de archivos es obligatoria")
+    @Size(min = 1, max = 1000, message = "Se deben indicar entre 1 y 1.000 archivos")
+    private List<@Valid @NotNull(message = "El archivo no puede ser nulo") MultipartUploadRequestDto> files;
+}
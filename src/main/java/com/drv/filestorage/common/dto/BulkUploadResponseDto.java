@@ -0,0 +1,24 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resultado de una carga masiva: cantidad de cargas iniciadas y fallidas y el detalle por archivo")
+public class BulkUploadResponseDto {
+
+    @Schema(description = "Cantidad de archivos con la carga iniciada", example = "2")
+    private int initiated;
+
+    @Schema(description = "Cantidad de archivos que no se pudieron iniciar", example = "1")
+    private int failed;
+
+    @Schema(description = "Resultado de cada archivo, en el orden de la petición")
+    private List<BulkUploadResultDto> files;
+}
@@ -0,0 +1,39 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resultado del inicio de la carga de un archivo dentro de una carga masiva")
+public class BulkUploadResultDto {
+
+    @Schema(description = "Posición del archivo en la petición, desde 0", example = "0")
+    private int index;
+
+    @Schema(description = "Nombre del archivo", example = "foto_01.jpg")
+    private String filename;
+
+    @Schema(description = "Indica si la carga del archivo quedó iniciada", example = "true")
+    private boolean success;
+
+    @Schema(description = "Key, uploadId, total y tamaño de partes de la carga iniciada; nulo si falló")
+    private MultipartUploadResponseDto upload;
+
+    @Schema(description = "Código del error si la carga no se pudo iniciar", example = "INITIATE_FAILED")
+    private String error;
+
+    @Schema(description = "Detalle del error si la carga no se pudo iniciar")
+    private String message;
+
+    public static BulkUploadResultDto initiated(int index, String filename, MultipartUploadResponseDto upload) {
+        return new BulkUploadResultDto(index, filename, true, upload, null, null);
+    }
+
+    public static BulkUploadResultDto failed(int index, String filename, String error, String message) {
+        return new BulkUploadResultDto(index, filename, false, null, error, message);
+    }
+}
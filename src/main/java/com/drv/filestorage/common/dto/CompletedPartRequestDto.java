@@ -28,4 +28,18 @@ public class CompletedPartRequestDto {
     @Size(min = 32, max = 100, message = "El eTag debe tener entre 32 y 100 caracteres")
     @JsonProperty("eTag")
     private String eTag;
+
+    @Schema(
+            name = "checksumCRC32C",
+            description = "Opcional. CRC32C de la parte en Base64, devuelto por S3 en el header x-amz-checksum-crc32c. " +
+                    "Obligatorio si la carga se inició con checksumAlgorithm CRC32C.",
+            example = "yZRlqg=="
+    )
+    @Pattern(regexp = "^[A-Za-z0-9+/]{6}==$", message = "El checksum CRC32C debe ser de 4 bytes codificados en Base64")
+    @JsonProperty("checksumCRC32C")
+    private String checksumCRC32C;
+
+    public CompletedPartRequestDto(int partNumber, String eTag) {
+        this(partNumber, eTag, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Petición para unir en S3 varios archivos ya cargados en un solo archivo")
+public class ComposeRequestDto {
+
+    @Schema(
+            description = "Nombre del archivo resultante (sin rutas). Puede incluir letras, números, puntos, guiones y guiones bajos.",
+            example = "logs_junio.log"
+    )
+    @NotNull(message = "El nombre del archivo es obligatorio")
+    @NotBlank(message = "El nombre del archivo no puede estar vacío")
+    @Size(min = 3, max = 200, message = "El nombre del archivo debe tener entre 3 y 200 caracteres")
+    @Pattern(
+            regexp = "^[a-zA-Z0-9._-]+$",
+            message = "El nombre del archivo solo puede contener letras, números, guiones, puntos y guiones bajos"
+    )
+    private String filename;
+
+    @Schema(
+            description = "Opcional. Tipo MIME del archivo resultante; por defecto el del primer archivo origen.",
+            example = "text/plain"
+    )
+    @Pattern(
+            regexp = "^[a-zA-Z0-9.+\\-]+/[a-zA-Z0-9.+\\-]+$",
+            message = "El tipo de contenido del archivo no es válido"
+    )
+    private String contentType;
+
+    @Schema(
+            description = "Keys de los archivos origen, en el orden en que se unen. Todos deben estar completados " +
+                    "y, salvo el último, pesar al menos 5 MB.",
+            example = "[\"user123/2025/06/a1_log_01.log\", \"user123/2025/06/b2_log_02.log\"]"
+    )
+    @NotNull(message = "La lista de archivos origen es obligatoria")
+    @Size(min = 2, max = 1000, message = "Se deben indicar entre 2 y 1.000 archivos origen")
+    private List<@NotBlank(message = "La key del archivo origen no puede estar vacía") String> sourceKeys;
+}
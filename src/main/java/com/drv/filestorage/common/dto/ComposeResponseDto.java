@@ -0,0 +1,22 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Archivo resultante de una composicion en S3")
+public class ComposeResponseDto {
+
+    @Schema(description = "Ruta (key) del archivo resultante en S3", example = "user123/2025/06/c3_logs_junio.log")
+    private String key;
+
+    @Schema(description = "Tamaño total del archivo resultante en bytes", example = "10737418240")
+    private long sizeBytes;
+
+    @Schema(description = "Cantidad de partes copiadas", example = "20")
+    private int totalParts;
+}
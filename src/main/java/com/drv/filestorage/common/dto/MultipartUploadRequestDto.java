@@ -28,13 +28,13 @@ public class MultipartUploadRequestDto {
     private String filename;
 
     @Schema(
-            description = "Tamaño total del archivo en bytes. Mínimo 5 MB y máximo 100 GB.",
+            description = "Tamaño total del archivo en bytes. Mínimo 5 MB y máximo 5 TB.",
             example = "104857600"
     )
     @NotNull(message = "El tamaño del archivo es obligatorio")
     @Positive(message = "El tamaño del archivo debe ser mayor que cero")
     @Min(value = 5 * 1024 * 1024, message = "El tamaño mínimo del archivo es 5 MB")
-    @Max(value = 100L * 1024 * 1024 * 1024, message = "El tamaño máximo del archivo es 100 GB")
+    @Max(value = 5L * 1024 * 1024 * 1024 * 1024, message = "El tamaño máximo del archivo es 5 TB")
     private Long fileSizeBytes;
 
     @Schema(
@@ -49,4 +49,32 @@ public class MultipartUploadRequestDto {
     )
     private String contentType;
 
+    @Schema(
+            description = "Opcional. Ancho de banda de subida del cliente en Mbps, usado para elegir el tamaño de parte.",
+            example = "200"
+    )
+    @Positive(message = "El ancho de banda debe ser mayor que cero")
+    @Max(value = 100_000, message = "El ancho de banda no puede ser mayor a 100.000 Mbps")
+    private Integer uploadBandwidthMbps;
+
+    @Schema(
+            description = "Opcional. Cantidad de partes que el cliente sube en paralelo, usada para elegir el tamaño de parte.",
+            example = "8"
+    )
+    @Min(value = 1, message = "El paralelismo debe ser mayor o igual a 1")
+    @Max(value = 1000, message = "El paralelismo no puede ser mayor a 1.000")
+    private Integer parallelism;
+
+    @Schema(
+            description = "Opcional. Algoritmo de checksum adicional de S3 para verificar la integridad de cada parte y del archivo completo. " +
+                    "Solo se admite CRC32C.",
+            example = "CRC32C"
+    )
+    @Pattern(regexp = "^CRC32C$", message = "El único algoritmo de checksum admitido es CRC32C")
+    private String checksumAlgorithm;
+
+    public MultipartUploadRequestDto(String filename, Long fileSizeBytes, String contentType,
+                                     Integer uploadBandwidthMbps, Integer parallelism) {
+        this(filename, fileSizeBytes, contentType, uploadBandwidthMbps, parallelism, null);
+    }
 }
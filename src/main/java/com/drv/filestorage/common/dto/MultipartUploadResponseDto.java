@@ -1,11 +1,13 @@
 package com.drv.filestorage.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -19,6 +21,46 @@ public class MultipartUploadResponseDto {
     @Schema(description = "Identificador del upload multipart en S3", example = "VXBsb2FkSUQxMjM0NTY3ODkw")
     private String uploadId;
 
+    @Schema(description = "Cantidad total de partes que componen el archivo", example = "1200")
+    private int totalParts;
+
+    @Schema(description = "Tamaño en bytes de cada parte (la última puede ser menor)", example = "104857600")
+    private long partSizeBytes;
+
     @Schema(description = "Listado de URLs por cada parte a subir", example = "[{ partNumber: 1, url: \"https://s3...\" }]")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<PartInfoResponseDto> urls;
+
+    @Schema(description = "Formato compacto: URL de las partes con los marcadores {partNumber} y {signature}",
+            example = "https://bucket.s3.amazonaws.com/user/2025/06/archivo.jpg?X-Amz-Date=...&partNumber={partNumber}&X-Amz-Signature={signature}")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String urlTemplate;
+
+    @Schema(description = "Formato compacto: firmas de 32 bytes de cada parte, desde la parte 1 y en orden, concatenadas y codificadas en Base64. " +
+            "La firma de la parte N son los bytes [(N-1)*32, N*32) en hexadecimal en minúsculas.",
+            example = "q83vEjRWeJCrze8SNFZ4kKvN7xI0VniQq83vEjRWeJA=")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String signatures;
+
+    @Schema(description = "Algoritmo de checksum de la carga; si viene, cada parte debe enviarse con el header x-amz-checksum-crc32c " +
+            "y con los headers de partHeaders",
+            example = "CRC32C")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String checksumAlgorithm;
+
+    @Schema(description = "Headers firmados en las URLs que cada PUT de parte debe enviar con estos valores; " +
+            "si falta alguno S3 responde SignatureDoesNotMatch",
+            example = "{\"x-amz-sdk-checksum-algorithm\": \"CRC32C\"}")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, String> partHeaders;
+
+    public MultipartUploadResponseDto(String key, String uploadId, int totalParts, long partSizeBytes,
+                                      List<PartInfoResponseDto> urls) {
+        this(key, uploadId, totalParts, partSizeBytes, urls, null, null, null, null);
+    }
+
+    public MultipartUploadResponseDto(String key, String uploadId, int totalParts, long partSizeBytes,
+                                      List<PartInfoResponseDto> urls, String urlTemplate, String signatures) {
+        this(key, uploadId, totalParts, partSizeBytes, urls, urlTemplate, signatures, null, null);
+    }
 }
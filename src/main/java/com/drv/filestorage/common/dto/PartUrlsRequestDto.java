@@ -0,0 +1,44 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Petición para obtener una ventana de URLs prefirmadas de un multipart upload ya iniciado")
+public class PartUrlsRequestDto {
+
+    @Schema(
+            description = "Ruta (key) completa del archivo en S3",
+            example = "user123/2025/06/archivo.jpg"
+    )
+    @NotNull(message = "El nombre del archivo (key) es obligatorio")
+    @NotBlank(message = "El nombre del archivo (key) no puede estar vacío")
+    @Size(min = 3, max = 1024, message = "El nombre del archivo (key) debe tener entre 3 y 1024 caracteres")
+    private String key;
+
+    @Schema(
+            description = "Identificador único del upload multipart generado por S3",
+            example = "W1tZb3VHaWRWZndzZWc3LUVRZ21jc3guLi4="
+    )
+    @NotNull(message = "El uploadId es obligatorio")
+    @NotBlank(message = "El uploadId es obligatorio")
+    @Size(min = 5, max = 1024, message = "El uploadId debe tener entre 5 y 1024 caracteres")
+    private String uploadId;
+
+    @Schema(description = "Número de la primera parte de la ventana", example = "501", minimum = "1", maximum = "10000")
+    @NotNull(message = "El número de la primera parte es obligatorio")
+    @Min(value = 1, message = "El número de parte debe ser mayor o igual a 1")
+    @Max(value = 10000, message = "El número de parte no puede ser mayor a 10.000")
+    private Integer firstPartNumber;
+
+    @Schema(description = "Número de la última parte de la ventana (inclusive)", example = "1000", minimum = "1", maximum = "10000")
+    @NotNull(message = "El número de la última parte es obligatorio")
+    @Min(value = 1, message = "El número de parte debe ser mayor o igual a 1")
+    @Max(value = 10000, message = "El número de parte no puede ser mayor a 10.000")
+    private Integer lastPartNumber;
+}
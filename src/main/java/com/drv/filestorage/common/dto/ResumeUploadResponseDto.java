@@ -0,0 +1,45 @@
+package com.drv.filestorage.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Estado de una carga interrumpida: partes ya subidas y URLs de las partes faltantes")
+public class ResumeUploadResponseDto {
+
+    @Schema(description = "Ruta (key) del archivo en S3", example = "user123/2025/06/archivo.jpg")
+    private String key;
+
+    @Schema(description = "Identificador del upload multipart en S3", example = "VXBsb2FkSUQxMjM0NTY3ODkw")
+    private String uploadId;
+
+    @Schema(description = "Cantidad total de partes del archivo", example = "1000")
+    private int totalParts;
+
+    @Schema(description = "Tamaño en bytes de cada parte, excepto la última", example = "104857600")
+    private long partSizeBytes;
+
+    @Schema(description = "Partes que ya están en S3 con su ETag")
+    private List<CompletedPartRequestDto> uploadedParts;
+
+    @Schema(description = "URLs prefirmadas solo de las partes que faltan por subir")
+    private List<PartInfoResponseDto> urls;
+
+    @Schema(description = "Headers firmados en las URLs que cada PUT de parte debe enviar con estos valores",
+            example = "{\"x-amz-sdk-checksum-algorithm\": \"CRC32C\"}")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, String> partHeaders;
+
+    public ResumeUploadResponseDto(String key, String uploadId, int totalParts, long partSizeBytes,
+                                   List<CompletedPartRequestDto> uploadedParts, List<PartInfoResponseDto> urls) {
+        this(key, uploadId, totalParts, partSizeBytes, uploadedParts, urls, null);
+    }
+}
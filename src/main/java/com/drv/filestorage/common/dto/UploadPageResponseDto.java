@@ -0,0 +1,22 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Pagina de cargas del usuario, de la mas reciente a la mas antigua")
+public class UploadPageResponseDto {
+
+    @Schema(description = "Cargas de la pagina")
+    private List<UploadSummaryDto> uploads;
+
+    @Schema(description = "Cursor para pedir la siguiente pagina; null si no hay mas",
+            example = "MjAyNS0wNi0xNFQxMDoxNTozMF8wMTkwMWE0ZS03YjNjLTdhMmQtOGYxZS0zYzRkNWU2ZjcwODE")
+    private String nextCursor;
+}
@@ -0,0 +1,37 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Avance de un multipart upload según las partes reportadas por el cliente")
+public class UploadProgressResponseDto {
+
+    @Schema(description = "Ruta (key) del archivo en S3", example = "user123/2025/06/archivo.jpg")
+    private String key;
+
+    @Schema(description = "Identificador del upload multipart en S3", example = "VXBsb2FkSUQxMjM0NTY3ODkw")
+    private String uploadId;
+
+    @Schema(description = "Estado de la carga", example = "pending")
+    private String status;
+
+    @Schema(description = "Cantidad total de partes del archivo", example = "1000")
+    private int totalParts;
+
+    @Schema(description = "Partes reportadas como subidas", example = "250")
+    private int reportedParts;
+
+    @Schema(description = "Tamaño total del archivo en bytes", example = "104857600000")
+    private long totalBytes;
+
+    @Schema(description = "Bytes reportados como subidos", example = "26214400000")
+    private long reportedBytes;
+
+    @Schema(description = "Porcentaje de bytes subidos", example = "25.0")
+    private double percentComplete;
+}
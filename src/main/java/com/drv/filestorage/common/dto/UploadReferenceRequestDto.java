@@ -0,0 +1,34 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Petición que identifica un multipart upload ya iniciado")
+public class UploadReferenceRequestDto {
+
+    @Schema(
+            description = "Ruta (key) completa del archivo en S3",
+            example = "user123/2025/06/archivo.jpg"
+    )
+    @NotNull(message = "El nombre del archivo (key) es obligatorio")
+    @NotBlank(message = "El nombre del archivo (key) no puede estar vacío")
+    @Size(min = 3, max = 1024, message = "El nombre del archivo (key) debe tener entre 3 y 1024 caracteres")
+    private String key;
+
+    @Schema(
+            description = "Identificador único del upload multipart generado por S3",
+            example = "W1tZb3VHaWRWZndzZWc3LUVRZ21jc3guLi4="
+    )
+    @NotNull(message = "El uploadId es obligatorio")
+    @NotBlank(message = "El uploadId es obligatorio")
+    @Size(min = 5, max = 1024, message = "El uploadId debe tener entre 5 y 1024 caracteres")
+    private String uploadId;
+}
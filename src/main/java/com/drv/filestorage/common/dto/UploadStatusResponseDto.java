@@ -0,0 +1,22 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Estado de un multipart upload")
+public class UploadStatusResponseDto {
+
+    @Schema(description = "Ruta (key) del archivo en S3", example = "user123/2025/06/archivo.jpg")
+    private String key;
+
+    @Schema(description = "Identificador del upload multipart en S3", example = "VXBsb2FkSUQxMjM0NTY3ODkw")
+    private String uploadId;
+
+    @Schema(description = "Estado de la carga: pending, completing, completed o failed", example = "completing")
+    private String status;
+}
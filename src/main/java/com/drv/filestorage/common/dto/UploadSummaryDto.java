@@ -0,0 +1,36 @@
+package com.drv.filestorage.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resumen de una carga del usuario")
+public class UploadSummaryDto {
+
+    @Schema(description = "Ruta (key) del archivo en S3", example = "user123/2025/06/archivo.jpg")
+    private String key;
+
+    @Schema(description = "Identificador del upload multipart en S3", example = "VXBsb2FkSUQxMjM0NTY3ODkw")
+    private String uploadId;
+
+    @Schema(description = "Nombre original del archivo", example = "archivo.jpg")
+    private String filename;
+
+    @Schema(description = "Tipo de contenido del archivo", example = "image/jpeg")
+    private String contentType;
+
+    @Schema(description = "Tamaño del archivo en bytes", example = "104857600")
+    private Long sizeBytes;
+
+    @Schema(description = "Estado de la carga: pending, completing, completed, failed o aborted", example = "completed")
+    private String status;
+
+    @Schema(description = "Fecha de inicio de la carga", example = "2025-06-14T10:15:30")
+    private LocalDateTime createdAt;
+}
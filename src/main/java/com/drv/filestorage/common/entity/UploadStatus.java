@@ -0,0 +1,86 @@
+package com.drv.filestorage.common.entity;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ciclo de vida de una carga multipart:
+ * pending → completing → completed, con failed si la finalizacion falla o el objeto no pasa la verificacion de
+ * checksum, y aborted si se abandona; una carga failed tambien puede abortarse.
+ * completed y aborted son estados finales. En BD se guarda el valor en minusculas.
+ */
+public enum UploadStatus {
+
+    PENDING("pending"),
+    COMPLETING("completing"),
+    COMPLETED("completed"),
+    FAILED("failed"),
+    ABORTED("aborted");
+
+    // Estados desde los que se puede llegar a cada estado
+    private static final Map<UploadStatus, Set<UploadStatus>> SOURCES = new EnumMap<>(UploadStatus.class);
+
+    static {
+        for (UploadStatus target : values()) {
+            Set<UploadStatus> sources = EnumSet.noneOf(UploadStatus.class);
+            for (UploadStatus source : values()) {
+                if (source.canTransitionTo(target)) {
+                    sources.add(source);
+                }
+            }
+            SOURCES.put(target, sources);
+        }
+    }
+
+    private final String value;
+
+    UploadStatus(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Indica si la carga puede pasar de este estado al indicado
+     * @param target estado destino
+     * @return true si la transicion es valida
+     */
+    public boolean canTransitionTo(UploadStatus target) {
+        return switch (this) {
+            case PENDING -> target == COMPLETING || target == COMPLETED || target == FAILED || target == ABORTED;
+            // completing vuelve a pending si la finalizacion no se pudo encolar
+            case COMPLETING -> target == COMPLETED || target == FAILED || target == PENDING;
+            case FAILED -> target == COMPLETING || target == COMPLETED || target == ABORTED;
+            case COMPLETED, ABORTED -> false;
+        };
+    }
+
+    /**
+     * Indica si el estado es final: la carga ya no cambia de estado
+     * @return true para completed y aborted
+     */
+    public boolean isFinal() {
+        return this == COMPLETED || this == ABORTED;
+    }
+
+    /**
+     * Estados desde los que se puede llegar al indicado, para condicionar el UPDATE de la transicion
+     * @param target estado destino
+     * @return estados origen validos
+     */
+    public static Set<UploadStatus> sourcesOf(UploadStatus target) {
+        return SOURCES.get(target);
+    }
+
+    public static UploadStatus fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(status -> status.value.equals(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Estado de carga desconocido: " + value));
+    }
+}
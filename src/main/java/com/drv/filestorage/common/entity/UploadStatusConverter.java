@@ -0,0 +1,22 @@
+package com.drv.filestorage.common.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda {@link UploadStatus} en la columna status con su valor en minusculas,
+ * compatible con los registros existentes
+ */
+@Converter(autoApply = true)
+public class UploadStatusConverter implements AttributeConverter<UploadStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(UploadStatus status) {
+        return status != null ? status.value() : null;
+    }
+
+    @Override
+    public UploadStatus convertToEntityAttribute(String value) {
+        return value != null ? UploadStatus.fromValue(value) : null;
+    }
+}
@@ -1,16 +1,26 @@
 package com.drv.filestorage.common.entity;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Registro de una carga en BD. El ID es un UUID version 7 generado en la aplicacion: los INSERT quedan
+ * ordenados por tiempo en el indice de la clave primaria y Hibernate puede agruparlos en lotes JDBC.
+ * Como el ID ya viene asignado, {@link #isNew()} indica a Spring Data que un registro recien creado
+ * se inserta directamente, sin el SELECT previo de merge.
+ */
 @Entity
 @Table(name = "uploaded_files")
-public class UploadedFileEntity {
+public class UploadedFileEntity implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
-    private UUID id;
+    private UUID id = UuidV7.next();
+
+    @Transient
+    private boolean isNew = true;
 
     @Column(nullable = false)
     private String filename;
@@ -30,18 +40,43 @@ public class UploadedFileEntity {
     @Column(name = "size_bytes")
     private Long sizeBytes;
 
+    @Column(name = "part_size_bytes")
+    private Long partSizeBytes;
+
     @Column(name = "uploaded_by")
     private String uploadedBy;
 
-    private String status = "pending";
+    private UploadStatus status = UploadStatus.PENDING;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Ultimo cambio de estado; permite detectar finalizaciones en curso que se perdieron
+    @Column(name = "status_updated_at")
+    private LocalDateTime statusUpdatedAt = createdAt;
+
+    @Column(name = "checksum_algorithm")
+    private String checksumAlgorithm;
+
+    @Column(name = "checksum_crc32c")
+    private String checksumCrc32c;
+
+    @Override
     public UUID getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public void setId(UUID id) {
         this.id = id;
     }
@@ -94,6 +129,14 @@ public class UploadedFileEntity {
         this.sizeBytes = sizeBytes;
     }
 
+    public Long getPartSizeBytes() {
+        return partSizeBytes;
+    }
+
+    public void setPartSizeBytes(Long partSizeBytes) {
+        this.partSizeBytes = partSizeBytes;
+    }
+
     public String getUploadedBy() {
         return uploadedBy;
     }
@@ -102,11 +145,11 @@ public class UploadedFileEntity {
         this.uploadedBy = uploadedBy;
     }
 
-    public String getStatus() {
+    public UploadStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(UploadStatus status) {
         this.status = status;
     }
 
@@ -117,4 +160,28 @@ public class UploadedFileEntity {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getStatusUpdatedAt() {
+        return statusUpdatedAt;
+    }
+
+    public void setStatusUpdatedAt(LocalDateTime statusUpdatedAt) {
+        this.statusUpdatedAt = statusUpdatedAt;
+    }
+
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public void setChecksumAlgorithm(String checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    public String getChecksumCrc32c() {
+        return checksumCrc32c;
+    }
+
+    public void setChecksumCrc32c(String checksumCrc32c) {
+        this.checksumCrc32c = checksumCrc32c;
+    }
 }
@@ -0,0 +1,47 @@
+package com.drv.filestorage.common.entity;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de UUID version 7 (RFC 9562): los primeros 48 bits son el instante en milisegundos,
+ * por lo que los IDs generados despues son mayores y los INSERT caen al final del indice de la clave primaria
+ * en lugar de repartirse por todo el arbol. Dentro de un mismo milisegundo los 12 bits siguientes
+ * funcionan como contador, de modo que los IDs de este proceso son estrictamente crecientes.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+    private static final long RANDOM_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int COUNTER_BITS = 12;
+
+    // Ultimo valor emitido: instante en milisegundos seguido del contador de 12 bits
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    /**
+     * Genera un UUID version 7 para el instante indicado. Si el reloj no avanza o retrocede se incrementa
+     * el contador; al agotarse, el instante del ID avanza un milisegundo por delante del reloj.
+     * @param epochMillis instante actual en milisegundos
+     * @return UUID mayor que todos los generados antes en el proceso
+     */
+    static UUID next(long epochMillis) {
+        long candidate = epochMillis << COUNTER_BITS;
+        long timestampAndCounter = lastTimestampAndCounter.accumulateAndGet(candidate,
+                (last, now) -> now > last ? now : last + 1);
+
+        long mostSigBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | VERSION_7
+                | (timestampAndCounter & ((1L << COUNTER_BITS) - 1));
+        long leastSigBits = VARIANT_RFC | (ThreadLocalRandom.current().nextLong() & RANDOM_B_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
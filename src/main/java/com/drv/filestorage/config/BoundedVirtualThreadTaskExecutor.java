@@ -0,0 +1,69 @@
+package com.drv.filestorage.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Ejecuta cada tarea en un hilo virtual con un maximo de tareas simultaneas. Si el maximo esta ocupado
+ * la tarea se rechaza con RejectedExecutionException en lugar de bloquear al hilo que la envia, igual que
+ * el pool de hilos cuando se llena su cola; quien envia suele ser un hilo del cliente asincrono de S3.
+ */
+class BoundedVirtualThreadTaskExecutor implements AsyncTaskExecutor {
+
+    private final int concurrencyLimit;
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+
+    BoundedVirtualThreadTaskExecutor(String threadNamePrefix, int concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+        this.permits = new Semaphore(concurrencyLimit);
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException(
+                    String.format("Se alcanzo el maximo de %d tareas simultaneas", concurrencyLimit));
+        }
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * @return tareas en ejecucion
+     */
+    int activeCount() {
+        return concurrencyLimit - permits.availablePermits();
+    }
+}
@@ -0,0 +1,31 @@
+package com.drv.filestorage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuración del pool acotado de finalizaciones en segundo plano.
+ * Si la cola se llena, la tarea se rechaza en lugar de crecer sin limite
+ */
+@Configuration
+public class CompletionExecutorConfig {
+
+    @Value("${app.completion.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.completion.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor completionExecutor() {
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("upload-completion-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,61 @@
+package com.drv.filestorage.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Revisa periodicamente en SSM las credenciales de la BD y, si fueron rotadas, las aplica al pool.
+ * Las credenciales nuevas solo se usan en las conexiones que se abren despues; las conexiones existentes
+ * se desalojan de forma suave: las libres se cierran y las que estan en uso se cierran al devolverse al pool,
+ * sin cortar las transacciones en curso.
+ */
+@Slf4j
+@Component
+public class DatabaseCredentialsRefresher {
+
+    private final HikariDataSource dataSource;
+    private final ParameterStoreService parameterStoreService;
+
+    @Value("${app.ssm.db-username-param}")
+    private String dbUsernameParam;
+
+    @Value("${app.ssm.db-password-param}")
+    private String dbPasswordParam;
+
+    public DatabaseCredentialsRefresher(HikariDataSource dataSource, ParameterStoreService parameterStoreService) {
+        this.dataSource = dataSource;
+        this.parameterStoreService = parameterStoreService;
+    }
+
+    /**
+     * Consulta las credenciales vigentes en SSM y las aplica al pool si cambiaron
+     * @return true si se aplicaron credenciales nuevas
+     */
+    @Scheduled(fixedDelayString = "${app.db.credentials-refresh-ms:300000}",
+            initialDelayString = "${app.db.credentials-refresh-ms:300000}")
+    public boolean refreshCredentials() {
+        String username;
+        String password;
+        try {
+            username = parameterStoreService.refreshParameter(dbUsernameParam);
+            password = parameterStoreService.refreshParameter(dbPasswordParam);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron consultar las credenciales de la BD en SSM, se mantienen las actuales", e);
+            return false;
+        }
+
+        if (Objects.equals(username, dataSource.getUsername()) && Objects.equals(password, dataSource.getPassword())) {
+            return false;
+        }
+        dataSource.getHikariConfigMXBean().setUsername(username);
+        dataSource.getHikariConfigMXBean().setPassword(password);
+        dataSource.getHikariPoolMXBean().softEvictConnections();
+        log.info("Credenciales de la BD rotadas, las conexiones del pool se renuevan al liberarse");
+        return true;
+    }
+}
@@ -1,20 +1,27 @@
 package com.drv.filestorage.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
-
-import javax.sql.DataSource;
 
 /**
- * Configuración de la conexion a la BD
+ * Configuración de la conexion a la BD.
+ * Usa un pool de conexiones HikariCP con los datos de conexion de SSM, para no abrir una conexion
+ * (TCP, TLS y autenticacion) en cada operacion. Las sentencias preparadas se cachean por conexion en el driver
+ * y las metricas del pool se publican en Micrometer como hikaricp.connections.*
  */
 @Configuration
 @RequiredArgsConstructor
 public class DynamicDataSourceConfig {
 
+    static final String POOL_NAME = "filestorage-db";
+
     private final ParameterStoreService parameterStoreService;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.ssm.db-url-param}")
     private String dbUrlParam;
@@ -25,18 +32,51 @@ public class DynamicDataSourceConfig {
     @Value("${app.ssm.db-password-param}")
     private String dbPasswordParam;
 
-    @Bean
+    @Value("${app.db.pool.max-size:10}")
+    private int maxPoolSize;
+
+    @Value("${app.db.pool.min-idle:2}")
+    private int minIdle;
+
+    @Value("${app.db.pool.connection-timeout-ms:5000}")
+    private long connectionTimeoutMs;
+
+    // Al vencer, cada conexion se reemplaza por una nueva con las credenciales vigentes
+    @Value("${app.db.pool.max-lifetime-ms:1800000}")
+    private long maxLifetimeMs;
+
+    @Value("${app.db.prepare-threshold:1}")
+    private int prepareThreshold;
+
+    @Value("${app.db.statement-cache-queries:256}")
+    private int statementCacheQueries;
+
+    @Value("${app.db.statement-cache-size-mib:5}")
+    private int statementCacheSizeMiB;
+
+    @Bean(destroyMethod = "close")
     @Primary
-    public DataSource dataSource() {
-        String url = parameterStoreService.getParameter(dbUrlParam);
-        String username = parameterStoreService.getParameter(dbUsernameParam);
-        String password = parameterStoreService.getParameter(dbPasswordParam);
-
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+    public HikariDataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(POOL_NAME);
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(parameterStoreService.getParameter(dbUrlParam));
+        config.setUsername(parameterStoreService.getParameter(dbUsernameParam));
+        config.setPassword(parameterStoreService.getParameter(dbPasswordParam));
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setMinimumIdle(minIdle);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+
+        // Cache de sentencias preparadas del driver de PostgreSQL: desde la ejecucion numero prepareThreshold
+        // la sentencia queda preparada en el servidor y se reutiliza sin volver a analizarla
+        config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+        config.addDataSourceProperty("preparedStatementCacheQueries", statementCacheQueries);
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", statementCacheSizeMiB);
+        // Los lotes de INSERT de Hibernate se envian como una sola sentencia de varias filas
+        config.addDataSourceProperty("reWriteBatchedInserts", true);
+
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
     }
 }
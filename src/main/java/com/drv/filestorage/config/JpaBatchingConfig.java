@@ -0,0 +1,30 @@
+package com.drv.filestorage.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del envio por lotes de Hibernate: los INSERT y UPDATE de una misma transaccion se agrupan
+ * por tabla y se envian en lotes JDBC de hasta app.db.batch-size sentencias, en lugar de una por registro.
+ * Con reWriteBatchedInserts (ver {@link DynamicDataSourceConfig}) el driver convierte cada lote de INSERT
+ * en una sola sentencia de varias filas
+ */
+@Configuration
+public class JpaBatchingConfig {
+
+    @Value("${app.db.batch-size:100}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+}
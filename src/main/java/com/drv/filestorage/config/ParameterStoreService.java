@@ -22,7 +22,25 @@ public class ParameterStoreService {
     }
 
     public String getParameter(String name) {
-        return cache.computeIfAbsent(name, this::fetchParameter);
+        String cached = cache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        // La llamada a SSM se hace fuera de computeIfAbsent: su bloqueo interno fijaria el hilo virtual a su carrier
+        // durante toda la llamada de red. Dos consultas simultaneas del mismo parametro pueden ir ambas a SSM
+        String value = fetchParameter(name);
+        String previous = cache.putIfAbsent(name, value);
+        return previous != null ? previous : value;
+    }
+
+    /**
+     * Consulta el parametro en SSM sin pasar por la cache y deja el valor vigente en la cache,
+     * para detectar valores rotados como las credenciales de la BD
+     */
+    public String refreshParameter(String name) {
+        String value = fetchParameter(name);
+        cache.put(name, value);
+        return value;
     }
 
     public Map<String, String> getParameters(List<String> names) {
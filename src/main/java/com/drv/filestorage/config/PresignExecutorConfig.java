@@ -0,0 +1,25 @@
+package com.drv.filestorage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuración del pool acotado usado para firmar en paralelo las URLs de las partes
+ */
+@Configuration
+public class PresignExecutorConfig {
+
+    @Value("${app.s3.presign-parallelism:0}")
+    private int presignParallelism;
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool presignForkJoinPool() {
+        int parallelism = presignParallelism > 0
+                ? presignParallelism
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+}
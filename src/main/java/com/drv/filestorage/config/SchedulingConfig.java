@@ -0,0 +1,28 @@
+package com.drv.filestorage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Habilita las tareas programadas, como la escritura periodica del avance de las cargas.
+ * Las tareas comparten un pool de app.scheduling.pool-size hilos: con un solo hilo, las tareas largas
+ * (limpieza de cargas abandonadas, archivo de particiones) detendrian las frecuentes, como la escritura diferida.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Value("${app.scheduling.pool-size:4}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,43 @@
+package com.drv.filestorage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del pool acotado donde los endpoints asincronos ejecutan el trabajo bloqueante
+ * (base de datos y firma de URLs) una vez S3 responde, para no usar los hilos del cliente HTTP de AWS.
+ * Con spring.threads.virtual.enabled cada tarea corre en un hilo virtual y max-pool-size limita las tareas simultaneas;
+ * al llegar al limite la tarea se rechaza, como cuando se llena la cola del pool, en vez de bloquear al hilo de S3 que la envia
+ */
+@Configuration
+public class UploadTaskExecutorConfig {
+
+    @Value("${app.async.core-pool-size:8}")
+    private int corePoolSize;
+
+    @Value("${app.async.max-pool-size:32}")
+    private int maxPoolSize;
+
+    @Value("${app.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public AsyncTaskExecutor uploadTaskExecutor() {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadTaskExecutor("upload-task-", maxPoolSize);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-task-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,77 @@
+package com.drv.filestorage.controller;
+
+import com.drv.filestorage.common.GenericResponse;
+import com.drv.filestorage.common.SwaggerExamples;
+import com.drv.filestorage.common.dto.BulkUploadRequestDto;
+import com.drv.filestorage.common.dto.BulkUploadResponseDto;
+import com.drv.filestorage.service.BulkUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Carga Masiva", description = "Inicio de la carga multipart de varios archivos en una sola petición")
+public class BulkUploadController {
+
+    private BulkUploadService bulkUploadService;
+
+    private static final String ERROR_MSG_VAL = "Errores de validación";
+
+    public BulkUploadController(BulkUploadService bulkUploadService) {
+        this.bulkUploadService = bulkUploadService;
+    }
+
+    @Operation(summary = "Inicia la carga multipart de varios archivos",
+            description = "Valida todos los archivos, inicia sus cargas en S3 en paralelo y las registra en una sola transacción. " +
+                    "Devuelve el resultado de cada archivo; las URLs de las partes se solicitan por archivo con generate-part-urls.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado de cada archivo",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_BULK_UPLOAD_SUCCESS))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación en alguno de los archivos; no se inicia ninguna carga",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_BULK_UPLOAD_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/bulk-multipart-upload")
+    public ResponseEntity<GenericResponse<BulkUploadResponseDto>> initiateBulkUpload(@Valid @RequestBody BulkUploadRequestDto request,
+                                                                                      BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando carga masiva: usuario: {} archivos: {}", username,
+                request.getFiles() == null ? 0 : request.getFiles().size());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        BulkUploadResponseDto result = bulkUploadService.initiateMultipartUploads(request);
+        log.info("Finalizo carga masiva: usuario: {} iniciadas: {} fallidas: {}", username, result.getInitiated(), result.getFailed());
+        return ResponseEntity.ok(GenericResponse.success(result, String.format(
+                "Cargas iniciadas: %d de %d", result.getInitiated(), result.getInitiated() + result.getFailed())));
+    }
+
+    private <T> ResponseEntity<GenericResponse<T>> handleValidationErrors(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage()));
+        log.info(ERROR_MSG_VAL);
+        return ResponseEntity.badRequest().body(GenericResponse.error(errors, ERROR_MSG_VAL));
+    }
+}
@@ -0,0 +1,75 @@
+package com.drv.filestorage.controller;
+
+import com.drv.filestorage.common.GenericResponse;
+import com.drv.filestorage.common.SwaggerExamples;
+import com.drv.filestorage.common.dto.ComposeRequestDto;
+import com.drv.filestorage.common.dto.ComposeResponseDto;
+import com.drv.filestorage.service.ComposeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Composición de Archivos", description = "Unión en S3 de archivos ya cargados")
+public class ComposeController {
+
+    private ComposeService composeService;
+
+    private static final String ERROR_MSG_VAL = "Errores de validación";
+
+    public ComposeController(ComposeService composeService) {
+        this.composeService = composeService;
+    }
+
+    @Operation(summary = "Une varios archivos cargados en uno nuevo",
+            description = "Crea un archivo nuevo copiando en S3, en orden, el contenido de los archivos origen indicados. " +
+                    "Los bytes no pasan por el servicio ni por el cliente.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo compuesto",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPOSE_SUCCESS))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación o archivos origen no válidos",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INVALID_COMPOSE_SOURCE))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/compose")
+    public ResponseEntity<GenericResponse<ComposeResponseDto>> compose(@Valid @RequestBody ComposeRequestDto request,
+                                                                       BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando composicion de archivos: usuario: {} archivo: {}", username, request.getFilename());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        ComposeResponseDto result = composeService.compose(request);
+        log.info("Finalizo composicion de archivos: usuario: {} key: {}", username, result.getKey());
+        return ResponseEntity.ok(GenericResponse.success(result, "Archivo compuesto correctamente"));
+    }
+
+    private <T> ResponseEntity<GenericResponse<T>> handleValidationErrors(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage()));
+        log.info(ERROR_MSG_VAL);
+        return ResponseEntity.badRequest().body(GenericResponse.error(errors, ERROR_MSG_VAL));
+    }
+}
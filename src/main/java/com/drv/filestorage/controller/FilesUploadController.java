@@ -5,7 +5,18 @@ import com.drv.filestorage.common.SwaggerExamples;
 import com.drv.filestorage.common.dto.CompleteUploadRequestDto;
 import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
 import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
+import com.drv.filestorage.common.dto.PartInfoResponseDto;
+import com.drv.filestorage.common.dto.PartUrlsRequestDto;
+import com.drv.filestorage.common.dto.ResumeUploadResponseDto;
+import com.drv.filestorage.common.dto.UploadPageResponseDto;
+import com.drv.filestorage.common.dto.UploadReferenceRequestDto;
+import com.drv.filestorage.common.dto.UploadStatusResponseDto;
+import com.drv.filestorage.service.CompletionJobService;
+import com.drv.filestorage.service.FilestorageAsyncService;
 import com.drv.filestorage.service.FilestorageService;
+import com.drv.filestorage.service.UploadHistoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,9 +32,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -32,11 +50,23 @@ import java.util.Map;
 public class FilesUploadController {
 
     private FilestorageService filestorageService;
+    private FilestorageAsyncService filestorageAsyncService;
+    private CompletionJobService completionJobService;
+    private UploadHistoryService uploadHistoryService;
+    private ObjectMapper objectMapper;
 
     private static final String ERROR_MSG_VAL = "Errores de validación";
+    private static final String MSG_UPLOAD_STARTED = "Multipart upload iniciado correctamente para el archivo %s";
+    private static final String MSG_UPLOAD_COMPLETED = "Subida completada exitosamente";
 
-    public FilesUploadController(FilestorageService filestorageService) {
+    public FilesUploadController(FilestorageService filestorageService, FilestorageAsyncService filestorageAsyncService,
+                                 CompletionJobService completionJobService, UploadHistoryService uploadHistoryService,
+                                 ObjectMapper objectMapper) {
         this.filestorageService = filestorageService;
+        this.filestorageAsyncService = filestorageAsyncService;
+        this.completionJobService = completionJobService;
+        this.uploadHistoryService = uploadHistoryService;
+        this.objectMapper = objectMapper;
     }
 
     @Hidden
@@ -80,8 +110,144 @@ public class FilesUploadController {
         }
         log.info("Datos validados correctamente, iniciando llamado al servicio: createMultipartUpload");
         MultipartUploadResponseDto result = filestorageService.createMultipartUpload(request);
+        return ResponseEntity.ok(GenericResponse.success(result, String.format(MSG_UPLOAD_STARTED, result.getKey())));
+    }
+
+    @Operation(summary = "Generar URLs prefirmadas para carga multipart en streaming",
+            description = "Igual que generate-multipart-urls pero el listado de URLs se envía al cliente a medida que se firma, " +
+                    "manteniendo el mismo formato JSON y un consumo de memoria constante sin importar el número de partes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URLs generadas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = MultipartUploadResponseDto.class),
+                            examples = @ExampleObject(
+                                    name = "Multipart Upload Success",
+                                    value = SwaggerExamples.EXAMPLE_SUCCESS_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación",
+                    content = @Content(schema = @Schema(
+                            example = SwaggerExamples.EXAMPLE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping(value = "files-upload/generate-multipart-urls", params = "stream=true")
+    public ResponseEntity<?> generatePresignedUrlsStream(@Valid @RequestBody MultipartUploadRequestDto request,
+                                                         BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando generacion de url multiparts en streaming: usuario: {} nombre: {} contentType: {} bytes: {}"
+                , username, request.getFilename(), request.getContentType(), request.getFileSizeBytes());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        log.info("Datos validados correctamente, iniciando llamado al servicio: initiateMultipartUpload");
+        MultipartUploadResponseDto upload = filestorageService.initiateMultipartUpload(request);
+        StreamingResponseBody body = outputStream -> writeUploadResponse(upload, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Generar URLs prefirmadas para carga multipart en formato compacto",
+            description = "Igual que generate-multipart-urls pero devuelve una plantilla de URL con los marcadores " +
+                    "{partNumber} y {signature} y las firmas de cada parte concatenadas en Base64, en lugar del listado de URLs.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URLs generadas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = MultipartUploadResponseDto.class),
+                            examples = @ExampleObject(
+                                    name = "Compact Multipart Upload Success",
+                                    value = SwaggerExamples.EXAMPLE_COMPACT_SUCCESS_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación",
+                    content = @Content(schema = @Schema(
+                            example = SwaggerExamples.EXAMPLE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping(value = "files-upload/generate-multipart-urls", params = "format=compact")
+    public ResponseEntity<GenericResponse<MultipartUploadResponseDto>> generateCompactPresignedUrls(@Valid @RequestBody MultipartUploadRequestDto request,
+                                                                                                    BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando generacion de url multiparts en formato compacto: usuario: {} nombre: {} contentType: {} bytes: {}"
+                , username, request.getFilename(), request.getContentType(), request.getFileSizeBytes());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        log.info("Datos validados correctamente, iniciando llamado al servicio: createCompactMultipartUpload");
+        MultipartUploadResponseDto result = filestorageService.createCompactMultipartUpload(request);
+        return ResponseEntity.ok(GenericResponse.success(result, String.format(MSG_UPLOAD_STARTED, result.getKey())));
+    }
+
+    @Operation(summary = "Generar una ventana de URLs prefirmadas de un upload iniciado",
+            description = "Firma bajo demanda las URLs de un rango de partes (por ejemplo 501-1000) de un multipart upload ya iniciado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URLs generadas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = MultipartUploadResponseDto.class),
+                            examples = @ExampleObject(
+                                    name = "Part Urls Success",
+                                    value = SwaggerExamples.EXAMPLE_PART_URLS_SUCCESS))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación o rango de partes inválido",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INVALID_PART_RANGE))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/generate-part-urls")
+    public ResponseEntity<GenericResponse<MultipartUploadResponseDto>> generatePartUrls(@Valid @RequestBody PartUrlsRequestDto request,
+                                                                                        BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando generacion de ventana de urls: usuario: {} key: {} uploadId: {} partes: {}-{}"
+                , username, request.getKey(), request.getUploadId(), request.getFirstPartNumber(), request.getLastPartNumber());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        log.info("Datos validados correctamente, iniciando llamado al servicio: generatePartUrls");
+        MultipartUploadResponseDto result = filestorageService.generatePartUrls(request);
         return ResponseEntity.ok(GenericResponse.success(result,
-                String.format("Multipart upload iniciado correctamente para el archivo %s", result.getKey())));
+                String.format("URLs generadas correctamente para el archivo %s", result.getKey())));
+    }
+
+    @Operation(summary = "Reanudar una carga multipart interrumpida",
+            description = "Consulta en S3 las partes ya subidas de la carga y devuelve sus ETags junto con URLs prefirmadas " +
+                    "solo para las partes que faltan, para no volver a subir el archivo completo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Carga reanudada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResumeUploadResponseDto.class),
+                            examples = @ExampleObject(
+                                    name = "Resume Success",
+                                    value = SwaggerExamples.EXAMPLE_RESUME_SUCCESS))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada o ya no existe en S3",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/resume-multipart-upload")
+    public ResponseEntity<GenericResponse<ResumeUploadResponseDto>> resumeUpload(@Valid @RequestBody UploadReferenceRequestDto request,
+                                                                                 BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando reanudacion de carga: usuario: {} key: {} uploadId: {}"
+                , username, request.getKey(), request.getUploadId());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        ResumeUploadResponseDto result = filestorageService.resumeMultipartUpload(request);
+        return ResponseEntity.ok(GenericResponse.success(result,
+                String.format("Carga reanudada, faltan %d partes del archivo %s", result.getUrls().size(), result.getKey())));
     }
 
     @Operation(summary = "Completa el proceso de carga multipart",
@@ -93,6 +259,8 @@ public class FilesUploadController {
                     content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_VALIDATION_ERROR))),
             @ApiResponse(responseCode = "401", description = "Error de autenticación",
                     content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "409", description = "El checksum CRC32C del objeto no coincide con el de las partes",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_CHECKSUM_MISMATCH))),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor",
                     content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
     })
@@ -109,7 +277,225 @@ public class FilesUploadController {
         filestorageService.completeMultipartUpload(request);
         log.info("Finalizo proceso para completar carga del archivo: usuario: {} key: {} uploadId: {}"
                 , username, request.getKey(), request.getUploadId());
-        return ResponseEntity.ok(GenericResponse.success(null, "Subida completada exitosamente"));
+        return ResponseEntity.ok(GenericResponse.success(null, MSG_UPLOAD_COMPLETED));
+    }
+
+    @Operation(summary = "Completa el proceso de carga multipart armando las partes en el servidor",
+            description = "El cliente solo envía key y uploadId; el servidor obtiene todas las partes subidas desde S3, " +
+                    "valida que estén completas y con el tamaño esperado y finaliza la carga.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Carga completada exitosamente",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_SUCCESS))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación o carga sin partes",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "409", description = "Faltan partes o alguna parte tiene un tamaño distinto al esperado",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_PARTS_MISMATCH))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping(value = "files-upload/complete-multiparts-upload", params = "mode=server")
+    public ResponseEntity<GenericResponse<Void>> completeUploadFromS3(@Valid @RequestBody UploadReferenceRequestDto request,
+                                                                      BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando proceso para completar carga del archivo con partes de S3: usuario: {} key: {} uploadId: {}"
+                , username, request.getKey(), request.getUploadId());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        log.info("Datos validados correctamente, iniciando llamado al servicio: completeMultipartUploadFromS3");
+        filestorageService.completeMultipartUploadFromS3(request);
+        log.info("Finalizo proceso para completar carga del archivo con partes de S3: usuario: {} key: {} uploadId: {}"
+                , username, request.getKey(), request.getUploadId());
+        return ResponseEntity.ok(GenericResponse.success(null, MSG_UPLOAD_COMPLETED));
+    }
+
+    @Operation(summary = "Encola la finalización de la carga multipart",
+            description = "Responde 202 de inmediato y finaliza la carga en segundo plano armando las partes desde S3. " +
+                    "El avance se consulta en la URL del header Location (pending → completing → completed/failed).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Finalización encolada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETION_ACCEPTED))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "503", description = "Cola de finalizaciones llena",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETION_QUEUE_FULL))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/complete-multiparts-upload/jobs")
+    public ResponseEntity<GenericResponse<UploadStatusResponseDto>> submitCompletion(@Valid @RequestBody UploadReferenceRequestDto request,
+                                                                                     BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Encolando finalizacion de carga del archivo: usuario: {} key: {} uploadId: {}"
+                , username, request.getKey(), request.getUploadId());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        UploadStatusResponseDto result = completionJobService.submitCompletion(request);
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromPath("/files-upload/complete-multiparts-upload/jobs/{uploadId}")
+                        .buildAndExpand(result.getUploadId())
+                        .encode()
+                        .toUri())
+                .body(GenericResponse.success(result, "Finalizacion de la carga en proceso"));
+    }
+
+    @Operation(summary = "Consulta el estado de una carga multipart",
+            description = "Devuelve el estado de la carga registrado en la base de datos: pending, completing, completed o failed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado consultado",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_STATUS))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @GetMapping("files-upload/complete-multiparts-upload/jobs/{uploadId:.+}")
+    public ResponseEntity<GenericResponse<UploadStatusResponseDto>> getCompletionStatus(@PathVariable String uploadId) {
+        UploadStatusResponseDto result = completionJobService.getStatus(uploadId);
+        return ResponseEntity.ok(GenericResponse.success(result, "Estado de la carga consultado correctamente"));
+    }
+
+    @Operation(summary = "Lista las cargas del usuario",
+            description = "Devuelve las cargas del usuario autenticado de la más reciente a la más antigua, con filtros opcionales "
+                    + "por estado y tipo de contenido. Para la siguiente página envía el nextCursor de la respuesta anterior.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cargas consultadas",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_PAGE))),
+            @ApiResponse(responseCode = "400", description = "Cursor o estado no válido",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INVALID_UPLOAD_QUERY))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @GetMapping("files-upload/uploads")
+    public ResponseEntity<GenericResponse<UploadPageResponseDto>> listUploads(@RequestParam(required = false) String status,
+                                                                              @RequestParam(required = false) String contentType,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(defaultValue = "50") int limit) {
+        UploadPageResponseDto result = uploadHistoryService.listUploads(status, contentType, cursor, limit);
+        return ResponseEntity.ok(GenericResponse.success(result, "Cargas consultadas correctamente"));
+    }
+
+    @Operation(summary = "Generar URLs prefirmadas para carga multipart (no bloqueante)",
+            description = "Igual que generate-multipart-urls, pero la llamada a S3 no ocupa el hilo de la petición mientras S3 responde.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "URLs generadas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = MultipartUploadResponseDto.class),
+                            examples = @ExampleObject(
+                                    name = "Multipart Upload Success",
+                                    value = SwaggerExamples.EXAMPLE_SUCCESS_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación",
+                    content = @Content(schema = @Schema(
+                            example = SwaggerExamples.EXAMPLE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/async/generate-multipart-urls")
+    public CompletableFuture<ResponseEntity<GenericResponse<MultipartUploadResponseDto>>> generatePresignedUrlsAsync(
+            @Valid @RequestBody MultipartUploadRequestDto request, BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando generacion asincrona de url multiparts: usuario: {} nombre: {} contentType: {} bytes: {}"
+                , username, request.getFilename(), request.getContentType(), request.getFileSizeBytes());
+        if (bindingResult.hasErrors()) {
+            return CompletableFuture.completedFuture(handleValidationErrors(bindingResult));
+        }
+        log.info("Datos validados correctamente, iniciando llamado al servicio asincrono: createMultipartUpload");
+        return filestorageAsyncService.createMultipartUpload(request)
+                .thenApply(result -> ResponseEntity.ok(
+                        GenericResponse.success(result, String.format(MSG_UPLOAD_STARTED, result.getKey()))));
+    }
+
+    @Operation(summary = "Completa el proceso de carga multipart (no bloqueante)",
+            description = "Igual que complete-multiparts-upload, pero las llamadas a S3 no ocupan el hilo de la petición mientras S3 responde.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Carga completada exitosamente",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_SUCCESS))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_COMPLETE_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/async/complete-multiparts-upload")
+    public CompletableFuture<ResponseEntity<GenericResponse<Void>>> completeUploadAsync(
+            @Valid @RequestBody CompleteUploadRequestDto request, BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Iniciando proceso asincrono para completar carga del archivo: usuario: {} key: {} uploadId: {}"
+                , username, request.getKey(), request.getUploadId());
+        if (bindingResult.hasErrors()) {
+            return CompletableFuture.completedFuture(handleValidationErrors(bindingResult));
+        }
+        log.info("Datos validados correctamente, iniciando llamado al servicio asincrono: completeMultipartUpload");
+        return filestorageAsyncService.completeMultipartUpload(request)
+                .thenApply(ignored -> {
+                    log.info("Finalizo proceso asincrono para completar carga del archivo: usuario: {} key: {} uploadId: {}"
+                            , username, request.getKey(), request.getUploadId());
+                    return ResponseEntity.ok(GenericResponse.<Void>success(null, MSG_UPLOAD_COMPLETED));
+                });
+    }
+
+    /**
+     * Escribe la respuesta de inicio de carga con el mismo formato de {@link GenericResponse},
+     * enviando las URLs de las partes por bloques a medida que el servicio las firma.
+     * @param upload upload ya iniciado, sin urls
+     * @param outputStream cuerpo de la respuesta
+     * @throws IOException si falla la escritura hacia el cliente
+     */
+    private void writeUploadResponse(MultipartUploadResponseDto upload, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeObjectFieldStart("data");
+            generator.writeStringField("key", upload.getKey());
+            generator.writeStringField("uploadId", upload.getUploadId());
+            generator.writeNumberField("totalParts", upload.getTotalParts());
+            generator.writeNumberField("partSizeBytes", upload.getPartSizeBytes());
+            if (upload.getChecksumAlgorithm() != null) {
+                generator.writeStringField("checksumAlgorithm", upload.getChecksumAlgorithm());
+            }
+            if (upload.getPartHeaders() != null) {
+                generator.writeObjectField("partHeaders", upload.getPartHeaders());
+            }
+            generator.writeArrayFieldStart("urls");
+            try {
+                filestorageService.streamInitialPartUrls(upload, chunk -> writeParts(generator, chunk));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeNullField("errors");
+            generator.writeStringField("message", String.format(MSG_UPLOAD_STARTED, upload.getKey()));
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeParts(JsonGenerator generator, List<PartInfoResponseDto> parts) {
+        try {
+            for (PartInfoResponseDto part : parts) {
+                generator.writeObject(part);
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
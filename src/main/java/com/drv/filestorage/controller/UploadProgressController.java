@@ -0,0 +1,94 @@
+package com.drv.filestorage.controller;
+
+import com.drv.filestorage.common.GenericResponse;
+import com.drv.filestorage.common.SwaggerExamples;
+import com.drv.filestorage.common.dto.PartProgressRequestDto;
+import com.drv.filestorage.common.dto.UploadProgressResponseDto;
+import com.drv.filestorage.service.UploadProgressService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Avance de Cargas", description = "Reporte y consulta del avance de las cargas multipart")
+public class UploadProgressController {
+
+    private UploadProgressService uploadProgressService;
+
+    private static final String ERROR_MSG_VAL = "Errores de validación";
+
+    public UploadProgressController(UploadProgressService uploadProgressService) {
+        this.uploadProgressService = uploadProgressService;
+    }
+
+    @Operation(summary = "Reporta por lotes las partes terminadas",
+            description = "Recibe las partes que el cliente ya subió a S3 (partNumber, eTag y tamaño). " +
+                    "Los reportes se acumulan en memoria y se escriben en la base de datos por lotes, " +
+                    "por lo que pueden tardar unos segundos en verse en la consulta de avance.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Partes registradas",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_PROGRESS_ACCEPTED))),
+            @ApiResponse(responseCode = "400", description = "Errores de validación o parte fuera del rango del archivo",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_PROGRESS_VALIDATION_ERROR))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "409", description = "La carga ya está completada o abortada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_FINISHED))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @PostMapping("files-upload/progress")
+    public ResponseEntity<GenericResponse<Void>> reportParts(@Valid @RequestBody PartProgressRequestDto request,
+                                                             BindingResult bindingResult) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.debug("Reporte de avance: usuario: {} key: {} uploadId: {}", username, request.getKey(), request.getUploadId());
+        if (bindingResult.hasErrors()) {
+            return handleValidationErrors(bindingResult);
+        }
+        int accepted = uploadProgressService.reportParts(request);
+        return ResponseEntity.accepted().body(GenericResponse.success(null, String.format("Se registraron %d partes", accepted)));
+    }
+
+    @Operation(summary = "Consulta el avance de una carga multipart",
+            description = "Devuelve las partes y bytes reportados frente al total del archivo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Avance consultado",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_PROGRESS))),
+            @ApiResponse(responseCode = "401", description = "Error de autenticación",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UNAUTHORIZED))),
+            @ApiResponse(responseCode = "404", description = "Carga no encontrada",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_UPLOAD_NOT_FOUND))),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor",
+                    content = @Content(schema = @Schema(example = SwaggerExamples.EXAMPLE_INTERNAL_ERROR)))
+    })
+    @GetMapping("files-upload/progress/{uploadId:.+}")
+    public ResponseEntity<GenericResponse<UploadProgressResponseDto>> getProgress(@PathVariable String uploadId) {
+        UploadProgressResponseDto result = uploadProgressService.getProgress(uploadId);
+        return ResponseEntity.ok(GenericResponse.success(result, "Avance de la carga consultado correctamente"));
+    }
+
+    private <T> ResponseEntity<GenericResponse<T>> handleValidationErrors(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage()));
+        log.info(ERROR_MSG_VAL);
+        return ResponseEntity.badRequest().body(GenericResponse.error(errors, ERROR_MSG_VAL));
+    }
+}
@@ -0,0 +1,18 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando el checksum compuesto devuelto por S3
+ * no coincide con el calculado a partir de los checksums de las partes
+ */
+public class ChecksumMismatchException extends ApiException {
+    public ChecksumMismatchException(String uploadId, String expected, String actual) {
+        super(
+                "CHECKSUM_MISMATCH",
+                String.format("El checksum de la carga [%s] no coincide: se esperaba %s y S3 devolvio %s", uploadId, expected, actual),
+                HttpStatus.CONFLICT.value()
+        );
+    }
+}
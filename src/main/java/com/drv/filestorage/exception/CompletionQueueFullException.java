@@ -0,0 +1,17 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando la cola de finalizaciones en segundo plano esta llena
+ */
+public class CompletionQueueFullException extends ApiException {
+    public CompletionQueueFullException() {
+        super(
+                "COMPLETION_QUEUE_FULL",
+                "Hay demasiadas cargas en proceso de finalizacion, intenta de nuevo en unos segundos",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando los archivos origen de una composicion
+ * no existen, no estan completados o no cumplen los limites de UploadPartCopy
+ */
+public class InvalidComposeSourceException extends ApiException {
+    public InvalidComposeSourceException(String message) {
+        super(
+                "INVALID_COMPOSE_SOURCE",
+                message,
+                HttpStatus.BAD_REQUEST.value()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando el rango de partes solicitado no es valido
+ */
+public class InvalidPartRangeException extends ApiException {
+    public InvalidPartRangeException(String message) {
+        super(
+                "INVALID_PART_RANGE",
+                message,
+                HttpStatus.BAD_REQUEST.value()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando el cursor o los filtros de un listado no son validos
+ */
+public class InvalidUploadQueryException extends ApiException {
+    public InvalidUploadQueryException(String message) {
+        super(
+                "INVALID_UPLOAD_QUERY",
+                message,
+                HttpStatus.BAD_REQUEST.value()
+        );
+    }
+}
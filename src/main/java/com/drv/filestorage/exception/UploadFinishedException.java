@@ -0,0 +1,18 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando la carga ya esta completada o abortada
+ * y no admite mas operaciones sobre sus partes
+ */
+public class UploadFinishedException extends ApiException {
+    public UploadFinishedException(String uploadId, String status) {
+        super(
+                "UPLOAD_FINISHED",
+                String.format("La carga con uploadId [%s] ya termino con estado %s", uploadId, status),
+                HttpStatus.CONFLICT.value()
+        );
+    }
+}
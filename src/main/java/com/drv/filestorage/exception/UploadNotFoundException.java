@@ -0,0 +1,26 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando no existe el registro de la carga
+ * o no pertenece al usuario autenticado
+ */
+public class UploadNotFoundException extends ApiException {
+    public UploadNotFoundException(String key, String uploadId) {
+        super(
+                "UPLOAD_NOT_FOUND",
+                String.format("No se encontro la carga del archivo [%s] con uploadId [%s]", key, uploadId),
+                HttpStatus.NOT_FOUND.value()
+        );
+    }
+
+    public UploadNotFoundException(String uploadId) {
+        super(
+                "UPLOAD_NOT_FOUND",
+                String.format("No se encontro la carga con uploadId [%s]", uploadId),
+                HttpStatus.NOT_FOUND.value()
+        );
+    }
+}
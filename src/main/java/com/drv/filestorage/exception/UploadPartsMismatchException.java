@@ -0,0 +1,18 @@
+package com.drv.filestorage.exception;
+
+import com.drv.filestorage.exception.base.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepcion personalizada cuando las partes subidas a S3 no cubren
+ * el archivo registrado (partes faltantes o de tamaño distinto al esperado)
+ */
+public class UploadPartsMismatchException extends ApiException {
+    public UploadPartsMismatchException(String message) {
+        super(
+                "UPLOAD_PARTS_MISMATCH",
+                message,
+                HttpStatus.CONFLICT.value()
+        );
+    }
+}
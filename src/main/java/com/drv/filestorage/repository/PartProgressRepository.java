@@ -0,0 +1,94 @@
+package com.drv.filestorage.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acceso JDBC a la tabla upload_part_progress: escritura por lotes de las partes reportadas,
+ * resumen del avance de una carga y borrado del avance de las cargas terminadas
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartProgressRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO upload_part_progress (upload_id, part_number, e_tag, size_bytes, reported_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (upload_id, part_number)
+            DO UPDATE SET e_tag = EXCLUDED.e_tag, size_bytes = EXCLUDED.size_bytes, reported_at = EXCLUDED.reported_at
+            """;
+
+    private static final String SUMMARY_SQL = """
+            SELECT COUNT(*) AS reported_parts, COALESCE(SUM(size_bytes), 0) AS reported_bytes
+            FROM upload_part_progress
+            WHERE upload_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Parte reportada por el cliente
+     * @param uploadId ID del upload multipart
+     * @param partNumber numero de la parte
+     * @param eTag ETag devuelto por S3
+     * @param sizeBytes tamaño de la parte
+     * @param reportedAt instante del reporte
+     */
+    public record PartProgressRow(String uploadId, int partNumber, String eTag, long sizeBytes, Instant reportedAt) {
+    }
+
+    /**
+     * Avance de una carga
+     * @param reportedParts partes reportadas
+     * @param reportedBytes bytes reportados
+     */
+    public record ProgressSummary(int reportedParts, long reportedBytes) {
+    }
+
+    /**
+     * Inserta o actualiza las partes en lotes JDBC
+     * @param rows partes a escribir
+     * @param batchSize cantidad de filas por lote
+     */
+    public void upsertAll(List<PartProgressRow> rows, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, row) -> {
+            ps.setString(1, row.uploadId());
+            ps.setInt(2, row.partNumber());
+            ps.setString(3, row.eTag());
+            ps.setLong(4, row.sizeBytes());
+            ps.setTimestamp(5, Timestamp.from(row.reportedAt()));
+        });
+    }
+
+    /**
+     * Borra las partes reportadas de las cargas indicadas con una sola sentencia
+     * @param uploadIds IDs de los uploads multipart
+     * @return filas borradas
+     */
+    public int deleteByUploadIds(Collection<String> uploadIds) {
+        if (uploadIds.isEmpty()) {
+            return 0;
+        }
+        String sql = String.format("DELETE FROM upload_part_progress WHERE upload_id IN (%s)",
+                String.join(", ", Collections.nCopies(uploadIds.size(), "?")));
+        return jdbcTemplate.update(sql, uploadIds.toArray());
+    }
+
+    /**
+     * Resume las partes reportadas de una carga
+     * @param uploadId ID del upload multipart
+     * @return cantidad de partes y bytes reportados
+     */
+    public ProgressSummary summarize(String uploadId) {
+        return jdbcTemplate.queryForObject(SUMMARY_SQL,
+                (rs, rowNum) -> new ProgressSummary(rs.getInt("reported_parts"), rs.getLong("reported_bytes")),
+                uploadId);
+    }
+}
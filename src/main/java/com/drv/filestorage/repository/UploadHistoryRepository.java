@@ -0,0 +1,85 @@
+package com.drv.filestorage.repository;
+
+import com.drv.filestorage.common.entity.UploadStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acceso JDBC al historial de cargas de un usuario en uploaded_files, paginado por keyset sobre (created_at, id)
+ * de la mas reciente a la mas antigua. Cada pagina continua despues de la ultima fila de la anterior con una
+ * comparacion de fila, sin OFFSET, y solo lee columnas incluidas en el indice
+ * idx_uploaded_files_uploaded_by_created_at, por lo que el costo no depende de cuantas cargas tenga el usuario.
+ * Con filtro de estado se usa idx_uploaded_files_uploaded_by_status_created_at, que tiene el estado en la clave.
+ * El filtro de tipo de contenido se evalua sobre las columnas incluidas del indice: si el tipo es poco frecuente,
+ * la consulta recorre las cargas del usuario hasta llenar la pagina.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UploadHistoryRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT id, s3_key, upload_id, filename, content_type, size_bytes, status, created_at
+            FROM uploaded_files
+            WHERE uploaded_by = ?
+            """;
+
+    private static final String ORDER_SQL = " ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fila del historial de cargas
+     */
+    public record UploadHistoryRow(UUID id, String s3Key, String uploadId, String filename, String contentType,
+                                   Long sizeBytes, String status, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Obtiene una pagina de cargas del usuario
+     * @param uploadedBy usuario dueño de las cargas
+     * @param status filtro por estado, o null
+     * @param contentType filtro por tipo de contenido, o null
+     * @param beforeCreatedAt fecha de la ultima fila de la pagina anterior, o null para la primera pagina
+     * @param beforeId id de la ultima fila de la pagina anterior
+     * @param limit cantidad maxima de filas
+     * @return cargas ordenadas de la mas reciente a la mas antigua
+     */
+    public List<UploadHistoryRow> findPage(String uploadedBy, UploadStatus status, String contentType,
+                                           LocalDateTime beforeCreatedAt, UUID beforeId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(uploadedBy);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.value());
+        }
+        if (contentType != null) {
+            sql.append(" AND content_type = ?");
+            args.add(contentType);
+        }
+        if (beforeCreatedAt != null) {
+            sql.append(" AND (created_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(beforeCreatedAt));
+            args.add(beforeId);
+        }
+        sql.append(ORDER_SQL);
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new UploadHistoryRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("s3_key"),
+                rs.getString("upload_id"),
+                rs.getString("filename"),
+                rs.getString("content_type"),
+                rs.getObject("size_bytes", Long.class),
+                rs.getString("status"),
+                rs.getTimestamp("created_at").toLocalDateTime()), args.toArray());
+    }
+}
@@ -0,0 +1,184 @@
+package com.drv.filestorage.repository;
+
+import com.drv.filestorage.common.entity.UploadStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Acceso JDBC a las particiones mensuales de uploaded_files, particionada por rango de created_at.
+ * Cada mes tiene su particion uploaded_files_pYYYYMM con el rango [primer dia del mes, primer dia del siguiente);
+ * las filas de un mes sin particion quedan en uploaded_files_default.
+ * Los nombres de particion se arman siempre a partir de un YearMonth, nunca de datos externos, y asi se usan en el SQL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UploadPartitionRepository {
+
+    private static final String PARENT_TABLE = "uploaded_files";
+    private static final String DEFAULT_PARTITION = PARENT_TABLE + "_default";
+    private static final String PARTITION_PREFIX = PARENT_TABLE + "_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('uploaded_files'))";
+
+    private static final String HAS_DEFAULT_PARTITION_SQL = "SELECT to_regclass('uploaded_files_default') IS NOT NULL";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('uploaded_files')
+            ORDER BY c.relname
+            """;
+
+    private static final String DEFAULT_PARTITION_MONTHS_SQL =
+            "SELECT DISTINCT CAST(date_trunc('month', created_at) AS DATE) AS month FROM uploaded_files_default ORDER BY month";
+
+    private static final String ARCHIVE_COLUMNS = "id, filename, content_type, s3_key, upload_id, bucket_name, size_bytes, "
+            + "part_size_bytes, uploaded_by, status, created_at, checksum_algorithm, checksum_crc32c, status_updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return true si uploaded_files es una tabla particionada
+     */
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+    }
+
+    /**
+     * Lista los meses que tienen particion, sin contar la particion por defecto
+     * @return meses ordenados del mas antiguo al mas reciente
+     */
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class).stream()
+                .map(UploadPartitionRepository::monthOf)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    /**
+     * Lista los meses de las filas que quedaron en la particion por defecto por no tener particion propia
+     * @return meses ordenados del mas antiguo al mas reciente, vacio si no hay particion por defecto
+     */
+    public List<YearMonth> findDefaultPartitionMonths() {
+        if (!hasDefaultPartition()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(DEFAULT_PARTITION_MONTHS_SQL,
+                (rs, rowNum) -> YearMonth.from(rs.getDate("month").toLocalDate()));
+    }
+
+    /**
+     * Crea la particion del mes si no existe. Si hay particion por defecto, la particion se crea aparte, se le
+     * mueven las filas del mes que estan en la particion por defecto y luego se adjunta; crearla directamente
+     * con PARTITION OF fallaria si la particion por defecto ya tiene filas de ese mes.
+     * @param month mes de la particion
+     * @return filas movidas desde la particion por defecto
+     */
+    @Transactional
+    public int createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        Date from = Date.valueOf(month.atDay(1));
+        Date to = Date.valueOf(month.plusMonths(1).atDay(1));
+        if (!hasDefaultPartition()) {
+            jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, PARENT_TABLE, from, to));
+            return 0;
+        }
+        jdbcTemplate.execute(String.format("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                partition, PARENT_TABLE));
+        int moved = jdbcTemplate.update(String.format("""
+                WITH moved AS (DELETE FROM %s WHERE created_at >= ? AND created_at < ? RETURNING *)
+                INSERT INTO %s SELECT * FROM moved
+                """, DEFAULT_PARTITION, partition), from, to);
+        jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                PARENT_TABLE, partition, from, to));
+        return moved;
+    }
+
+    /**
+     * @return filas en la particion por defecto, 0 si no existe
+     */
+    public long countDefaultPartitionRows() {
+        if (!hasDefaultPartition()) {
+            return 0;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM " + DEFAULT_PARTITION, Long.class);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Cuenta las cargas de la particion del mes que no estan en un estado final
+     * @param month mes de la particion
+     * @return cargas pendientes, en finalizacion o fallidas
+     */
+    public long countUnfinishedUploads(YearMonth month) {
+        List<String> finalStatuses = Arrays.stream(UploadStatus.values())
+                .filter(UploadStatus::isFinal)
+                .map(UploadStatus::value)
+                .toList();
+        String sql = String.format("SELECT count(*) FROM %s WHERE status IS NULL OR status NOT IN (%s)",
+                partitionName(month), String.join(", ", Collections.nCopies(finalStatuses.size(), "?")));
+        Long unfinished = jdbcTemplate.queryForObject(sql, Long.class, finalStatuses.toArray());
+        return unfinished != null ? unfinished : 0;
+    }
+
+    /**
+     * Copia las filas de la particion del mes a uploaded_files_archive, con su estado, la separa de uploaded_files
+     * y la elimina, todo en una transaccion. La copia se hace antes de separar la particion para que el bloqueo
+     * exclusivo sobre uploaded_files dure solo hasta el commit.
+     * @param month mes de la particion
+     * @return filas archivadas
+     */
+    @Transactional
+    public int archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        int archived = jdbcTemplate.update(String.format(
+                "INSERT INTO uploaded_files_archive (%s) SELECT %s FROM %s ON CONFLICT (id) DO NOTHING",
+                ARCHIVE_COLUMNS, ARCHIVE_COLUMNS, partition));
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", PARENT_TABLE, partition));
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        return archived;
+    }
+
+    /**
+     * @param month mes de la particion
+     * @return nombre de la particion, por ejemplo uploaded_files_p202506
+     */
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * @param partitionName nombre de una particion de uploaded_files
+     * @return mes de la particion, vacio si el nombre no sigue el formato mensual
+     */
+    static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int monthValue = Integer.parseInt(matcher.group(2));
+        if (monthValue < 1 || monthValue > 12) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), monthValue));
+    }
+
+    private boolean hasDefaultPartition() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_DEFAULT_PARTITION_SQL, Boolean.class));
+    }
+}
@@ -1,8 +1,17 @@
 package com.drv.filestorage.repository;
 
+import com.drv.filestorage.common.entity.UploadStatus;
 import com.drv.filestorage.common.entity.UploadedFileEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +20,90 @@ import java.util.UUID;
  */
 public interface UploadedFileRepository extends JpaRepository<UploadedFileEntity, UUID> {
     Optional<UploadedFileEntity> findByUploadId(String uploadId);
+
+    List<UploadedFileEntity> findByS3KeyInAndUploadedByAndStatus(Collection<String> s3Keys, String uploadedBy, UploadStatus status);
+
+    /**
+     * Pagina por keyset (created_at, id) las cargas en un estado creadas antes del corte,
+     * continuando despues de la ultima fila de la pagina anterior
+     */
+    @Query("""
+            SELECT f FROM UploadedFileEntity f
+            WHERE f.status = :status AND f.createdAt < :cutoff
+              AND (f.createdAt > :afterCreatedAt OR (f.createdAt = :afterCreatedAt AND f.id > :afterId))
+            ORDER BY f.createdAt, f.id
+            """)
+    List<UploadedFileEntity> findPageByStatusCreatedBefore(@Param("status") UploadStatus status,
+                                                           @Param("cutoff") LocalDateTime cutoff,
+                                                           @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                           @Param("afterId") UUID afterId,
+                                                           Pageable pageable);
+
+    /**
+     * Primera pagina de cargas que siguen en un estado sin cambios desde antes del corte, de la mas antigua
+     * a la mas reciente
+     */
+    List<UploadedFileEntity> findByStatusAndStatusUpdatedAtBeforeOrderByStatusUpdatedAt(UploadStatus status,
+                                                                                       LocalDateTime cutoff,
+                                                                                       Pageable pageable);
+
+    /**
+     * Cambia el estado de varias cargas en una sola sentencia, solo si siguen en el estado esperado
+     */
+    @Modifying
+    @Query("""
+            UPDATE UploadedFileEntity f SET f.status = :newStatus, f.statusUpdatedAt = :now
+            WHERE f.id IN :ids AND f.status = :currentStatus
+            """)
+    int updateStatusByIds(@Param("ids") Collection<UUID> ids,
+                          @Param("currentStatus") UploadStatus currentStatus,
+                          @Param("newStatus") UploadStatus newStatus,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Cambia el estado de una carga en una sola sentencia, solo si esta en alguno de los estados origen
+     * @return filas actualizadas: 1 si la transicion se aplico, 0 si no existe o esta en otro estado
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFileEntity f SET f.status = :newStatus, f.statusUpdatedAt = :now
+            WHERE f.uploadId = :uploadId AND f.status IN :fromStatuses
+            """)
+    int transitionStatus(@Param("uploadId") String uploadId,
+                         @Param("fromStatuses") Collection<UploadStatus> fromStatuses,
+                         @Param("newStatus") UploadStatus newStatus,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Igual que {@link #transitionStatus} pero guarda tambien el checksum CRC32C del objeto
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFileEntity f
+            SET f.status = :newStatus, f.checksumCrc32c = :checksumCrc32c, f.statusUpdatedAt = :now
+            WHERE f.uploadId = :uploadId AND f.status IN :fromStatuses
+            """)
+    int transitionStatusWithChecksum(@Param("uploadId") String uploadId,
+                                     @Param("fromStatuses") Collection<UploadStatus> fromStatuses,
+                                     @Param("newStatus") UploadStatus newStatus,
+                                     @Param("checksumCrc32c") String checksumCrc32c,
+                                     @Param("now") LocalDateTime now);
+
+    /**
+     * Renueva la fecha de estado de una carga que sigue en el estado indicado sin cambios desde antes del corte.
+     * Con varias instancias solo una obtiene la fila actualizada, y es la unica que retoma la carga
+     * @return 1 si se tomo la carga, 0 si ya no esta en ese estado o cambio despues del corte
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFileEntity f SET f.statusUpdatedAt = :now
+            WHERE f.uploadId = :uploadId AND f.status = :status AND f.statusUpdatedAt < :cutoff
+            """)
+    int claimStale(@Param("uploadId") String uploadId,
+                   @Param("status") UploadStatus status,
+                   @Param("cutoff") LocalDateTime cutoff,
+                   @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,13 @@
+package com.drv.filestorage.service;
+
+import com.drv.filestorage.common.dto.BulkUploadRequestDto;
+import com.drv.filestorage.common.dto.BulkUploadResponseDto;
+
+/**
+ * Define el contrato del inicio en una sola peticion de la carga multipart de varios archivos
+ */
+public interface BulkUploadService {
+
+    BulkUploadResponseDto initiateMultipartUploads(BulkUploadRequestDto request);
+
+}
@@ -0,0 +1,14 @@
+package com.drv.filestorage.service;
+
+import com.drv.filestorage.common.dto.UploadReferenceRequestDto;
+import com.drv.filestorage.common.dto.UploadStatusResponseDto;
+
+/**
+ * Define el contrato de la finalizacion de cargas multipart en segundo plano
+ */
+public interface CompletionJobService {
+
+    UploadStatusResponseDto submitCompletion(UploadReferenceRequestDto request);
+    UploadStatusResponseDto getStatus(String uploadId);
+
+}
@@ -0,0 +1,13 @@
+package com.drv.filestorage.service;
+
+import com.drv.filestorage.common.dto.ComposeRequestDto;
+import com.drv.filestorage.common.dto.ComposeResponseDto;
+
+/**
+ * Define el contrato de la union en S3 de archivos ya cargados
+ */
+public interface ComposeService {
+
+    ComposeResponseDto compose(ComposeRequestDto request);
+
+}
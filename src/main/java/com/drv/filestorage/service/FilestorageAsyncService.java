@@ -0,0 +1,17 @@
+package com.drv.filestorage.service;
+
+import com.drv.filestorage.common.dto.CompleteUploadRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Define el contrato de los servicios no bloqueantes para carga de archivos multipart de S3
+ */
+public interface FilestorageAsyncService {
+
+    CompletableFuture<MultipartUploadResponseDto> createMultipartUpload(MultipartUploadRequestDto request);
+    CompletableFuture<Void> completeMultipartUpload(CompleteUploadRequestDto request);
+
+}
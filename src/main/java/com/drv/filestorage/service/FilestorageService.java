@@ -3,6 +3,13 @@ package com.drv.filestorage.service;
 import com.drv.filestorage.common.dto.CompleteUploadRequestDto;
 import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
 import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
+import com.drv.filestorage.common.dto.PartInfoResponseDto;
+import com.drv.filestorage.common.dto.PartUrlsRequestDto;
+import com.drv.filestorage.common.dto.ResumeUploadResponseDto;
+import com.drv.filestorage.common.dto.UploadReferenceRequestDto;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Define el contrto de los servicios para carga de archivos multipart de S3
@@ -10,6 +17,12 @@ import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
 public interface FilestorageService {
 
     MultipartUploadResponseDto createMultipartUpload(MultipartUploadRequestDto request);
+    MultipartUploadResponseDto createCompactMultipartUpload(MultipartUploadRequestDto request);
+    MultipartUploadResponseDto initiateMultipartUpload(MultipartUploadRequestDto request);
+    void streamInitialPartUrls(MultipartUploadResponseDto upload, Consumer<List<PartInfoResponseDto>> chunkConsumer);
+    MultipartUploadResponseDto generatePartUrls(PartUrlsRequestDto request);
+    ResumeUploadResponseDto resumeMultipartUpload(UploadReferenceRequestDto request);
     void completeMultipartUpload(CompleteUploadRequestDto request);
+    void completeMultipartUploadFromS3(UploadReferenceRequestDto request);
 
 }
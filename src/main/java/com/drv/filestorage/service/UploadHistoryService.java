@@ -0,0 +1,12 @@
+package com.drv.filestorage.service;
+
+import com.drv.filestorage.common.dto.UploadPageResponseDto;
+
+/**
+ * Define el contrato de la consulta del historial de cargas del usuario
+ */
+public interface UploadHistoryService {
+
+    UploadPageResponseDto listUploads(String status, String contentType, String cursor, int limit);
+
+}
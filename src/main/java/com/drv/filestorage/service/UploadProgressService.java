@@ -0,0 +1,14 @@
+package com.drv.filestorage.service;
+
+import com.drv.filestorage.common.dto.PartProgressRequestDto;
+import com.drv.filestorage.common.dto.UploadProgressResponseDto;
+
+/**
+ * Define el contrato del registro y consulta del avance de las cargas multipart
+ */
+public interface UploadProgressService {
+
+    int reportParts(PartProgressRequestDto request);
+    UploadProgressResponseDto getProgress(String uploadId);
+
+}
@@ -1,10 +1,16 @@
 package com.drv.filestorage.service;
 
+import com.drv.filestorage.common.entity.UploadStatus;
 import com.drv.filestorage.common.entity.UploadedFileEntity;
 import com.drv.filestorage.repository.UploadedFileRepository;
+import com.drv.filestorage.service.impl.MetadataWriteBehind;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,9 +22,11 @@ import java.util.UUID;
 public class UploadedFileService {
 
     private final UploadedFileRepository uploadedFileRepository;
+    private final MetadataWriteBehind metadataWriteBehind;
 
-    public UploadedFileService(UploadedFileRepository uploadedFileRepository) {
+    public UploadedFileService(UploadedFileRepository uploadedFileRepository, MetadataWriteBehind metadataWriteBehind) {
         this.uploadedFileRepository = uploadedFileRepository;
+        this.metadataWriteBehind = metadataWriteBehind;
     }
 
     @Transactional
@@ -26,20 +34,91 @@ public class UploadedFileService {
         return uploadedFileRepository.save(file);
     }
 
+    /**
+     * Registra una carga nueva. Con la escritura diferida habilitada el registro se encola y se escribe en BD
+     * en segundo plano; si esta deshabilitada o la cola esta llena se guarda de inmediato.
+     */
+    public void registerFile(UploadedFileEntity file) {
+        if (!metadataWriteBehind.offer(file)) {
+            saveFile(file);
+        }
+    }
+
+    /**
+     * Guarda varios registros en una sola transaccion; con hibernate.jdbc.batch_size los INSERT se envian por lotes
+     */
     @Transactional
-    public Optional<UploadedFileEntity> updateStatus(UUID id, String newStatus) {
-        Optional<UploadedFileEntity> fileOpt = uploadedFileRepository.findById(id);
-        fileOpt.ifPresent(file -> {
-            file.setStatus(newStatus);
-            uploadedFileRepository.save(file);
-        });
-        return fileOpt;
-    }
-
-    public void updateStatus(String uploadId, String status) {
-        UploadedFileEntity file = uploadedFileRepository.findByUploadId(uploadId)
-                .orElseThrow(() -> new IllegalArgumentException("Archivo no encontrado"));
-        file.setStatus(status);
-        uploadedFileRepository.save(file);
+    public List<UploadedFileEntity> saveFiles(List<UploadedFileEntity> files) {
+        return uploadedFileRepository.saveAll(files);
+    }
+
+    public Optional<UploadedFileEntity> findByUploadId(String uploadId) {
+        return metadataWriteBehind.find(uploadId).or(() -> uploadedFileRepository.findByUploadId(uploadId));
+    }
+
+    /**
+     * Pasa la carga al estado indicado con un solo UPDATE condicionado a que su estado actual
+     * permita la transicion, sin leer el registro antes; dos peticiones concurrentes no se pisan.
+     * Si el registro aun esta en la cola de escritura diferida la transicion se aplica alli.
+     * @param uploadId ID del upload multipart
+     * @param target estado destino
+     * @return true si la transicion se aplico, false si la carga no existe o su estado no lo permite
+     */
+    public boolean transition(String uploadId, UploadStatus target) {
+        return metadataWriteBehind.transition(uploadId, target, null)
+                .orElseGet(() -> uploadedFileRepository.transitionStatus(uploadId, UploadStatus.sourcesOf(target), target,
+                        LocalDateTime.now()) > 0);
+    }
+
+    /**
+     * Marca la carga como completed y guarda el checksum del objeto en el mismo UPDATE condicionado
+     * @param uploadId ID del upload multipart
+     * @param checksumCrc32c checksum CRC32C compuesto del objeto
+     * @return true si la transicion se aplico
+     */
+    public boolean completeWithChecksum(String uploadId, String checksumCrc32c) {
+        return metadataWriteBehind.transition(uploadId, UploadStatus.COMPLETED, checksumCrc32c)
+                .orElseGet(() -> uploadedFileRepository.transitionStatusWithChecksum(uploadId,
+                        UploadStatus.sourcesOf(UploadStatus.COMPLETED), UploadStatus.COMPLETED, checksumCrc32c,
+                        LocalDateTime.now()) > 0);
+    }
+
+    public List<UploadedFileEntity> findByKeys(Collection<String> s3Keys, String uploadedBy, UploadStatus status) {
+        return uploadedFileRepository.findByS3KeyInAndUploadedByAndStatus(s3Keys, uploadedBy, status);
+    }
+
+    public List<UploadedFileEntity> findStalePage(UploadStatus status, LocalDateTime cutoff, LocalDateTime afterCreatedAt,
+                                                  UUID afterId, int pageSize) {
+        return uploadedFileRepository.findPageByStatusCreatedBefore(status, cutoff, afterCreatedAt, afterId,
+                PageRequest.of(0, pageSize));
+    }
+
+    @Transactional
+    public int updateStatuses(Collection<UUID> ids, UploadStatus currentStatus, UploadStatus newStatus) {
+        return uploadedFileRepository.updateStatusByIds(ids, currentStatus, newStatus, LocalDateTime.now());
+    }
+
+    /**
+     * Busca las cargas que siguen en un estado sin cambios desde antes del corte
+     * @param status estado de las cargas
+     * @param cutoff fecha de corte del ultimo cambio de estado
+     * @param limit cantidad maxima de cargas
+     * @return cargas de la mas antigua a la mas reciente
+     */
+    public List<UploadedFileEntity> findStuck(UploadStatus status, LocalDateTime cutoff, int limit) {
+        return uploadedFileRepository.findByStatusAndStatusUpdatedAtBeforeOrderByStatusUpdatedAt(status, cutoff,
+                PageRequest.of(0, limit));
+    }
+
+    /**
+     * Toma una carga que sigue en el estado indicado sin cambios desde antes del corte, renovando su fecha de estado
+     * para que otra instancia no la tome al mismo tiempo
+     * @param uploadId ID del upload multipart
+     * @param status estado esperado
+     * @param cutoff fecha de corte del ultimo cambio de estado
+     * @return true si esta instancia tomo la carga
+     */
+    public boolean claimStuck(String uploadId, UploadStatus status, LocalDateTime cutoff) {
+        return uploadedFileRepository.claimStale(uploadId, status, cutoff, LocalDateTime.now()) > 0;
     }
 }
@@ -0,0 +1,196 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.BulkUploadRequestDto;
+import com.drv.filestorage.common.dto.BulkUploadResponseDto;
+import com.drv.filestorage.common.dto.BulkUploadResultDto;
+import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.service.BulkUploadService;
+import com.drv.filestorage.service.UploadedFileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Inicia en una sola peticion la carga multipart de varios archivos. El usuario y el bucket se resuelven una vez,
+ * las cargas se inician en S3 en paralelo con un limite de llamadas simultaneas y los registros de todas las
+ * cargas iniciadas se guardan en una sola transaccion. El resultado se informa por archivo: un fallo en S3
+ * no impide iniciar los demas.
+ */
+@Slf4j
+@Service
+public class BulkUploadServiceImpl implements BulkUploadService {
+
+    static final String ERROR_INVALID_FILE = "INVALID_FILE";
+    static final String ERROR_INITIATE_FAILED = "INITIATE_FAILED";
+
+    private final S3AsyncClient s3AsyncClient;
+    private final FilestorageServiceImpl filestorageService;
+    private final PartSizePlanner partSizePlanner;
+    private final UploadedFileService uploadedFileService;
+
+    @Value("${app.s3.bulk-max-concurrency:16}")
+    private int bulkMaxConcurrency;
+
+    public BulkUploadServiceImpl(S3AsyncClient s3AsyncClient, FilestorageServiceImpl filestorageService,
+                                 PartSizePlanner partSizePlanner, UploadedFileService uploadedFileService) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.filestorageService = filestorageService;
+        this.partSizePlanner = partSizePlanner;
+        this.uploadedFileService = uploadedFileService;
+    }
+
+    /**
+     * Carga iniciada en S3 pendiente de registrarse en BD
+     * @param index posicion del archivo en la peticion
+     * @param key clave del archivo en S3
+     * @param uploadId ID del upload multipart
+     * @param partPlan tamaño y cantidad de partes elegidos
+     */
+    private record InitiatedUpload(int index, String key, String uploadId, PartSizePlanner.PartPlan partPlan) {
+    }
+
+    /**
+     * Inicia la carga de todos los archivos, registra las iniciadas en BD y devuelve el resultado de cada archivo.
+     * Las URLs de las partes no se firman aqui; el cliente las pide por archivo con generate-part-urls al subirlo
+     * @param request archivos a cargar, ya validados
+     * @return cargas iniciadas, fallidas y detalle por archivo en el orden de la peticion
+     */
+    @Override
+    public BulkUploadResponseDto initiateMultipartUploads(BulkUploadRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String bucketName = filestorageService.resolveBucketName();
+        List<MultipartUploadRequestDto> files = request.getFiles();
+
+        BulkUploadResultDto[] results = new BulkUploadResultDto[files.size()];
+        InitiatedUpload[] initiated = new InitiatedUpload[files.size()];
+        initiateAll(username, bucketName, files, results, initiated);
+
+        List<InitiatedUpload> uploads = Arrays.stream(initiated).filter(Objects::nonNull).toList();
+        if (!uploads.isEmpty()) {
+            saveAll(username, bucketName, files, uploads);
+        }
+        for (InitiatedUpload upload : uploads) {
+            MultipartUploadRequestDto file = files.get(upload.index());
+            MultipartUploadResponseDto response = new MultipartUploadResponseDto(upload.key(), upload.uploadId(),
+                    upload.partPlan().partCount(), upload.partPlan().partSizeBytes(), null);
+            response.setChecksumAlgorithm(file.getChecksumAlgorithm());
+            results[upload.index()] = BulkUploadResultDto.initiated(upload.index(), file.getFilename(), response);
+        }
+
+        log.info("Carga masiva del usuario {}: {} de {} archivos iniciados", username, uploads.size(), files.size());
+        return new BulkUploadResponseDto(uploads.size(), files.size() - uploads.size(), Arrays.asList(results));
+    }
+
+    /**
+     * Inicia en S3 la carga de cada archivo con un limite de llamadas simultaneas y espera a que terminen todas.
+     * Cada llamada escribe solo su posicion de los arreglos, por lo que no se comparte estado entre hilos
+     * @param results resultado de los archivos que fallan
+     * @param initiated carga iniciada de los archivos que no fallan
+     */
+    private void initiateAll(String username, String bucketName, List<MultipartUploadRequestDto> files,
+                             BulkUploadResultDto[] results, InitiatedUpload[] initiated) {
+        Semaphore permits = new Semaphore(Math.max(1, bulkMaxConcurrency));
+        List<CompletableFuture<Void>> initiations = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            int index = i;
+            MultipartUploadRequestDto file = files.get(index);
+            PartSizePlanner.PartPlan partPlan = planParts(index, file, results);
+            if (partPlan == null) {
+                continue;
+            }
+            String key = filestorageService.generateS3Key(username, file.getFilename());
+
+            permits.acquireUninterruptibly();
+            initiations.add(createMultipartUpload(bucketName, key, file)
+                    .handle((uploadId, error) -> {
+                        permits.release();
+                        if (error != null) {
+                            log.warn("No se pudo iniciar la carga del archivo {} en S3", key, unwrap(error));
+                            results[index] = BulkUploadResultDto.failed(index, file.getFilename(), ERROR_INITIATE_FAILED,
+                                    "No fue posible iniciar la carga del archivo en S3");
+                        } else {
+                            initiated[index] = new InitiatedUpload(index, key, uploadId, partPlan);
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(initiations.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Elige el tamaño de parte del archivo; si no es posible registra el fallo del archivo
+     * @return plan de partes, o null si el archivo no se puede cargar
+     */
+    private PartSizePlanner.PartPlan planParts(int index, MultipartUploadRequestDto file, BulkUploadResultDto[] results) {
+        try {
+            return partSizePlanner.plan(file.getFileSizeBytes(), file.getUploadBandwidthMbps(), file.getParallelism());
+        } catch (IllegalArgumentException e) {
+            results[index] = BulkUploadResultDto.failed(index, file.getFilename(), ERROR_INVALID_FILE, e.getMessage());
+            return null;
+        }
+    }
+
+    private CompletableFuture<String> createMultipartUpload(String bucketName, String key, MultipartUploadRequestDto file) {
+        try {
+            return s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .checksumAlgorithm(FilestorageServiceImpl.checksumAlgorithm(file.getChecksumAlgorithm()))
+                            .build())
+                    .thenApply(CreateMultipartUploadResponse::uploadId);
+        } catch (RuntimeException e) {
+            // El cliente puede fallar antes de devolver el futuro, por ejemplo al validar la peticion
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Guarda los registros de todas las cargas iniciadas en una sola transaccion.
+     * Si el guardado falla, las cargas ya iniciadas se abortan en S3 para no dejar partes huerfanas
+     */
+    private void saveAll(String username, String bucketName, List<MultipartUploadRequestDto> files,
+                         List<InitiatedUpload> uploads) {
+        List<UploadedFileEntity> entities = uploads.stream()
+                .map(upload -> FilestorageServiceImpl.buildMetadata(username, files.get(upload.index()), bucketName,
+                        upload.key(), upload.uploadId(), upload.partPlan().partSizeBytes()))
+                .toList();
+        try {
+            uploadedFileService.saveFiles(entities);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron registrar en BD las {} cargas iniciadas, se abortan en S3", uploads.size());
+            uploads.forEach(upload -> abortQuietly(bucketName, upload));
+            throw e;
+        }
+    }
+
+    private void abortQuietly(String bucketName, InitiatedUpload upload) {
+        s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(upload.key())
+                        .uploadId(upload.uploadId())
+                        .build())
+                .exceptionally(error -> {
+                    log.warn("No se pudo abortar la carga {}", upload.uploadId(), error);
+                    return null;
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
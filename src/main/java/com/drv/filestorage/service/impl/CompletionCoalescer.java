@@ -0,0 +1,165 @@
+package com.drv.filestorage.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las finalizaciones duplicadas de una misma carga (single-flight por uploadId).
+ * Si llega una finalizacion mientras otra del mismo uploadId esta en curso, espera y comparte su resultado
+ * en lugar de repetir ListParts y CompleteMultipartUpload en S3. Las cargas completadas recientemente
+ * se responden desde una cache de corta duracion, para los reintentos que llegan despues de terminar.
+ * Las finalizaciones bloqueantes y las no bloqueantes comparten el mismo registro de finalizaciones en curso.
+ */
+@Slf4j
+@Component
+public class CompletionCoalescer {
+
+    @Value("${app.s3.completed-cache-seconds:300}")
+    private long completedCacheSeconds;
+
+    @Value("${app.s3.completed-cache-max-entries:10000}")
+    private int completedCacheMaxEntries;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    // Orden de insercion: las primeras entradas son las completadas hace mas tiempo
+    private final LinkedHashMap<String, Instant> recentlyCompleted = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Ejecuta la finalizacion de la carga salvo que ya este en curso o se haya completado recientemente
+     * @param uploadId ID del upload multipart
+     * @param completion finalizacion en S3 y BD
+     */
+    public void complete(String uploadId, Runnable completion) {
+        if (isRecentlyCompleted(uploadId)) {
+            log.info("La carga {} se completo recientemente, se omite la finalizacion duplicada", uploadId);
+            return;
+        }
+
+        CompletableFuture<Void> flight = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(uploadId, flight);
+        if (existing != null) {
+            log.info("La carga {} ya se esta finalizando, se espera su resultado", uploadId);
+            awaitResult(existing);
+            return;
+        }
+
+        try {
+            completion.run();
+            markCompleted(uploadId);
+            flight.complete(null);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(uploadId, flight);
+        }
+    }
+
+    /**
+     * Variante no bloqueante de {@link #complete}: si la carga ya se esta finalizando devuelve un futuro con su
+     * resultado en lugar de esperarlo
+     * @param uploadId ID del upload multipart
+     * @param completion inicia la finalizacion en S3 y BD y devuelve el futuro que termina con ella
+     * @return futuro que termina cuando la carga queda completada
+     */
+    public CompletableFuture<Void> completeAsync(String uploadId, Supplier<CompletableFuture<Void>> completion) {
+        if (isRecentlyCompleted(uploadId)) {
+            log.info("La carga {} se completo recientemente, se omite la finalizacion duplicada", uploadId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> flight = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(uploadId, flight);
+        if (existing != null) {
+            log.info("La carga {} ya se esta finalizando, se espera su resultado", uploadId);
+            return existing.copy();
+        }
+
+        CompletableFuture<Void> started;
+        try {
+            started = completion.get();
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            inFlight.remove(uploadId, flight);
+            return CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((result, error) -> {
+            if (error == null) {
+                markCompleted(uploadId);
+                flight.complete(null);
+            } else {
+                flight.completeExceptionally(error);
+            }
+            inFlight.remove(uploadId, flight);
+        });
+        return flight.copy();
+    }
+
+    private static void awaitResult(CompletableFuture<Void> flight) {
+        try {
+            flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isRecentlyCompleted(String uploadId) {
+        if (completedCacheSeconds <= 0) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Instant completedAt = recentlyCompleted.get(uploadId);
+            if (completedAt == null) {
+                return false;
+            }
+            if (completedAt.plusSeconds(completedCacheSeconds).isAfter(clock.instant())) {
+                return true;
+            }
+            recentlyCompleted.remove(uploadId);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markCompleted(String uploadId) {
+        if (completedCacheSeconds <= 0) {
+            return;
+        }
+        Instant now = clock.instant();
+        Instant oldestValid = now.minusSeconds(completedCacheSeconds);
+        lock.lock();
+        try {
+            recentlyCompleted.put(uploadId, now);
+            var eldest = recentlyCompleted.entrySet().iterator();
+            while (eldest.hasNext()) {
+                Map.Entry<String, Instant> entry = eldest.next();
+                if (recentlyCompleted.size() <= completedCacheMaxEntries && entry.getValue().isAfter(oldestValid)) {
+                    break;
+                }
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.UploadReferenceRequestDto;
+import com.drv.filestorage.common.dto.UploadStatusResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.exception.CompletionQueueFullException;
+import com.drv.filestorage.exception.UploadNotFoundException;
+import com.drv.filestorage.service.CompletionJobService;
+import com.drv.filestorage.service.UploadedFileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Encola la finalizacion de cargas multipart en un pool acotado y responde de inmediato.
+ * El avance queda en la columna status de uploaded_files: pending → completing → completed/failed,
+ * por lo que el estado se puede consultar desde cualquier instancia una vez el registro esta en BD; con
+ * app.metadata.write-behind.enabled, mientras el registro sigue en cola solo lo ve la instancia que inicio la carga.
+ * Cada cambio de estado es un UPDATE
+ * condicionado al estado actual, asi dos peticiones concurrentes no encolan la misma carga.
+ * La cola vive en memoria: si la instancia se detiene con finalizaciones encoladas, sus cargas quedan en completing.
+ * Una carga en completing sin cambios por mas de app.completion.stale-after-minutes se considera perdida: se puede
+ * volver a solicitar y una tarea programada la reencola.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompletionJobServiceImpl implements CompletionJobService {
+
+    private final FilestorageServiceImpl filestorageService;
+    private final UploadedFileService uploadedFileService;
+    private final ThreadPoolExecutor completionExecutor;
+
+    @Value("${app.completion.stale-after-minutes:15}")
+    private long staleAfterMinutes;
+
+    @Value("${app.completion.recovery-batch-size:100}")
+    private int recoveryBatchSize;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * Valida la carga, la marca como completing y encola su finalizacion con las partes obtenidas de S3.
+     * Si la carga ya esta completada o en proceso no se encola de nuevo, salvo que lleve en completing
+     * mas de app.completion.stale-after-minutes, en cuyo caso se considera perdida y se reencola.
+     * @param request key y uploadId de la carga
+     * @return estado de la carga despues de encolarla
+     */
+    @Override
+    public UploadStatusResponseDto submitCompletion(UploadReferenceRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = filestorageService.findOwnedUpload(username, request.getKey(), request.getUploadId());
+
+        UploadStatus previousStatus = file.getStatus();
+        LocalDateTime staleCutoff = staleCutoff();
+        boolean lostCompletion = previousStatus == UploadStatus.COMPLETING && isStale(file, staleCutoff);
+        if (previousStatus == UploadStatus.COMPLETED || previousStatus == UploadStatus.COMPLETING && !lostCompletion) {
+            log.info("La carga {} ya esta en estado {}, no se encola de nuevo", file.getUploadId(), previousStatus.value());
+            return toStatus(file, previousStatus);
+        }
+
+        boolean claimed = lostCompletion
+                ? uploadedFileService.claimStuck(file.getUploadId(), UploadStatus.COMPLETING, staleCutoff)
+                : uploadedFileService.transition(file.getUploadId(), UploadStatus.COMPLETING);
+        if (!claimed) {
+            // Otra peticion cambio el estado entre la lectura y el UPDATE
+            UploadStatus currentStatus = uploadedFileService.findByUploadId(file.getUploadId())
+                    .map(UploadedFileEntity::getStatus)
+                    .orElse(previousStatus);
+            log.info("La carga {} paso a estado {}, no se encola", file.getUploadId(), currentStatus.value());
+            return toStatus(file, currentStatus);
+        }
+        try {
+            completionExecutor.execute(() -> runCompletion(file));
+        } catch (RejectedExecutionException e) {
+            log.warn("Cola de finalizaciones llena, se rechaza la carga {}", file.getUploadId());
+            // Una carga perdida sigue en completing y la tarea de recuperacion la reencolara
+            if (!lostCompletion) {
+                uploadedFileService.transition(file.getUploadId(), previousStatus);
+            }
+            throw new CompletionQueueFullException();
+        }
+        log.info("Finalizacion en segundo plano encolada para el archivo {} con uploadId {}", file.getS3Key(), file.getUploadId());
+        return toStatus(file, UploadStatus.COMPLETING);
+    }
+
+    /**
+     * Reencola las finalizaciones perdidas: cargas en completing sin cambios por mas de app.completion.stale-after-minutes,
+     * por ejemplo porque la instancia que las tenia en cola se reinicio. Cada carga se toma con un UPDATE condicionado,
+     * asi con varias instancias solo una la reencola. Se ejecuta tambien poco despues de arrancar.
+     * @return cantidad de cargas reencoladas
+     */
+    @Scheduled(fixedDelayString = "${app.completion.recovery-interval-ms:60000}",
+            initialDelayString = "${app.completion.recovery-initial-delay-ms:10000}")
+    public int resumeLostCompletions() {
+        LocalDateTime cutoff = staleCutoff();
+        int resumed = 0;
+        for (UploadedFileEntity file : uploadedFileService.findStuck(UploadStatus.COMPLETING, cutoff, recoveryBatchSize)) {
+            if (!uploadedFileService.claimStuck(file.getUploadId(), UploadStatus.COMPLETING, cutoff)) {
+                continue;
+            }
+            try {
+                completionExecutor.execute(() -> runCompletion(file));
+                resumed++;
+            } catch (RejectedExecutionException e) {
+                log.warn("Cola de finalizaciones llena, la carga {} se reencolara en la siguiente ejecucion", file.getUploadId());
+                break;
+            }
+        }
+        if (resumed > 0) {
+            log.info("Se reencolaron {} finalizaciones perdidas", resumed);
+        }
+        return resumed;
+    }
+
+    /**
+     * Consulta el estado de una carga del usuario autenticado
+     * @param uploadId ID del upload multipart
+     * @return estado de la carga
+     */
+    @Override
+    public UploadStatusResponseDto getStatus(String uploadId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = uploadedFileService.findByUploadId(uploadId)
+                .filter(found -> username.equals(found.getUploadedBy()))
+                .orElseThrow(() -> new UploadNotFoundException(uploadId));
+        return toStatus(file, file.getStatus());
+    }
+
+    /**
+     * Finaliza la carga en el hilo del pool; ante cualquier error la marca como failed.
+     * La transicion solo se aplica desde completing, por lo que no pisa una carga que otra peticion ya completo
+     * @param file registro de la carga en BD
+     */
+    private void runCompletion(UploadedFileEntity file) {
+        try {
+            filestorageService.completeFromS3(file);
+            log.info("Finalizacion en segundo plano terminada para el archivo {} con uploadId {}", file.getS3Key(), file.getUploadId());
+        } catch (Exception e) {
+            log.error("Fallo la finalizacion en segundo plano del archivo {} con uploadId {}", file.getS3Key(), file.getUploadId(), e);
+            uploadedFileService.transition(file.getUploadId(), UploadStatus.FAILED);
+        }
+    }
+
+    private LocalDateTime staleCutoff() {
+        return LocalDateTime.now(clock).minus(Duration.ofMinutes(staleAfterMinutes));
+    }
+
+    private static boolean isStale(UploadedFileEntity file, LocalDateTime cutoff) {
+        return file.getStatusUpdatedAt() == null || file.getStatusUpdatedAt().isBefore(cutoff);
+    }
+
+    private static UploadStatusResponseDto toStatus(UploadedFileEntity file, UploadStatus status) {
+        return new UploadStatusResponseDto(file.getS3Key(), file.getUploadId(), status.value());
+    }
+}
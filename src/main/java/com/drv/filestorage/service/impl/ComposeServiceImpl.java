@@ -0,0 +1,283 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.ComposeRequestDto;
+import com.drv.filestorage.common.dto.ComposeResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.exception.InvalidComposeSourceException;
+import com.drv.filestorage.service.ComposeService;
+import com.drv.filestorage.service.UploadedFileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Une en S3 varios archivos ya cargados en uno nuevo, sin que los bytes pasen por el servicio ni por el cliente.
+ * Inicia una carga multipart y la llena con UploadPartCopy desde los archivos origen, en paralelo
+ * y con un limite de copias simultaneas; los origenes mayores al tamaño de parte se copian por rangos.
+ */
+@Slf4j
+@Service
+public class ComposeServiceImpl implements ComposeService {
+
+    static final long MIN_COPY_PART_BYTES = 5L * 1024 * 1024;
+    static final long MAX_COPY_PART_BYTES = 5L * 1024 * 1024 * 1024;
+    private static final long MEGABYTE = 1024L * 1024;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final FilestorageServiceImpl filestorageService;
+    private final UploadedFileService uploadedFileService;
+
+    @Value("${app.s3.compose-part-size-megabytes:1024}")
+    private long composePartSizeMegaBytes;
+
+    @Value("${app.s3.compose-max-concurrency:16}")
+    private int composeMaxConcurrency;
+
+    public ComposeServiceImpl(S3AsyncClient s3AsyncClient, FilestorageServiceImpl filestorageService,
+                              UploadedFileService uploadedFileService) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.filestorageService = filestorageService;
+        this.uploadedFileService = uploadedFileService;
+    }
+
+    /**
+     * Archivo origen con el tamaño real de su objeto en S3
+     * @param file registro del archivo origen
+     * @param sizeBytes tamaño del objeto segun HeadObject
+     */
+    record SourceObject(UploadedFileEntity file, long sizeBytes) {
+    }
+
+    /**
+     * Parte de la carga destino copiada desde un rango de un archivo origen
+     * @param partNumber numero de parte en la carga destino
+     * @param source archivo origen
+     * @param firstByte primer byte del rango (inclusive)
+     * @param lastByte ultimo byte del rango (inclusive)
+     */
+    record CopyPart(int partNumber, UploadedFileEntity source, long firstByte, long lastByte) {
+    }
+
+    /**
+     * Valida los archivos origen del usuario, copia sus partes en una nueva carga multipart,
+     * la finaliza y registra el archivo resultante como completado
+     * @param request nombre del archivo resultante y keys de los archivos origen en orden
+     * @return key, tamaño y cantidad de partes del archivo resultante
+     */
+    @Override
+    public ComposeResponseDto compose(ComposeRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        List<UploadedFileEntity> sources = findSources(username, request.getSourceKeys());
+        List<SourceObject> sourceObjects = headSources(sources);
+        List<CopyPart> copyParts = planCopyParts(sourceObjects, copyPartSize());
+
+        String bucketName = filestorageService.resolveBucketName();
+        String key = filestorageService.generateS3Key(username, request.getFilename());
+        String contentType = request.getContentType() != null ? request.getContentType() : sources.get(0).getContentType();
+
+        String uploadId = s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .join()
+                .uploadId();
+        log.info("Composicion iniciada para el archivo {} con {} archivos origen y {} partes",
+                key, sources.size(), copyParts.size());
+
+        try {
+            List<CompletedPart> completedParts = copyAll(bucketName, key, uploadId, copyParts);
+            s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(filestorageService.buildCompletedMultipartUpload(completedParts))
+                            .build())
+                    .join();
+        } catch (CompletionException e) {
+            abortQuietly(bucketName, key, uploadId);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        long sizeBytes = sourceObjects.stream().mapToLong(SourceObject::sizeBytes).sum();
+        saveComposedFile(username, request.getFilename(), contentType, bucketName, key, uploadId, sizeBytes);
+        log.info("Composicion finalizada para el archivo {}, {} bytes", key, sizeBytes);
+        return new ComposeResponseDto(key, sizeBytes, copyParts.size());
+    }
+
+    /**
+     * Obtiene los archivos origen completados del usuario en el orden solicitado
+     * @param username usuario autenticado
+     * @param sourceKeys keys de los archivos origen
+     * @return registros de los archivos origen
+     */
+    private List<UploadedFileEntity> findSources(String username, List<String> sourceKeys) {
+        Map<String, UploadedFileEntity> byKey = uploadedFileService
+                .findByKeys(new HashSet<>(sourceKeys), username, UploadStatus.COMPLETED).stream()
+                .collect(Collectors.toMap(UploadedFileEntity::getS3Key, Function.identity(), (first, second) -> first));
+
+        List<UploadedFileEntity> sources = new ArrayList<>(sourceKeys.size());
+        for (String sourceKey : sourceKeys) {
+            UploadedFileEntity source = byKey.get(sourceKey);
+            if (source == null) {
+                throw new InvalidComposeSourceException(String.format(
+                        "El archivo origen [%s] no existe o no esta completado", sourceKey));
+            }
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    /**
+     * Obtiene con HeadObject, en paralelo, el tamaño real de cada archivo origen. El tamaño registrado
+     * en BD es el que declaro el cliente al iniciar la carga y puede no coincidir con el objeto en S3,
+     * lo que haria fallar la copia por rango invalido o truncaria el archivo resultante.
+     * @param sources archivos origen en orden
+     * @return archivos origen con su tamaño en S3, en el mismo orden
+     */
+    private List<SourceObject> headSources(List<UploadedFileEntity> sources) {
+        Semaphore permits = new Semaphore(Math.max(1, composeMaxConcurrency));
+        List<CompletableFuture<SourceObject>> heads = new ArrayList<>(sources.size());
+        for (UploadedFileEntity source : sources) {
+            permits.acquireUninterruptibly();
+            heads.add(s3AsyncClient.headObject(HeadObjectRequest.builder()
+                            .bucket(source.getBucketName())
+                            .key(source.getS3Key())
+                            .build())
+                    .thenApply(response -> new SourceObject(source, response.contentLength()))
+                    .whenComplete((result, error) -> permits.release()));
+        }
+        try {
+            return heads.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NoSuchKeyException
+                    || e.getCause() instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                throw new InvalidComposeSourceException("Alguno de los archivos origen ya no existe en el almacenamiento");
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Divide los archivos origen en rangos de a lo sumo el tamaño de parte indicado.
+     * S3 exige que todas las partes, salvo la ultima, tengan al menos 5 MB, por lo que cada origen
+     * se divide en rangos de igual tamaño y solo el ultimo origen puede pesar menos de 5 MB.
+     * @param sources archivos origen en orden, con su tamaño en S3
+     * @param maxPartBytes tamaño maximo de cada parte copiada
+     * @return partes a copiar, numeradas desde 1
+     */
+    static List<CopyPart> planCopyParts(List<SourceObject> sources, long maxPartBytes) {
+        List<CopyPart> parts = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            UploadedFileEntity source = sources.get(i).file();
+            long size = sources.get(i).sizeBytes();
+            if (size < MIN_COPY_PART_BYTES && i < sources.size() - 1) {
+                throw new InvalidComposeSourceException(String.format(
+                        "El archivo origen [%s] pesa menos de 5 MB; solo el ultimo archivo puede ser menor", source.getS3Key()));
+            }
+            long rangeCount = Math.max(1, (size + maxPartBytes - 1) / maxPartBytes);
+            long rangeSize = (size + rangeCount - 1) / rangeCount;
+            for (long firstByte = 0; firstByte < size; firstByte += rangeSize) {
+                parts.add(new CopyPart(parts.size() + 1, source, firstByte, Math.min(firstByte + rangeSize, size) - 1));
+            }
+        }
+        if (parts.size() > PartSizePlanner.MAX_PARTS) {
+            throw new InvalidComposeSourceException(String.format(
+                    "La composicion requiere %d partes y S3 admite como maximo %d", parts.size(), PartSizePlanner.MAX_PARTS));
+        }
+        return parts;
+    }
+
+    /**
+     * Lanza las copias de todas las partes con un limite de copias simultaneas y espera a que terminen.
+     * Si alguna copia falla, el join lanza CompletionException con la causa
+     * @return partes copiadas con su ETag, ordenadas por numero de parte
+     */
+    private List<CompletedPart> copyAll(String bucketName, String key, String uploadId, List<CopyPart> copyParts) {
+        Semaphore permits = new Semaphore(Math.max(1, composeMaxConcurrency));
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<CompletedPart>> copies = new ArrayList<>(copyParts.size());
+        for (CopyPart part : copyParts) {
+            permits.acquireUninterruptibly();
+            // Si una copia ya fallo no se lanzan las siguientes, la carga se abortara
+            if (failed.get()) {
+                permits.release();
+                break;
+            }
+            copies.add(copyPart(bucketName, key, uploadId, part).whenComplete((result, error) -> {
+                if (error != null) {
+                    failed.set(true);
+                }
+                permits.release();
+            }));
+        }
+        CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new)).join();
+        return copies.stream()
+                .map(CompletableFuture::join)
+                .sorted(Comparator.comparingInt(CompletedPart::partNumber))
+                .toList();
+    }
+
+    private CompletableFuture<CompletedPart> copyPart(String bucketName, String key, String uploadId, CopyPart part) {
+        return s3AsyncClient.uploadPartCopy(UploadPartCopyRequest.builder()
+                        .sourceBucket(part.source().getBucketName())
+                        .sourceKey(part.source().getS3Key())
+                        .copySourceRange("bytes=" + part.firstByte() + "-" + part.lastByte())
+                        .destinationBucket(bucketName)
+                        .destinationKey(key)
+                        .uploadId(uploadId)
+                        .partNumber(part.partNumber())
+                        .build())
+                .thenApply(response -> CompletedPart.builder()
+                        .partNumber(part.partNumber())
+                        .eTag(response.copyPartResult().eTag())
+                        .build());
+    }
+
+    private void abortQuietly(String bucketName, String key, String uploadId) {
+        log.error("Fallo la composicion del archivo {}, se aborta la carga {}", key, uploadId);
+        s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build())
+                .exceptionally(error -> {
+                    log.warn("No se pudo abortar la carga {}", uploadId, error);
+                    return null;
+                });
+    }
+
+    private void saveComposedFile(String username, String filename, String contentType, String bucketName,
+                                  String key, String uploadId, long sizeBytes) {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setFilename(filename);
+        file.setContentType(contentType);
+        file.setS3Key(key);
+        file.setUploadId(uploadId);
+        file.setBucketName(bucketName);
+        file.setSizeBytes(sizeBytes);
+        file.setUploadedBy(username);
+        file.setStatus(UploadStatus.COMPLETED);
+        uploadedFileService.saveFile(file);
+    }
+
+    private long copyPartSize() {
+        return Math.min(MAX_COPY_PART_BYTES, Math.max(2 * MIN_COPY_PART_BYTES, composePartSizeMegaBytes * MEGABYTE));
+    }
+}
@@ -0,0 +1,185 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.CompleteUploadRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
+import com.drv.filestorage.exception.NoUploadedPartsException;
+import com.drv.filestorage.service.FilestorageAsyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Variante no bloqueante de {@link FilestorageServiceImpl}: las llamadas a S3 se hacen con {@link S3AsyncClient}
+ * y el trabajo bloqueante posterior (BD y firma de URLs) se ejecuta en el pool acotado de tareas de carga,
+ * de modo que el hilo de la peticion queda libre mientras S3 responde.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FilestorageAsyncServiceImpl implements FilestorageAsyncService {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final FilestorageServiceImpl filestorageService;
+    private final PartSizePlanner partSizePlanner;
+    private final AsyncTaskExecutor uploadTaskExecutor;
+    private final CompletionCoalescer completionCoalescer;
+
+    /**
+     * Inicia la carga multipart en S3 sin bloquear y, cuando S3 responde, registra el archivo en BD
+     * y firma la ventana inicial de partes
+     * @param request Datos del archivo: nombre, tamaño en bytes y tipo de contenido
+     * @return futuro con el listado de url prefirmadas, nombre y id del archivo
+     */
+    @Override
+    public CompletableFuture<MultipartUploadResponseDto> createMultipartUpload(MultipartUploadRequestDto request) {
+        // El contexto de seguridad no viaja a otros hilos, el usuario se resuelve antes
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String bucketName = filestorageService.resolveBucketName();
+        String key = filestorageService.generateS3Key(username, request.getFilename());
+        PartSizePlanner.PartPlan partPlan = partSizePlanner.plan(
+                request.getFileSizeBytes(), request.getUploadBandwidthMbps(), request.getParallelism());
+        ChecksumAlgorithm algorithm = FilestorageServiceImpl.checksumAlgorithm(request.getChecksumAlgorithm());
+
+        return s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .checksumAlgorithm(algorithm)
+                        .build())
+                .thenCompose(response -> onUploadTaskExecutor(() -> {
+                    String uploadId = response.uploadId();
+                    filestorageService.saveMetadataToDatabase(username, request, bucketName, key, uploadId,
+                            partPlan.partSizeBytes());
+                    MultipartUploadResponseDto upload = new MultipartUploadResponseDto(key, uploadId,
+                            partPlan.partCount(), partPlan.partSizeBytes(), null);
+                    upload.setChecksumAlgorithm(request.getChecksumAlgorithm());
+                    upload.setPartHeaders(filestorageService.partHeaders(bucketName, key, uploadId, algorithm));
+                    upload.setUrls(filestorageService.generatePresignedUrls(bucketName, key, uploadId, 1,
+                            filestorageService.initialWindowLastPart(partPlan.partCount()), algorithm));
+                    return upload;
+                }));
+    }
+
+    /**
+     * Valida que existan partes y finaliza la carga del archivo en S3 sin bloquear;
+     * la actualizacion del estado en BD se ejecuta en el pool de tareas de carga.
+     * Las finalizaciones duplicadas del mismo uploadId, bloqueantes o no, comparten una sola finalizacion
+     * @param request informacion del archivo con los eTags de cada parte cargada
+     * @return futuro que termina cuando la carga queda completada
+     */
+    @Override
+    public CompletableFuture<Void> completeMultipartUpload(CompleteUploadRequestDto request) {
+        return completionCoalescer.completeAsync(request.getUploadId(), () -> startCompletion(request));
+    }
+
+    /**
+     * Igual que la finalizacion bloqueante: si S3 ya no tiene la carga multipart pero el objeto existe, una
+     * finalizacion anterior se completo en S3 y no alcanzo a actualizar la BD, y la carga se da por completada
+     */
+    private CompletableFuture<Void> startCompletion(CompleteUploadRequestDto request) {
+        String bucketName = filestorageService.resolveBucketName();
+        return completeWithClientParts(bucketName, request)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (!(cause instanceof NoUploadedPartsException || cause instanceof NoSuchUploadException)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    return recoverCompletedObject(bucketName, request, cause);
+                });
+    }
+
+    private CompletableFuture<Void> completeWithClientParts(String bucketName, CompleteUploadRequestDto request) {
+        List<CompletedPart> completedParts = filestorageService.buildCompletedParts(request);
+
+        // Solo se pide una parte: basta para saber si el upload existe y tiene partes
+        return s3AsyncClient.listParts(ListPartsRequest.builder()
+                        .bucket(bucketName)
+                        .key(request.getKey())
+                        .uploadId(request.getUploadId())
+                        .maxParts(1)
+                        .build())
+                .handle((parts, error) -> {
+                    Throwable cause = error == null ? null : unwrap(error);
+                    if (cause != null && !(cause instanceof NoSuchUploadException)) {
+                        // Throttling, 5xx o acceso denegado no significan que falten partes
+                        throw new CompletionException(cause);
+                    }
+                    if (cause != null || !parts.hasParts() || parts.parts().isEmpty()) {
+                        log.error("No se encontraron partes subidas para el archivo {} con uploadId {}", request.getKey(), request.getUploadId());
+                        throw new NoUploadedPartsException(request.getKey(), request.getUploadId());
+                    }
+                    return parts;
+                })
+                .thenCompose(parts -> s3AsyncClient.completeMultipartUpload(
+                        filestorageService.buildCompleteMultipartUploadRequest(bucketName, request,
+                                filestorageService.buildCompletedMultipartUpload(completedParts))))
+                .thenCompose(response -> onUploadTaskExecutor(() -> {
+                    filestorageService.markCompleted(request.getUploadId(),
+                            filestorageService.verifyChecksum(bucketName, request.getKey(), request.getUploadId(),
+                                    completedParts, response));
+                    return null;
+                }));
+    }
+
+    /**
+     * Consulta el objeto de la carga; si existe marca la carga como completada con su checksum, si no existe
+     * propaga el error original de la finalizacion
+     * @param bucketName nombre del bucket
+     * @param request key y uploadId de la carga
+     * @param failure error de la finalizacion
+     * @return futuro que termina cuando la carga queda completada
+     */
+    private CompletableFuture<Void> recoverCompletedObject(String bucketName, CompleteUploadRequestDto request,
+                                                           Throwable failure) {
+        return s3AsyncClient.headObject(HeadObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(request.getKey())
+                        .checksumMode(ChecksumMode.ENABLED)
+                        .build())
+                .exceptionallyCompose(error -> CompletableFuture.failedFuture(
+                        unwrap(error) instanceof NoSuchKeyException ? failure : unwrap(error)))
+                .thenCompose(object -> onUploadTaskExecutor(() -> {
+                    log.warn("La carga {} ya no existe en S3 pero el objeto {} si, se marca como completada",
+                            request.getUploadId(), request.getKey());
+                    filestorageService.markCompleted(request.getUploadId(), object.checksumCRC32C());
+                    return null;
+                }));
+    }
+
+    /**
+     * Ejecuta el trabajo bloqueante en el pool de tareas de carga. Si el pool rechaza la tarea el futuro termina
+     * con el rechazo; con thenApplyAsync el rechazo se lanzaria en el hilo de S3 que completo la etapa anterior
+     * y la peticion quedaria sin respuesta hasta el timeout asincrono de MVC.
+     * @param task trabajo a ejecutar
+     * @return futuro con el resultado del trabajo
+     */
+    private <T> CompletableFuture<T> onUploadTaskExecutor(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, uploadTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("El pool de tareas de carga rechazo la tarea: {}", e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
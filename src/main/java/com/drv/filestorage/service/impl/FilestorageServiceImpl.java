@@ -1,9 +1,14 @@
 package com.drv.filestorage.service.impl;
 
 import com.drv.filestorage.common.dto.*;
+import com.drv.filestorage.common.entity.UploadStatus;
 import com.drv.filestorage.common.entity.UploadedFileEntity;
 import com.drv.filestorage.config.ParameterStoreService;
+import com.drv.filestorage.exception.ChecksumMismatchException;
+import com.drv.filestorage.exception.InvalidPartRangeException;
 import com.drv.filestorage.exception.NoUploadedPartsException;
+import com.drv.filestorage.exception.UploadNotFoundException;
+import com.drv.filestorage.exception.UploadPartsMismatchException;
 import com.drv.filestorage.service.FilestorageService;
 import com.drv.filestorage.service.UploadedFileService;
 import lombok.RequiredArgsConstructor;
@@ -11,17 +16,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
 
 @Slf4j
 @Service
@@ -32,6 +50,15 @@ public class FilestorageServiceImpl implements FilestorageService {
     private final S3Presigner s3Presigner;
     private final ParameterStoreService parameterStoreService;
     private final UploadedFileService uploadedFileService;
+    private final ForkJoinPool presignForkJoinPool;
+    private final PartUrlSigner partUrlSigner;
+    private final PartSizePlanner partSizePlanner;
+    private final PresignedUrlCache presignedUrlCache;
+    private final CompletionCoalescer completionCoalescer;
+    private final PartProgressCleaner partProgressCleaner;
+
+    private static final int SIGNATURE_BYTES = 32;
+    static final String CHECKSUM_CRC32C = "CRC32C";
 
     @Value("${app.ssm.bucket-name-param}")
     private String bucketNameParam;
@@ -39,38 +66,231 @@ public class FilestorageServiceImpl implements FilestorageService {
     @Value("${app.s3.presign-duration-minutes}")
     private int presignDurationMinutes;
 
-    @Value("${app.s3.part-size-megabytes}")
-    private long partSizeMegaBytes;
+    @Value("${app.s3.initial-part-window:0}")
+    private int initialPartWindow;
+
+    @Value("${app.s3.max-part-window:1000}")
+    private int maxPartWindow;
+
+    @Value("${app.s3.parallel-presign-threshold:64}")
+    private int parallelPresignThreshold;
+
+    @Value("${app.s3.fast-part-signer:true}")
+    private boolean fastPartSigner;
+
+    @Value("${app.s3.stream-chunk-parts:256}")
+    private int streamChunkParts;
 
     /**
-     * Metodo que orquesta la generación de las url prefirmadas para subir un archivo a S3
+     * Metodo que orquesta la generación de las url prefirmadas para subir un archivo a S3.
+     * Si se configura una ventana inicial solo se firman las primeras partes, las demas
+     * se solicitan bajo demanda con {@link #generatePartUrls(PartUrlsRequestDto)}
      * @param request Datos del archivo: nombre, tamaño en bytes y tipo de contenido
      * @return listado de url prefirmadas, nombre y id del archivo
      */
     @Override
     public MultipartUploadResponseDto createMultipartUpload(MultipartUploadRequestDto request) {
+        MultipartUploadResponseDto upload = initiateMultipartUpload(request);
+        List<PartInfoResponseDto> parts = generatePresignedUrls(resolveBucketName(), upload.getKey(),
+                upload.getUploadId(), 1, initialWindowLastPart(upload.getTotalParts()),
+                checksumAlgorithm(upload.getChecksumAlgorithm()));
+        upload.setUrls(parts);
+        return upload;
+    }
+
+    /**
+     * Igual que {@link #createMultipartUpload(MultipartUploadRequestDto)} pero en formato compacto: en lugar del listado
+     * de URLs devuelve una plantilla de URL comun a todas las partes y las firmas de cada parte en Base64.
+     * Si la plantilla no se puede construir (firmador rapido deshabilitado o headers firmados adicionales,
+     * como los del checksum CRC32C) se responde con el listado de URLs habitual.
+     * @param request Datos del archivo: nombre, tamaño en bytes y tipo de contenido
+     * @return plantilla de url y firmas, nombre y id del archivo
+     */
+    @Override
+    public MultipartUploadResponseDto createCompactMultipartUpload(MultipartUploadRequestDto request) {
+        MultipartUploadResponseDto upload = initiateMultipartUpload(request);
+        String bucketName = resolveBucketName();
+        int lastPartNumber = initialWindowLastPart(upload.getTotalParts());
+        Duration signatureDuration = Duration.ofMinutes(presignDurationMinutes);
+
+        ChecksumAlgorithm algorithm = checksumAlgorithm(upload.getChecksumAlgorithm());
+
+        PresignedUploadPartRequest sample = presignPart(bucketName, upload.getKey(), upload.getUploadId(), 1,
+                signatureDuration, algorithm);
+        Optional<PartUrlSigner.UploadSigningContext> context = fastPartSigner ? partUrlSigner.prepare(sample) : Optional.empty();
+        if (context.isEmpty()) {
+            log.warn("No fue posible construir la plantilla de URL, se responde con el listado de URLs");
+            upload.setUrls(generatePresignedUrls(bucketName, upload.getKey(), upload.getUploadId(), 1, lastPartNumber, algorithm));
+            return upload;
+        }
+        upload.setUrlTemplate(context.get().urlTemplate());
+        upload.setSignatures(encodeSignatures(context.get(), lastPartNumber));
+        return upload;
+    }
+
+    /**
+     * Calcula las firmas de las partes 1..lastPartNumber y las concatena en Base64.
+     * @param context contexto de firma del upload
+     * @param lastPartNumber ultima parte a firmar (inclusive)
+     * @return firmas de 32 bytes concatenadas en orden y codificadas en Base64
+     */
+    private String encodeSignatures(PartUrlSigner.UploadSigningContext context, int lastPartNumber) {
+        byte[] signatures = new byte[lastPartNumber * SIGNATURE_BYTES];
+        IntStream partNumbers = IntStream.rangeClosed(1, lastPartNumber);
+        if (lastPartNumber < parallelPresignThreshold) {
+            partNumbers.forEach(partNumber -> copySignature(context, partNumber, signatures));
+        } else {
+            presignForkJoinPool.submit(() -> partNumbers.parallel()
+                    .forEach(partNumber -> copySignature(context, partNumber, signatures))).join();
+        }
+        return Base64.getEncoder().encodeToString(signatures);
+    }
+
+    private static void copySignature(PartUrlSigner.UploadSigningContext context, int partNumber, byte[] signatures) {
+        System.arraycopy(context.signatureBytes(partNumber), 0, signatures, (partNumber - 1) * SIGNATURE_BYTES, SIGNATURE_BYTES);
+    }
+
+    /**
+     * Inicia la carga multipart en S3 y registra el archivo en BD sin firmar ninguna parte
+     * @param request Datos del archivo: nombre, tamaño en bytes y tipo de contenido
+     * @return nombre, id del archivo y total de partes, sin urls
+     */
+    @Override
+    public MultipartUploadResponseDto initiateMultipartUpload(MultipartUploadRequestDto request) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         String bucketName = resolveBucketName();
 
         String key = generateS3Key(username, request.getFilename());
-        int partCount = calculatePartCount(request.getFileSizeBytes());
-        String uploadId = initiateMultipartUpload(bucketName, key);
+        PartSizePlanner.PartPlan partPlan = partSizePlanner.plan(
+                request.getFileSizeBytes(), request.getUploadBandwidthMbps(), request.getParallelism());
+        String uploadId = initiateMultipartUpload(bucketName, key, checksumAlgorithm(request.getChecksumAlgorithm()));
 
         // Crea el registro de la carga del archivo en la base de datos
-        saveMetadataToDatabase(username, request, bucketName, key, uploadId);
-        List<PartInfoResponseDto> parts = generatePresignedUrls(bucketName, key, uploadId, partCount);
+        saveMetadataToDatabase(username, request, bucketName, key, uploadId, partPlan.partSizeBytes());
+        MultipartUploadResponseDto upload = new MultipartUploadResponseDto(
+                key, uploadId, partPlan.partCount(), partPlan.partSizeBytes(), null);
+        upload.setChecksumAlgorithm(request.getChecksumAlgorithm());
+        upload.setPartHeaders(partHeaders(bucketName, key, uploadId, checksumAlgorithm(request.getChecksumAlgorithm())));
+        return upload;
+    }
 
-        return new MultipartUploadResponseDto(key, uploadId, parts);
+    /**
+     * Firma la ventana inicial de partes de un upload ya iniciado por bloques, entregando cada bloque
+     * al consumidor apenas se genera para no mantener en memoria el listado completo
+     * @param upload upload iniciado con {@link #initiateMultipartUpload(MultipartUploadRequestDto)}
+     * @param chunkConsumer consumidor de cada bloque de partes, en orden
+     */
+    @Override
+    public void streamInitialPartUrls(MultipartUploadResponseDto upload, Consumer<List<PartInfoResponseDto>> chunkConsumer) {
+        String bucketName = resolveBucketName();
+        int lastPartNumber = initialWindowLastPart(upload.getTotalParts());
+        ChecksumAlgorithm algorithm = checksumAlgorithm(upload.getChecksumAlgorithm());
+        for (int firstPartNumber = 1; firstPartNumber <= lastPartNumber; firstPartNumber += streamChunkParts) {
+            int chunkLastPartNumber = Math.min(lastPartNumber, firstPartNumber + streamChunkParts - 1);
+            chunkConsumer.accept(generatePresignedUrls(bucketName, upload.getKey(), upload.getUploadId(),
+                    firstPartNumber, chunkLastPartNumber, algorithm));
+        }
     }
 
     /**
-     * Metodo que finaliza la carga del archivo en S3 y queda almacenado en el bucket
+     * Genera bajo demanda las url prefirmadas de una ventana de partes de un upload ya iniciado.
+     * Las URLs que siguen vigentes en la cache se reutilizan y solo se firman las faltantes o proximas a vencer
+     * @param request key, uploadId y rango de partes solicitado
+     * @return listado de url prefirmadas de la ventana, nombre y id del archivo
+     */
+    @Override
+    public MultipartUploadResponseDto generatePartUrls(PartUrlsRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = findOwnedUpload(username, request.getKey(), request.getUploadId());
+
+        int partCount = partSizePlanner.partCount(file.getSizeBytes(), file.getPartSizeBytes());
+        int firstPartNumber = request.getFirstPartNumber();
+        int lastPartNumber = Math.min(request.getLastPartNumber(), partCount);
+        validatePartWindow(firstPartNumber, lastPartNumber, partCount);
+
+        List<PartInfoResponseDto> parts = resolvePartUrls(file, firstPartNumber, lastPartNumber);
+        MultipartUploadResponseDto upload = new MultipartUploadResponseDto(file.getS3Key(), file.getUploadId(), partCount,
+                partSizePlanner.partSize(file.getPartSizeBytes()), parts);
+        upload.setChecksumAlgorithm(file.getChecksumAlgorithm());
+        upload.setPartHeaders(partHeaders(file.getBucketName(), file.getS3Key(), file.getUploadId(),
+                checksumAlgorithm(file.getChecksumAlgorithm())));
+        return upload;
+    }
+
+    /**
+     * Reanuda una carga interrumpida: recorre todas las paginas de ListParts y devuelve las partes que ya estan
+     * en S3 con su ETag y las URLs prefirmadas solo de las partes faltantes. Las partes con un tamaño distinto
+     * al esperado se consideran faltantes para que el cliente las vuelva a subir.
+     * @param request key y uploadId de la carga
+     * @return partes subidas y URLs de las partes faltantes
+     */
+    @Override
+    public ResumeUploadResponseDto resumeMultipartUpload(UploadReferenceRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = findOwnedUpload(username, request.getKey(), request.getUploadId());
+        int partCount = partSizePlanner.partCount(file.getSizeBytes(), file.getPartSizeBytes());
+
+        boolean[] uploaded = new boolean[partCount + 1];
+        List<CompletedPartRequestDto> uploadedParts = new ArrayList<>();
+        try {
+            for (Part part : s3Client.listPartsPaginator(ListPartsRequest.builder()
+                    .bucket(file.getBucketName())
+                    .key(file.getS3Key())
+                    .uploadId(file.getUploadId())
+                    .build()).parts()) {
+                if (part.partNumber() <= partCount && part.size() != null
+                        && part.size() == expectedPartSize(file, part.partNumber(), partCount)) {
+                    uploaded[part.partNumber()] = true;
+                    uploadedParts.add(new CompletedPartRequestDto(part.partNumber(), part.eTag(), part.checksumCRC32C()));
+                }
+            }
+        } catch (NoSuchUploadException e) {
+            log.error("No existe en S3 la carga del archivo {} con uploadId {}", file.getS3Key(), file.getUploadId());
+            throw new UploadNotFoundException(file.getS3Key(), file.getUploadId());
+        }
+
+        List<PartInfoResponseDto> urls = new ArrayList<>(partCount - uploadedParts.size());
+        int partNumber = 1;
+        while (partNumber <= partCount) {
+            if (uploaded[partNumber]) {
+                partNumber++;
+                continue;
+            }
+            int missingLastPartNumber = partNumber;
+            while (missingLastPartNumber < partCount && !uploaded[missingLastPartNumber + 1]) {
+                missingLastPartNumber++;
+            }
+            urls.addAll(resolvePartUrls(file, partNumber, missingLastPartNumber));
+            partNumber = missingLastPartNumber + 1;
+        }
+        log.info("Carga {} reanudada: {} partes subidas, {} faltantes", file.getUploadId(), uploadedParts.size(), urls.size());
+        ResumeUploadResponseDto resume = new ResumeUploadResponseDto(file.getS3Key(), file.getUploadId(), partCount,
+                partSizePlanner.partSize(file.getPartSizeBytes()), uploadedParts, urls);
+        resume.setPartHeaders(partHeaders(file.getBucketName(), file.getS3Key(), file.getUploadId(),
+                checksumAlgorithm(file.getChecksumAlgorithm())));
+        return resume;
+    }
+
+    /**
+     * Metodo que finaliza la carga del archivo en S3 y queda almacenado en el bucket.
+     * Los reintentos concurrentes del mismo uploadId comparten una sola finalizacion
      * @param request informacion del archivo con los eTags de cada parte cargada
      */
     @Override
     public void completeMultipartUpload(CompleteUploadRequestDto request) {
-        String bucketName = resolveBucketName();
+        completionCoalescer.complete(request.getUploadId(), () -> {
+            String bucketName = resolveBucketName();
+            completeOrRecover(bucketName, request.getKey(), request.getUploadId(),
+                    () -> completeWithClientParts(bucketName, request));
+        });
+    }
 
+    /**
+     * Finaliza la carga en S3 con las partes que envio el cliente y marca el registro como completado
+     * @param bucketName nombre del bucket
+     * @param request informacion del archivo con los eTags de cada parte cargada
+     */
+    private void completeWithClientParts(String bucketName, CompleteUploadRequestDto request) {
         validateUploadedPartsExist(bucketName, request);
 
         List<CompletedPart> completedParts = buildCompletedParts(request);
@@ -78,17 +298,219 @@ public class FilestorageServiceImpl implements FilestorageService {
         CompleteMultipartUploadRequest completeRequest = buildCompleteMultipartUploadRequest(
                 bucketName, request, buildCompletedMultipartUpload(completedParts));
 
-        s3Client.completeMultipartUpload(completeRequest);
+        CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(completeRequest);
+
+        markCompleted(request.getUploadId(),
+                verifyChecksum(bucketName, request.getKey(), request.getUploadId(), completedParts, response));
+    }
+
+    /**
+     * Finaliza la carga del archivo armando en el servidor el listado de partes a partir de ListParts,
+     * recorriendo todas sus paginas; el cliente solo envia key y uploadId
+     * @param request key y uploadId de la carga
+     */
+    @Override
+    public void completeMultipartUploadFromS3(UploadReferenceRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = findOwnedUpload(username, request.getKey(), request.getUploadId());
+        completeFromS3(file);
+    }
+
+    /**
+     * Arma las partes desde ListParts, finaliza la carga en S3 y marca el registro como completado
+     * @param file registro de la carga en BD, ya validado para el usuario
+     */
+    void completeFromS3(UploadedFileEntity file) {
+        completionCoalescer.complete(file.getUploadId(), () -> completeOrRecover(file.getBucketName(), file.getS3Key(),
+                file.getUploadId(), () -> completeWithListedParts(file)));
+    }
+
+    private void completeWithListedParts(UploadedFileEntity file) {
+        List<CompletedPart> completedParts = listCompletedParts(file);
+
+        CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(file.getBucketName())
+                .key(file.getS3Key())
+                .uploadId(file.getUploadId())
+                .multipartUpload(buildCompletedMultipartUpload(completedParts))
+                .build());
+
+        markCompleted(file.getUploadId(),
+                verifyChecksum(file.getBucketName(), file.getS3Key(), file.getUploadId(), completedParts, response));
+    }
+
+    /**
+     * Ejecuta la finalizacion y, si S3 ya no tiene la carga multipart pero el objeto existe, la da por completada:
+     * una finalizacion anterior se completo en S3 y no alcanzo a actualizar la BD, por lo que reintentarla
+     * solo obtendria NoSuchUpload. Si el objeto tampoco existe se propaga el error original.
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId ID del upload multipart
+     * @param completion finalizacion en S3 y BD
+     */
+    private void completeOrRecover(String bucketName, String key, String uploadId, Runnable completion) {
+        try {
+            completion.run();
+        } catch (NoUploadedPartsException | NoSuchUploadException e) {
+            Optional<HeadObjectResponse> object = findObject(bucketName, key);
+            if (object.isEmpty()) {
+                throw e;
+            }
+            log.warn("La carga {} ya no existe en S3 pero el objeto {} si, se marca como completada", uploadId, key);
+            markCompleted(uploadId, object.get().checksumCRC32C());
+        }
+    }
+
+    /**
+     * Consulta los metadatos del objeto, con su checksum si lo tiene
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @return metadatos del objeto, vacio si no existe
+     */
+    private Optional<HeadObjectResponse> findObject(String bucketName, String key) {
+        try {
+            return Optional.ofNullable(s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .checksumMode(ChecksumMode.ENABLED)
+                    .build()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Marca la carga como completed en la BD con un solo UPDATE condicionado, guarda el checksum del objeto si lo hay
+     * y descarta sus URLs de la cache y el avance reportado de sus partes
+     * @param uploadId ID del upload multipart
+     * @param checksumCrc32c checksum CRC32C compuesto del objeto, o null si la carga no usa checksum
+     */
+    void markCompleted(String uploadId, String checksumCrc32c) {
+        boolean applied = checksumCrc32c == null
+                ? uploadedFileService.transition(uploadId, UploadStatus.COMPLETED)
+                : uploadedFileService.completeWithChecksum(uploadId, checksumCrc32c);
+        if (!applied) {
+            log.warn("La carga {} no se marco como completed: no existe en BD o su estado no lo permite", uploadId);
+        }
+        presignedUrlCache.invalidate(uploadId);
+        partProgressCleaner.discard(uploadId);
+    }
+
+    /**
+     * Verifica el checksum CRC32C compuesto que devuelve S3 al completar la carga. S3 lo calcula como el CRC32C
+     * de la concatenacion de los checksums de las partes, seguido de "-" y el numero de partes; aqui se recalcula
+     * con los checksums de las partes enviadas para detectar partes corruptas o cambiadas. Si no coincide, S3 ya
+     * armo el objeto: se elimina del bucket y la carga queda en failed antes de responder el error.
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId ID del upload multipart
+     * @param completedParts partes enviadas a S3, ordenadas por numero de parte
+     * @param response respuesta de S3 al completar la carga
+     * @return checksum del objeto, o null si la carga no usa checksum
+     */
+    String verifyChecksum(String bucketName, String key, String uploadId, List<CompletedPart> completedParts,
+                          CompleteMultipartUploadResponse response) {
+        String actual = response == null ? null : response.checksumCRC32C();
+        if (actual == null) {
+            return null;
+        }
+        if (completedParts.stream().anyMatch(part -> part.checksumCRC32C() == null)) {
+            log.warn("La carga {} no envio el checksum de todas las partes, se guarda el checksum de S3 sin verificar", uploadId);
+            return actual;
+        }
+        String expected = compositeChecksum(completedParts);
+        if (!expected.equals(actual)) {
+            log.error("El checksum de la carga {} no coincide: esperado {}, S3 {}", uploadId, expected, actual);
+            discardCorruptObject(bucketName, key, uploadId);
+            throw new ChecksumMismatchException(uploadId, expected, actual);
+        }
+        return actual;
+    }
+
+    /**
+     * Elimina el objeto armado con partes que no coinciden con su checksum y marca la carga como failed,
+     * para que no quede en el bucket un objeto sin verificar como si la carga siguiera pendiente
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId ID del upload multipart
+     */
+    private void discardCorruptObject(String bucketName, String key, String uploadId) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+        } catch (SdkException e) {
+            log.error("No se pudo eliminar el objeto {} de la carga {} con checksum invalido", key, uploadId, e);
+        }
+        if (!uploadedFileService.transition(uploadId, UploadStatus.FAILED)) {
+            log.warn("La carga {} no se marco como failed: no existe en BD o su estado no lo permite", uploadId);
+        }
+        presignedUrlCache.invalidate(uploadId);
+        partProgressCleaner.discard(uploadId);
+    }
+
+    /**
+     * Calcula el checksum CRC32C compuesto de un objeto multipart a partir de los checksums de sus partes
+     * @param completedParts partes con su checksum CRC32C en Base64, ordenadas por numero de parte
+     * @return checksum en el formato de S3: Base64 del CRC32C de los checksums, "-" y el numero de partes
+     */
+    static String compositeChecksum(List<CompletedPart> completedParts) {
+        CRC32C crc = new CRC32C();
+        for (CompletedPart part : completedParts) {
+            crc.update(Base64.getDecoder().decode(part.checksumCRC32C()));
+        }
+        long value = crc.getValue();
+        byte[] bytes = {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+        return Base64.getEncoder().encodeToString(bytes) + "-" + completedParts.size();
+    }
+
+    /**
+     * Headers firmados, ademas de host, que el cliente debe enviar con su valor en cada PUT de parte.
+     * Con CRC32C S3Presigner firma x-amz-sdk-checksum-algorithm; si el PUT no lo envia S3 responde SignatureDoesNotMatch.
+     * Se obtienen de la firma de la parte 1 porque son los mismos para todas las partes
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId ID del upload multipart
+     * @param checksumAlgorithm algoritmo de checksum de las partes, o null si la carga no usa checksum
+     * @return headers con su valor, o null si la carga no usa checksum
+     */
+    Map<String, String> partHeaders(String bucketName, String key, String uploadId, ChecksumAlgorithm checksumAlgorithm) {
+        if (checksumAlgorithm == null) {
+            return null;
+        }
+        return signedPartHeaders(presignPart(bucketName, key, uploadId, 1,
+                Duration.ofMinutes(presignDurationMinutes), checksumAlgorithm));
+    }
+
+    /**
+     * @param presigned parte prefirmada
+     * @return headers firmados de la parte, sin host, o null si no hay otros
+     */
+    static Map<String, String> signedPartHeaders(PresignedUploadPartRequest presigned) {
+        Map<String, String> headers = new TreeMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return headers.isEmpty() ? null : headers;
+    }
 
-        //Actualiza el estado a completado del registro en la BD
-        uploadedFileService.updateStatus(request.getUploadId(), "completed");
+    /**
+     * Traduce el algoritmo de checksum del cliente al del SDK
+     * @param checksumAlgorithm algoritmo solicitado por el cliente, solo se admite CRC32C
+     * @return algoritmo del SDK, o null si la carga no usa checksum
+     */
+    static ChecksumAlgorithm checksumAlgorithm(String checksumAlgorithm) {
+        return CHECKSUM_CRC32C.equals(checksumAlgorithm) ? ChecksumAlgorithm.CRC32_C : null;
     }
 
     /**
      * Obtiene el nombre del bucket de las variables de entorno
      * @return el nombre del bucket
      */
-    private String resolveBucketName() {
+    String resolveBucketName() {
         return parameterStoreService.getParameter(bucketNameParam);
     }
 
@@ -98,7 +520,7 @@ public class FilestorageServiceImpl implements FilestorageService {
      * @param filename nombre del archivo que le dio el usuario
      * @return nombre unico y completo del archivo
      */
-    private String generateS3Key(String username, String filename) {
+    String generateS3Key(String username, String filename) {
         return String.format("%s/%d/%02d/%s_%s",
                 username,
                 LocalDate.now().getYear(),
@@ -109,43 +531,92 @@ public class FilestorageServiceImpl implements FilestorageService {
     }
 
     /**
-     * Calcula el numero de partes que necesita el archivo en función de su tamaño.
-     * @param fileSizeBytes Tamaño del archivo
-     * @return cantidad de partes
+     * Calcula la ultima parte de la ventana que se firma al iniciar la carga.
+     * @param partCount total de partes del archivo
+     * @return ultima parte de la ventana inicial
+     */
+    int initialWindowLastPart(int partCount) {
+        return initialPartWindow > 0 ? Math.min(partCount, initialPartWindow) : partCount;
+    }
+
+    /**
+     * Busca el registro de la carga y valida que pertenezca al usuario y a la key indicada.
+     * @param username usuario autenticado
+     * @param key clave del archivo en S3
+     * @param uploadId ID del upload multipart
+     * @return registro de la carga en BD
      */
-    private int calculatePartCount(long fileSizeBytes) {
-        long partSizeBytes = partSizeMegaBytes * 1024 * 1024;
-        int partCount = (int) Math.ceil((double) fileSizeBytes / partSizeBytes);
-        if (partCount > 10_000) {
-            log.error("El tamaño de partes excedio el limite");
-            throw new IllegalArgumentException("El archivo requiere más de 10,000 partes. Reduce el tamaño de parte o archivo.");
+    UploadedFileEntity findOwnedUpload(String username, String key, String uploadId) {
+        return uploadedFileService.findByUploadId(uploadId)
+                .filter(file -> key.equals(file.getS3Key()) && username.equals(file.getUploadedBy()))
+                .orElseThrow(() -> {
+                    log.error("No se encontro la carga del archivo {} con uploadId {}", key, uploadId);
+                    return new UploadNotFoundException(key, uploadId);
+                });
+    }
+
+    /**
+     * Valida que la ventana de partes solicitada exista y no supere el tamaño maximo permitido.
+     * @param firstPartNumber primera parte de la ventana
+     * @param lastPartNumber ultima parte de la ventana, ya limitada al total de partes
+     * @param partCount total de partes del archivo
+     */
+    private void validatePartWindow(int firstPartNumber, int lastPartNumber, int partCount) {
+        if (firstPartNumber > partCount) {
+            throw new InvalidPartRangeException(String.format(
+                    "La parte inicial %d supera el total de partes del archivo (%d)", firstPartNumber, partCount));
+        }
+        if (lastPartNumber < firstPartNumber) {
+            throw new InvalidPartRangeException("La parte final debe ser mayor o igual a la parte inicial");
+        }
+        if (lastPartNumber - firstPartNumber + 1 > maxPartWindow) {
+            throw new InvalidPartRangeException(String.format(
+                    "No se pueden solicitar más de %d partes por petición", maxPartWindow));
         }
-        return partCount;
     }
 
     /**
      * Inicia el proceso de carga multipart en S3 y devuelve el uploadId.
      * @param bucketName nombre del bucket
      * @param key nombre del archivo
+     * @param checksumAlgorithm algoritmo de checksum de las partes, o null si la carga no usa checksum
      * @return uploadID identificador del proceso de la carga del archivo
      */
-    private String initiateMultipartUpload(String bucketName, String key) {
+    private String initiateMultipartUpload(String bucketName, String key, ChecksumAlgorithm checksumAlgorithm) {
         return s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
                 .key(key)
+                .checksumAlgorithm(checksumAlgorithm)
                 .build()).uploadId();
     }
 
     /**
-     * Guarda los metadatos del archivo en la base de datos.
+     * Guarda los metadatos del archivo en la base de datos, de forma diferida si app.metadata.write-behind.enabled.
      * @param username usuario que sube el archivo
      * @param request datos del archivo a subir
      * @param bucketName nombre del bucket
      * @param key clave del archivo en S3
      * @param uploadId ID del upload multipart
+     * @param partSizeBytes tamaño de parte elegido para el upload
      */
-    private void saveMetadataToDatabase(String username, MultipartUploadRequestDto request,
-                                        String bucketName, String key, String uploadId) {
+    void saveMetadataToDatabase(String username, MultipartUploadRequestDto request,
+                                String bucketName, String key, String uploadId, long partSizeBytes) {
+        uploadedFileService.registerFile(buildMetadata(username, request, bucketName, key, uploadId, partSizeBytes));
+        log.info("Registro del archivo almacenado");
+    }
+
+    /**
+     * Arma el registro en BD de un archivo cuya carga multipart ya se inicio, sin guardarlo.
+     * @param username usuario que sube el archivo
+     * @param request datos del archivo a subir
+     * @param bucketName nombre del bucket
+     * @param key clave del archivo en S3
+     * @param uploadId ID del upload multipart
+     * @param partSizeBytes tamaño de parte elegido para el upload
+     * @return registro del archivo en estado pendiente
+     */
+    static UploadedFileEntity buildMetadata(String username, MultipartUploadRequestDto request,
+                                            String bucketName, String key, String uploadId, long partSizeBytes) {
         UploadedFileEntity file = new UploadedFileEntity();
         file.setFilename(request.getFilename());
         file.setContentType(request.getContentType());
@@ -153,42 +624,229 @@ public class FilestorageServiceImpl implements FilestorageService {
         file.setUploadId(uploadId);
         file.setBucketName(bucketName);
         file.setSizeBytes(request.getFileSizeBytes());
+        file.setPartSizeBytes(partSizeBytes);
+        file.setChecksumAlgorithm(request.getChecksumAlgorithm());
         file.setUploadedBy(username);
-        uploadedFileService.saveFile(file);
-        log.info("Registro del archivo almacenado en BD");
+        return file;
+    }
+
+    /**
+     * Genera las URLs prefirmadas para cada parte del rango indicado que se va a subir a S3.
+     * La primera parte se firma con S3Presigner y sirve de plantilla para el firmador rapido de las demas;
+     * a partir de cierto numero de partes la firma se reparte en el pool de presign, conservando el orden.
+     * Las URLs generadas no se guardan en la cache: solo se cachean las que se vuelven a pedir por rango.
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId identificador de la carga del archivo
+     * @param firstPartNumber primera parte a firmar
+     * @param lastPartNumber ultima parte a firmar (inclusive)
+     * @return Listado con las url prefirmadas para subir el archivo
+     */
+    List<PartInfoResponseDto> generatePresignedUrls(String bucketName, String key, String uploadId,
+                                                    int firstPartNumber, int lastPartNumber) {
+        return generatePresignedUrls(bucketName, key, uploadId, firstPartNumber, lastPartNumber, null);
     }
 
     /**
-     * Genera las URLs prefirmadas para cada parte del archivo que se va a subir a S3.
+     * Igual que {@link #generatePresignedUrls(String, String, String, int, int)} pero firmando el algoritmo
+     * de checksum de las partes; el cliente debe enviar en cada PUT el header x-amz-checksum-crc32c.
      * @param bucketName nombre del bucket
      * @param key nombre del archivo
      * @param uploadId identificador de la carga del archivo
-     * @param partCount numero de partes
+     * @param firstPartNumber primera parte a firmar
+     * @param lastPartNumber ultima parte a firmar (inclusive)
+     * @param checksumAlgorithm algoritmo de checksum de las partes, o null si la carga no usa checksum
      * @return Listado con las url prefirmadas para subir el archivo
      */
-    private List<PartInfoResponseDto> generatePresignedUrls(String bucketName, String key, String uploadId, int partCount) {
-        return IntStream.rangeClosed(1, partCount)
-                .mapToObj(partNumber -> {
-                    UploadPartRequest partRequest = UploadPartRequest.builder()
-                            .bucket(bucketName)
-                            .key(key)
-                            .uploadId(uploadId)
-                            .partNumber(partNumber)
-                            .build();
-
-                    UploadPartPresignRequest presignRequest = UploadPartPresignRequest.builder()
-                            .signatureDuration(Duration.ofMinutes(presignDurationMinutes))
-                            .uploadPartRequest(partRequest)
-                            .build();
-
-                    String url = s3Presigner.presignUploadPart(presignRequest).url().toString();
-                    return new PartInfoResponseDto(partNumber, url);
-                })
+    List<PartInfoResponseDto> generatePresignedUrls(String bucketName, String key, String uploadId,
+                                                    int firstPartNumber, int lastPartNumber,
+                                                    ChecksumAlgorithm checksumAlgorithm) {
+        Duration signatureDuration = Duration.ofMinutes(presignDurationMinutes);
+        PresignedUploadPartRequest firstPart = presignPart(bucketName, key, uploadId, firstPartNumber,
+                signatureDuration, checksumAlgorithm);
+        IntFunction<String> partSigner = resolvePartSigner(firstPart, bucketName, key, uploadId,
+                signatureDuration, checksumAlgorithm);
+
+        int nextPartNumber = firstPartNumber + 1;
+        List<PartInfoResponseDto> remainingParts = lastPartNumber - firstPartNumber < parallelPresignThreshold
+                ? signParts(nextPartNumber, lastPartNumber, partSigner, false)
+                : presignForkJoinPool.submit(() -> signParts(nextPartNumber, lastPartNumber, partSigner, true)).join();
+
+        return Stream.concat(
+                Stream.of(new PartInfoResponseDto(firstPartNumber, firstPart.url().toString())),
+                remainingParts.stream()
+        ).toList();
+    }
+
+    /**
+     * Obtiene las URLs de un rango de partes tomando de la cache las vigentes y firmando
+     * cada tramo consecutivo de partes faltantes, que quedan en la cache junto con su vencimiento.
+     * @param file registro de la carga en BD
+     * @param firstPartNumber primera parte del rango
+     * @param lastPartNumber ultima parte del rango (inclusive)
+     * @return partes con su url prefirmada, ordenadas por numero de parte
+     */
+    private List<PartInfoResponseDto> resolvePartUrls(UploadedFileEntity file, int firstPartNumber, int lastPartNumber) {
+        Map<Integer, String> cached = presignedUrlCache.getAll(file.getUploadId(), firstPartNumber, lastPartNumber);
+        List<PartInfoResponseDto> parts = new ArrayList<>(lastPartNumber - firstPartNumber + 1);
+        int partNumber = firstPartNumber;
+        while (partNumber <= lastPartNumber) {
+            String url = cached.get(partNumber);
+            if (url != null) {
+                parts.add(new PartInfoResponseDto(partNumber, url));
+                partNumber++;
+                continue;
+            }
+            int missingLastPartNumber = partNumber;
+            while (missingLastPartNumber < lastPartNumber && !cached.containsKey(missingLastPartNumber + 1)) {
+                missingLastPartNumber++;
+            }
+            // Se toma antes de firmar para no registrar un vencimiento posterior al real
+            Instant expiresAt = Instant.now().plus(Duration.ofMinutes(presignDurationMinutes));
+            List<PartInfoResponseDto> signed = generatePresignedUrls(file.getBucketName(), file.getS3Key(),
+                    file.getUploadId(), partNumber, missingLastPartNumber, checksumAlgorithm(file.getChecksumAlgorithm()));
+            presignedUrlCache.putAll(file.getUploadId(), signed, expiresAt);
+            parts.addAll(signed);
+            partNumber = missingLastPartNumber + 1;
+        }
+        return parts;
+    }
+
+    /**
+     * Firma un rango de partes con el firmador indicado.
+     * @param firstPartNumber primera parte a firmar
+     * @param lastPartNumber ultima parte a firmar (inclusive)
+     * @param partSigner funcion que devuelve la url prefirmada de una parte
+     * @param parallel indica si el rango se firma con un stream paralelo
+     * @return partes con su url prefirmada, ordenadas por numero de parte
+     */
+    private static List<PartInfoResponseDto> signParts(int firstPartNumber, int lastPartNumber,
+                                                       IntFunction<String> partSigner, boolean parallel) {
+        IntStream partNumbers = IntStream.rangeClosed(firstPartNumber, lastPartNumber);
+        return (parallel ? partNumbers.parallel() : partNumbers)
+                .mapToObj(partNumber -> new PartInfoResponseDto(partNumber, partSigner.apply(partNumber)))
                 .toList();
     }
 
+    /**
+     * Resuelve el firmador de las partes: el firmador rapido si la URL de referencia lo admite, si no S3Presigner.
+     * @param sample parte ya prefirmada por S3Presigner
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId identificador de la carga del archivo
+     * @param signatureDuration vigencia de la URL
+     * @param checksumAlgorithm algoritmo de checksum de las partes, o null si la carga no usa checksum
+     * @return funcion que devuelve la url prefirmada de una parte
+     */
+    private IntFunction<String> resolvePartSigner(PresignedUploadPartRequest sample, String bucketName, String key,
+                                                  String uploadId, Duration signatureDuration,
+                                                  ChecksumAlgorithm checksumAlgorithm) {
+        if (fastPartSigner) {
+            Optional<PartUrlSigner.UploadSigningContext> context = partUrlSigner.prepare(sample);
+            if (context.isPresent()) {
+                return context.get()::sign;
+            }
+        }
+        return partNumber -> presignPart(bucketName, key, uploadId, partNumber, signatureDuration, checksumAlgorithm)
+                .url().toString();
+    }
+
+    /**
+     * Firma la URL de una parte del archivo con S3Presigner.
+     * @param bucketName nombre del bucket
+     * @param key nombre del archivo
+     * @param uploadId identificador de la carga del archivo
+     * @param partNumber numero de la parte
+     * @param signatureDuration vigencia de la URL
+     * @param checksumAlgorithm algoritmo de checksum de la parte, o null si la carga no usa checksum
+     * @return parte prefirmada
+     */
+    private PresignedUploadPartRequest presignPart(String bucketName, String key, String uploadId, int partNumber,
+                                                   Duration signatureDuration, ChecksumAlgorithm checksumAlgorithm) {
+        UploadPartRequest partRequest = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .checksumAlgorithm(checksumAlgorithm)
+                .build();
+
+        UploadPartPresignRequest presignRequest = UploadPartPresignRequest.builder()
+                .signatureDuration(signatureDuration)
+                .uploadPartRequest(partRequest)
+                .build();
+
+        return s3Presigner.presignUploadPart(presignRequest);
+    }
+
+    /**
+     * Recorre todas las paginas de ListParts del upload y arma la lista de partes completadas,
+     * validando que esten todas las partes del archivo, en orden y con el tamaño esperado.
+     * @param file registro de la carga en BD
+     * @return Lista de partes completadas ordenadas por numero de parte
+     */
+    List<CompletedPart> listCompletedParts(UploadedFileEntity file) {
+        int partCount = partSizePlanner.partCount(file.getSizeBytes(), file.getPartSizeBytes());
+
+        ListPartsRequest listPartsRequest = ListPartsRequest.builder()
+                .bucket(file.getBucketName())
+                .key(file.getS3Key())
+                .uploadId(file.getUploadId())
+                .build();
+        List<CompletedPart> completedParts = new ArrayList<>(partCount);
+        try {
+            for (Part part : s3Client.listPartsPaginator(listPartsRequest).parts()) {
+                int expectedPartNumber = completedParts.size() + 1;
+                if (part.partNumber() > partCount) {
+                    throw new UploadPartsMismatchException(String.format(
+                            "La parte %d supera el total de partes del archivo (%d)", part.partNumber(), partCount));
+                }
+                if (part.partNumber() != expectedPartNumber) {
+                    throw new UploadPartsMismatchException(String.format(
+                            "Falta la parte %d del archivo", expectedPartNumber));
+                }
+                long expectedSize = expectedPartSize(file, part.partNumber(), partCount);
+                if (part.size() == null || part.size() != expectedSize) {
+                    throw new UploadPartsMismatchException(String.format(
+                            "La parte %d tiene %d bytes, se esperaban %d", part.partNumber(), part.size(), expectedSize));
+                }
+                completedParts.add(CompletedPart.builder()
+                        .partNumber(part.partNumber())
+                        .eTag(part.eTag())
+                        .checksumCRC32C(part.checksumCRC32C())
+                        .build());
+            }
+        } catch (NoSuchUploadException e) {
+            log.error("No existe en S3 la carga del archivo {} con uploadId {}", file.getS3Key(), file.getUploadId());
+            throw new NoUploadedPartsException(file.getS3Key(), file.getUploadId());
+        }
+
+        if (completedParts.isEmpty()) {
+            log.error("No se encontraron partes subidas para el archivo {} con uploadId {}", file.getS3Key(), file.getUploadId());
+            throw new NoUploadedPartsException(file.getS3Key(), file.getUploadId());
+        }
+        if (completedParts.size() < partCount) {
+            throw new UploadPartsMismatchException(String.format(
+                    "Se encontraron %d de %d partes del archivo", completedParts.size(), partCount));
+        }
+        return completedParts;
+    }
+
+    /**
+     * Calcula el tamaño esperado de una parte: todas miden el tamaño de parte salvo la ultima, que lleva el resto
+     * @param file registro de la carga en BD
+     * @param partNumber numero de la parte
+     * @param partCount total de partes del archivo
+     * @return tamaño esperado en bytes
+     */
+    private long expectedPartSize(UploadedFileEntity file, int partNumber, int partCount) {
+        long partSize = partSizePlanner.partSize(file.getPartSizeBytes());
+        return partNumber == partCount ? file.getSizeBytes() - (partCount - 1) * partSize : partSize;
+    }
+
     /**
      * Valida que existan partes subidas en S3 para el `uploadId` ingresado.
+     * Solo se pide una parte: basta para saber si el upload existe y tiene partes
      * @param bucketName nombre del bucket
      * @param request id del archivo y su listado de partes
      */
@@ -198,6 +856,7 @@ public class FilestorageServiceImpl implements FilestorageService {
                     .bucket(bucketName)
                     .key(request.getKey())
                     .uploadId(request.getUploadId())
+                    .maxParts(1)
                     .build());
         } catch (Exception e) {
             log.error("No se encontraron partes subidas para el archivo {} con uploadId {}", request.getKey(), request.getUploadId());
@@ -210,12 +869,13 @@ public class FilestorageServiceImpl implements FilestorageService {
      * @param request id del archivo y su listado de partes
      * @return Lista de partes completadas
      */
-    private List<CompletedPart> buildCompletedParts(CompleteUploadRequestDto request) {
+    List<CompletedPart> buildCompletedParts(CompleteUploadRequestDto request) {
         return request.getParts().stream()
                 .sorted(Comparator.comparingInt(CompletedPartRequestDto::getPartNumber))
                 .map(p -> CompletedPart.builder()
                         .partNumber(p.getPartNumber())
                         .eTag(p.getETag())
+                        .checksumCRC32C(p.getChecksumCRC32C())
                         .build())
                 .toList();
     }
@@ -225,7 +885,7 @@ public class FilestorageServiceImpl implements FilestorageService {
      * @param completedParts lista de partes completadas
      * @return Objeto CompletedMultipartUpload
      */
-    private CompletedMultipartUpload buildCompletedMultipartUpload(List<CompletedPart> completedParts) {
+    CompletedMultipartUpload buildCompletedMultipartUpload(List<CompletedPart> completedParts) {
         return CompletedMultipartUpload.builder()
                 .parts(completedParts)
                 .build();
@@ -238,7 +898,7 @@ public class FilestorageServiceImpl implements FilestorageService {
      * @param completedMultipartUpload
      * @return Objeto de tipo "CompleteMultipartUploadRequest"
      */
-    private CompleteMultipartUploadRequest buildCompleteMultipartUploadRequest(
+    CompleteMultipartUploadRequest buildCompleteMultipartUploadRequest(
             String bucketName,
             CompleteUploadRequestDto request,
             CompletedMultipartUpload completedMultipartUpload
@@ -0,0 +1,360 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bitacora local de solo escritura al final con los registros de cargas pendientes de escribir en BD.
+ * Cada linea es la ultima version de un registro en JSON; al reproducirla queda la ultima linea de cada ID.
+ * Se escribe en segmentos: el activo es el archivo de la ruta configurada y, al llegar a segmentRecords lineas,
+ * se cierra renombrandolo con un numero de secuencia (metadata-journal.log.000001) y se abre otro. Un segmento
+ * cerrado se borra, y el activo se vacia, cuando todos los registros cuya ultima version esta en el ya se
+ * escribieron en BD, asi la bitacora no crece aunque la cola nunca quede vacia.
+ * append, markWritten, deadLetter y compact no son seguros para uso concurrente, quien la usa debe serializarlos;
+ * sync se puede llamar sin ese bloqueo, de modo que un solo fsync confirma las lineas anotadas por varios hilos.
+ */
+@Slf4j
+final class MetadataJournal implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path path;
+    private final Path deadLetterPath;
+    private final boolean fsync;
+    private final int segmentRecords;
+    // Registros sin escribir cuya ultima version esta en cada segmento, incluido el activo
+    private final TreeMap<Long, Integer> liveRecords = new TreeMap<>();
+    // Segmento con la ultima version de cada registro sin escribir, por ID
+    private final Map<String, Long> latestSegment = new HashMap<>();
+    private final List<Long> replayedSegments;
+    // Serializa los fsync y el cierre del segmento activo
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile FileChannel channel;
+    // Numero que recibe el segmento activo al cerrarse
+    private long activeSegment;
+    private int activeRecords;
+    // Lineas anotadas y lineas forzadas a disco desde que se abrio la bitacora
+    private volatile long appended;
+    private volatile long synced;
+
+    record Entry(String id, String filename, String contentType, String s3Key, String uploadId, String bucketName,
+                 Long sizeBytes, Long partSizeBytes, String uploadedBy, String status, String createdAt,
+                 String checksumAlgorithm, String checksumCrc32c, String statusUpdatedAt) {
+
+        static Entry of(UploadedFileEntity file) {
+            return new Entry(file.getId().toString(), file.getFilename(), file.getContentType(), file.getS3Key(),
+                    file.getUploadId(), file.getBucketName(), file.getSizeBytes(), file.getPartSizeBytes(),
+                    file.getUploadedBy(), file.getStatus().value(), file.getCreatedAt().toString(),
+                    file.getChecksumAlgorithm(), file.getChecksumCrc32c(), file.getStatusUpdatedAt().toString());
+        }
+
+        UploadedFileEntity toEntity() {
+            UploadedFileEntity file = new UploadedFileEntity();
+            file.setId(UUID.fromString(id));
+            file.setFilename(filename);
+            file.setContentType(contentType);
+            file.setS3Key(s3Key);
+            file.setUploadId(uploadId);
+            file.setBucketName(bucketName);
+            file.setSizeBytes(sizeBytes);
+            file.setPartSizeBytes(partSizeBytes);
+            file.setUploadedBy(uploadedBy);
+            file.setStatus(UploadStatus.fromValue(status));
+            file.setCreatedAt(LocalDateTime.parse(createdAt));
+            file.setChecksumAlgorithm(checksumAlgorithm);
+            file.setChecksumCrc32c(checksumCrc32c);
+            // Las lineas anotadas antes de existir la columna no la traen
+            file.setStatusUpdatedAt(statusUpdatedAt != null ? LocalDateTime.parse(statusUpdatedAt) : file.getCreatedAt());
+            return file;
+        }
+    }
+
+    private MetadataJournal(Path path, boolean fsync, int segmentRecords, List<Long> replayedSegments) {
+        this.path = path;
+        this.deadLetterPath = path.resolveSibling(path.getFileName() + ".dead");
+        this.fsync = fsync;
+        this.segmentRecords = segmentRecords;
+        this.replayedSegments = replayedSegments;
+        this.activeSegment = replayedSegments.isEmpty() ? 1 : replayedSegments.get(replayedSegments.size() - 1) + 1;
+    }
+
+    /**
+     * Abre la bitacora, creando su directorio si no existe. Antes de anotar hay que llamar a {@link #compact}
+     * con los registros de {@link #replay} que siguen pendientes.
+     * @param path ruta del segmento activo; los segmentos cerrados se guardan junto a el
+     * @param fsync si las anotaciones se fuerzan a disco antes de confirmarse
+     * @param segmentRecords lineas a partir de las cuales se cierra el segmento activo
+     */
+    static MetadataJournal open(Path path, boolean fsync, int segmentRecords) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path absolute = path.toAbsolutePath();
+        Pattern segmentName = Pattern.compile(Pattern.quote(absolute.getFileName().toString()) + "\\.(\\d{6,})");
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(absolute.getParent())) {
+            for (Path file : files) {
+                Matcher matcher = segmentName.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        segments.sort(null);
+        return new MetadataJournal(absolute, fsync, segmentRecords, segments);
+    }
+
+    /**
+     * Lee la ultima version de cada registro anotado, en el orden en que se anotaron por primera vez,
+     * recorriendo los segmentos cerrados y luego el activo linea por linea.
+     * Una linea incompleta al final (escritura interrumpida por una caida) se descarta.
+     * @return registros pendientes segun la bitacora
+     */
+    List<UploadedFileEntity> replay() throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Long segment : replayedSegments) {
+            replay(segmentPath(segment), entries);
+        }
+        if (Files.exists(path)) {
+            replay(path, entries);
+        }
+        List<UploadedFileEntity> files = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> files.add(entry.toEntity()));
+        return files;
+    }
+
+    /**
+     * Reescribe en un segmento activo nuevo los registros que siguen pendientes y borra los segmentos leidos
+     * por {@link #replay}. Si se interrumpe, la siguiente reproduccion lee tambien los segmentos viejos y el
+     * resultado es el mismo.
+     * @param pending registros recuperados que aun no estan en BD
+     */
+    void compact(List<UploadedFileEntity> pending) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (UploadedFileEntity file : pending) {
+                write(out, file);
+            }
+            if (fsync) {
+                out.force(false);
+            }
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Long segment : replayedSegments) {
+            Files.deleteIfExists(segmentPath(segment));
+        }
+        replayedSegments.clear();
+        channel = openActive();
+        pending.forEach(file -> track(file.getId().toString(), activeSegment));
+        activeRecords = pending.size();
+    }
+
+    /**
+     * Anota la version actual de un registro al final del segmento activo, sin forzarla a disco
+     * @param file registro de la carga
+     * @return posicion de la linea, para confirmarla con {@link #sync}
+     */
+    long append(UploadedFileEntity file) throws IOException {
+        if (activeRecords >= segmentRecords) {
+            rotate();
+        }
+        write(channel, file);
+        activeRecords++;
+        track(file.getId().toString(), activeSegment);
+        return ++appended;
+    }
+
+    /**
+     * Fuerza a disco las lineas anotadas hasta la posicion indicada. Si otro hilo esta forzando la bitacora
+     * se espera a que termine y, si su fsync ya cubrio la posicion, no se hace otro; si no, un solo fsync
+     * cubre todo lo anotado hasta ese momento.
+     * @param position posicion devuelta por {@link #append}
+     */
+    void sync(long position) throws IOException {
+        if (!fsync || position <= synced) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (position <= synced) {
+                return;
+            }
+            long target = appended;
+            channel.force(false);
+            synced = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Registra que un registro ya esta en BD; borra los segmentos que quedan sin registros pendientes
+     * @param file registro escrito
+     */
+    void markWritten(UploadedFileEntity file) {
+        Long segment = latestSegment.remove(file.getId().toString());
+        if (segment != null) {
+            release(segment);
+        }
+    }
+
+    /**
+     * Aparta un registro que la BD rechaza en un archivo aparte (metadata-journal.log.dead) para revisarlo
+     * a mano, y lo retira de la bitacora
+     * @param file registro rechazado
+     */
+    void deadLetter(UploadedFileEntity file) throws IOException {
+        try (FileChannel out = FileChannel.open(deadLetterPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            write(out, file);
+            if (fsync) {
+                out.force(false);
+            }
+        }
+        markWritten(file);
+    }
+
+    /**
+     * @return ruta del archivo con los registros rechazados por la BD
+     */
+    Path deadLetterPath() {
+        return deadLetterPath;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void replay(Path segment, Map<String, Entry> entries) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Entry entry = MAPPER.readValue(line, Entry.class);
+                    entries.put(entry.id(), entry);
+                } catch (JsonProcessingException e) {
+                    log.warn("Se descarta una linea ilegible de la bitacora {}", segment);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cierra el segmento activo renombrandolo con su numero y abre uno nuevo. Lo anotado hasta aqui queda
+     * forzado a disco; si el segmento ya no tiene registros pendientes se borra.
+     */
+    private void rotate() throws IOException {
+        long sealed = activeSegment;
+        syncLock.lock();
+        try {
+            if (fsync) {
+                channel.force(false);
+            }
+            synced = appended;
+            channel.close();
+            try {
+                Files.move(path, segmentPath(sealed));
+            } finally {
+                // Si no se pudo renombrar se sigue anotando en el mismo archivo y se reintenta en la siguiente linea
+                channel = openActive();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+        activeSegment++;
+        activeRecords = 0;
+        if (!liveRecords.containsKey(sealed)) {
+            deleteSegment(sealed);
+        }
+    }
+
+    private void track(String id, long segment) {
+        Long previous = latestSegment.put(id, segment);
+        if (previous != null && previous == segment) {
+            return;
+        }
+        liveRecords.merge(segment, 1, Integer::sum);
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    private void release(long segment) {
+        Integer remaining = liveRecords.merge(segment, -1, Integer::sum);
+        if (remaining == null || remaining > 0) {
+            return;
+        }
+        liveRecords.remove(segment);
+        if (segment == activeSegment) {
+            truncateActive();
+        } else {
+            deleteSegment(segment);
+        }
+    }
+
+    private void truncateActive() {
+        try {
+            channel.truncate(0);
+            activeRecords = 0;
+        } catch (IOException e) {
+            // Los registros ya escritos se descartan al reproducir la bitacora
+            log.warn("No se pudo vaciar la bitacora {}", path, e);
+        }
+    }
+
+    private void deleteSegment(long segment) {
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el segmento {} de la bitacora {}", segment, path, e);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return path.resolveSibling(String.format("%s.%06d", path.getFileName(), segment));
+    }
+
+    private FileChannel openActive() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void write(FileChannel out, UploadedFileEntity file) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((MAPPER.writeValueAsString(Entry.of(file)) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            out.write(line);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.repository.UploadedFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritura diferida (write-behind) de los registros de cargas nuevas, para que iniciar una carga
+ * no espere el INSERT en BD. Deshabilitada por defecto con app.metadata.write-behind.enabled.
+ * Cada registro se anota primero en una bitacora local ({@link MetadataJournal}) y se encola; una tarea
+ * programada los escribe en uploaded_files por lotes. Al arrancar se reencolan los registros de la bitacora
+ * que no llegaron a BD. La anotacion se hace bajo el bloqueo pero el fsync fuera de el, asi varias peticiones
+ * concurrentes se confirman con un mismo fsync.
+ * Si la BD rechaza un lote por una restriccion, el lote se divide hasta aislar el registro rechazado, que se
+ * aparta en el archivo de descartados de la bitacora para que no bloquee la cola.
+ * La cola esta acotada: si esta llena, quien encola espera hasta app.metadata.write-behind.offer-timeout-ms
+ * y, si sigue llena, el registro se escribe de forma sincronica, de modo que cuando la BD se atrasa
+ * las peticiones vuelven a ir a su ritmo en lugar de acumular registros sin limite.
+ * Mientras un registro esta en cola, las consultas y cambios de estado por uploadId se resuelven aqui, por lo que
+ * solo los ve la instancia que lo acepto: en otra instancia la carga no existe hasta que se escribe en BD.
+ */
+@Slf4j
+@Component
+public class MetadataWriteBehind {
+
+    private final UploadedFileRepository uploadedFileRepository;
+    private final Counter writtenRecords;
+    private final Counter rejectedRecords;
+    private final Counter deadLetteredRecords;
+
+    @Value("${app.metadata.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.metadata.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.metadata.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.metadata.write-behind.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    @Value("${app.metadata.write-behind.journal-path:data/metadata-journal.log}")
+    private String journalPath;
+
+    @Value("${app.metadata.write-behind.journal-fsync:true}")
+    private boolean journalFsync;
+
+    @Value("${app.metadata.write-behind.journal-segment-records:10000}")
+    private int journalSegmentRecords;
+
+    // Todo el estado se protege con el bloqueo; ReentrantLock para no fijar los hilos virtuales que esperan
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFinished = lock.newCondition();
+    private final ArrayDeque<UploadedFileEntity> queue = new ArrayDeque<>();
+    // Registros en cola o en escritura por uploadId
+    private final Map<String, UploadedFileEntity> pending = new HashMap<>();
+    private final Set<String> writing = new HashSet<>();
+    private Semaphore capacity;
+    private MetadataJournal journal;
+
+    public MetadataWriteBehind(UploadedFileRepository uploadedFileRepository, MeterRegistry meterRegistry) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.writtenRecords = Counter.builder("filestorage.metadata.write_behind.written")
+                .description("Registros de cargas escritos en BD por la escritura diferida")
+                .register(meterRegistry);
+        this.rejectedRecords = Counter.builder("filestorage.metadata.write_behind.rejected")
+                .description("Registros escritos de forma sincronica porque la cola estaba llena")
+                .register(meterRegistry);
+        this.deadLetteredRecords = Counter.builder("filestorage.metadata.write_behind.dead_lettered")
+                .description("Registros rechazados por la BD y apartados en el archivo de descartados")
+                .register(meterRegistry);
+        Gauge.builder("filestorage.metadata.write_behind.pending", this, MetadataWriteBehind::pendingRecords)
+                .description("Registros de cargas pendientes de escribir en BD")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre la bitacora y reencola los registros que no llegaron a BD antes de la ultima detencion
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = MetadataJournal.open(Path.of(journalPath), journalFsync, journalSegmentRecords);
+        List<UploadedFileEntity> recovered = notYetWritten(journal.replay());
+        journal.compact(recovered);
+        // Los recuperados pueden superar la capacidad; el semaforo queda en negativo hasta escribirlos
+        capacity = new Semaphore(queueCapacity - recovered.size());
+        lock.lock();
+        try {
+            recovered.forEach(this::enqueue);
+        } finally {
+            lock.unlock();
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Se recuperaron {} registros de cargas de la bitacora {}", recovered.size(), journalPath);
+        }
+    }
+
+    /**
+     * Anota el registro en la bitacora y lo encola para escribirlo en BD
+     * @param file registro de la carga nueva
+     * @return false si la escritura diferida esta deshabilitada o la cola siguio llena; el registro no se encolo
+     */
+    public boolean offer(UploadedFileEntity file) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            if (!capacity.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Cola de escritura diferida llena, el registro de la carga {} se escribe de forma sincronica",
+                        file.getUploadId());
+                rejectedRecords.increment();
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        long position;
+        lock.lock();
+        try {
+            position = journal.append(file);
+            enqueue(file);
+        } catch (IOException e) {
+            log.error("No se pudo anotar en la bitacora la carga {}, se escribe de forma sincronica", file.getUploadId(), e);
+            capacity.release();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        syncJournal(position, file.getUploadId());
+        return true;
+    }
+
+    /**
+     * Busca un registro que aun no se escribio en BD
+     * @param uploadId ID del upload multipart
+     * @return registro en cola o en escritura, vacio si no esta aqui
+     */
+    public Optional<UploadedFileEntity> find(String uploadId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            return Optional.ofNullable(pending.get(uploadId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aplica una transicion de estado a un registro en cola, anotando la nueva version en la bitacora.
+     * Si el registro se esta escribiendo en BD se espera a que termine el lote y la transicion se resuelve en BD.
+     * @param uploadId ID del upload multipart
+     * @param target estado destino
+     * @param checksumCrc32c checksum a guardar junto con el estado, o null
+     * @return resultado de la transicion, vacio si el registro no esta en cola
+     */
+    public Optional<Boolean> transition(String uploadId, UploadStatus target, String checksumCrc32c) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long position;
+        lock.lock();
+        try {
+            while (writing.contains(uploadId)) {
+                batchFinished.awaitUninterruptibly();
+            }
+            UploadedFileEntity file = pending.get(uploadId);
+            if (file == null) {
+                return Optional.empty();
+            }
+            if (!file.getStatus().canTransitionTo(target)) {
+                return Optional.of(false);
+            }
+            UploadStatus previousStatus = file.getStatus();
+            LocalDateTime previousStatusUpdatedAt = file.getStatusUpdatedAt();
+            String previousChecksum = file.getChecksumCrc32c();
+            file.setStatus(target);
+            file.setStatusUpdatedAt(LocalDateTime.now());
+            if (checksumCrc32c != null) {
+                file.setChecksumCrc32c(checksumCrc32c);
+            }
+            try {
+                position = journal.append(file);
+            } catch (IOException e) {
+                file.setStatus(previousStatus);
+                file.setStatusUpdatedAt(previousStatusUpdatedAt);
+                file.setChecksumCrc32c(previousChecksum);
+                throw new UncheckedIOException("No se pudo anotar en la bitacora el estado de la carga " + uploadId, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+        syncJournal(position, uploadId);
+        return Optional.of(true);
+    }
+
+    /**
+     * Escribe en BD los registros en cola, por lotes de app.metadata.write-behind.batch-size.
+     * Si la BD falla, lo que quedo sin escribir vuelve al inicio de la cola para el siguiente intento.
+     */
+    @Scheduled(fixedDelayString = "${app.metadata.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<UploadedFileEntity> batch;
+        do {
+            batch = takeBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<UploadedFileEntity> failed = write(batch);
+            if (!failed.isEmpty()) {
+                finishBatch(failed, false);
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Escribe los registros pendientes antes de detener la aplicacion; los que no se puedan escribir
+     * quedan en la bitacora para el siguiente arranque
+     */
+    @PreDestroy
+    public void flushOnShutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    /**
+     * @return cantidad de registros en cola o en escritura
+     */
+    public int pendingRecords() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Escribe un lote en BD. Si la BD rechaza el lote por una restriccion, lo divide en mitades hasta aislar
+     * los registros rechazados, que se apartan; el resto se escribe.
+     * @return registros que quedaron sin escribir porque la BD fallo, en su orden
+     */
+    private List<UploadedFileEntity> write(List<UploadedFileEntity> batch) {
+        try {
+            uploadedFileRepository.saveAll(batch);
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e);
+                return List.of();
+            }
+            int middle = batch.size() / 2;
+            List<UploadedFileEntity> failed = write(batch.subList(0, middle));
+            if (failed.isEmpty()) {
+                return write(batch.subList(middle, batch.size()));
+            }
+            List<UploadedFileEntity> unwritten = new ArrayList<>(failed);
+            unwritten.addAll(batch.subList(middle, batch.size()));
+            return unwritten;
+        } catch (RuntimeException e) {
+            log.error("No se pudieron escribir {} registros de cargas, se reintentara", batch.size(), e);
+            return batch;
+        }
+        finishBatch(batch, true);
+        writtenRecords.increment(batch.size());
+        log.debug("Se escribieron {} registros de cargas en BD", batch.size());
+        return List.of();
+    }
+
+    /**
+     * Retira de la cola un registro que la BD rechaza y lo aparta en el archivo de descartados de la bitacora
+     */
+    private void deadLetter(UploadedFileEntity file, DataIntegrityViolationException cause) {
+        lock.lock();
+        try {
+            writing.remove(file.getUploadId());
+            pending.remove(file.getUploadId());
+            capacity.release();
+            journal.deadLetter(file);
+            log.error("La BD rechazo el registro de la carga {}, se aparto en {}", file.getUploadId(),
+                    journal.deadLetterPath(), cause);
+        } catch (IOException e) {
+            log.error("La BD rechazo el registro de la carga {} y no se pudo apartar, se descarta: {}",
+                    file.getUploadId(), MetadataJournal.Entry.of(file), e);
+            journal.markWritten(file);
+        } finally {
+            batchFinished.signalAll();
+            lock.unlock();
+        }
+        deadLetteredRecords.increment();
+    }
+
+    /**
+     * Confirma en disco la anotacion fuera del bloqueo. Si falla el registro sigue en cola y se escribira en BD,
+     * pero podria perderse si la instancia cae antes.
+     */
+    private void syncJournal(long position, String uploadId) {
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            log.error("No se pudo forzar a disco la bitacora para la carga {}", uploadId, e);
+        }
+    }
+
+    private void enqueue(UploadedFileEntity file) {
+        queue.addLast(file);
+        pending.put(file.getUploadId(), file);
+    }
+
+    private List<UploadedFileEntity> takeBatch() {
+        lock.lock();
+        try {
+            List<UploadedFileEntity> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+            while (batch.size() < batchSize && !queue.isEmpty()) {
+                UploadedFileEntity file = queue.pollFirst();
+                writing.add(file.getUploadId());
+                batch.add(file);
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera los registros de un lote: si se escribio los retira y los marca como escritos en la bitacora;
+     * si fallo los devuelve al inicio de la cola en su orden
+     */
+    private void finishBatch(List<UploadedFileEntity> batch, boolean written) {
+        lock.lock();
+        try {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                UploadedFileEntity file = batch.get(i);
+                writing.remove(file.getUploadId());
+                if (written) {
+                    pending.remove(file.getUploadId());
+                    journal.markWritten(file);
+                } else {
+                    queue.addFirst(file);
+                }
+            }
+            if (written) {
+                capacity.release(batch.size());
+            }
+            batchFinished.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta los registros recuperados que ya estan en BD, por ejemplo porque se escribieron
+     * justo antes de una caida o de forma sincronica con la cola llena
+     */
+    private List<UploadedFileEntity> notYetWritten(List<UploadedFileEntity> recovered) {
+        if (recovered.isEmpty()) {
+            return recovered;
+        }
+        Set<UUID> written = new HashSet<>();
+        uploadedFileRepository.findAllById(recovered.stream().map(UploadedFileEntity::getId).toList())
+                .forEach(file -> written.add(file.getId()));
+        return recovered.stream()
+                .filter(file -> !written.contains(file.getId()))
+                .toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.repository.PartProgressRepository.PartProgressRow;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acumulador en memoria de las partes reportadas, pendientes de escribir en BD.
+ * Se divide en franjas por uploadId, cada una con su propio bloqueo, para que los reportes de cargas
+ * distintas no compitan entre si; si una parte se reporta varias veces antes de escribirse, queda el ultimo reporte.
+ * Las cargas descartadas al terminar se recuerdan un tiempo para ignorar sus reportes tardios y para que la escritura
+ * en curso borre lo que alcanzo a escribir de ellas.
+ */
+@Component
+public class PartProgressAccumulator {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger pendingParts = new AtomicInteger();
+    // Cargas descartadas y el momento del descarte
+    private final Map<String, Instant> discarded = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<String, Map<Integer, PartProgressRow>> uploads = new HashMap<>();
+    }
+
+    public PartProgressAccumulator() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Registra partes reportadas de una carga; si la carga ya se descarto los reportes se ignoran
+     * @param uploadId ID del upload multipart
+     * @param rows partes reportadas
+     */
+    public void record(String uploadId, List<PartProgressRow> rows) {
+        Stripe stripe = stripeFor(uploadId);
+        stripe.lock.lock();
+        try {
+            if (discarded.containsKey(uploadId)) {
+                return;
+            }
+            Map<Integer, PartProgressRow> parts = stripe.uploads.computeIfAbsent(uploadId, id -> new HashMap<>());
+            for (PartProgressRow row : rows) {
+                if (parts.put(row.partNumber(), row) == null) {
+                    pendingParts.incrementAndGet();
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Vuelve a registrar partes que no se pudieron escribir, sin reemplazar reportes mas recientes
+     * ni las de cargas descartadas mientras tanto
+     * @param rows partes devueltas por {@link #drain()}
+     */
+    public void restore(List<PartProgressRow> rows) {
+        for (PartProgressRow row : rows) {
+            Stripe stripe = stripeFor(row.uploadId());
+            stripe.lock.lock();
+            try {
+                if (discarded.containsKey(row.uploadId())) {
+                    continue;
+                }
+                Map<Integer, PartProgressRow> parts = stripe.uploads.computeIfAbsent(row.uploadId(), id -> new HashMap<>());
+                if (parts.putIfAbsent(row.partNumber(), row) == null) {
+                    pendingParts.incrementAndGet();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Descarta las partes pendientes de una carga, por ejemplo al completarla o abortarla,
+     * y la recuerda como descartada
+     * @param uploadId ID del upload multipart
+     */
+    public void discard(String uploadId) {
+        Stripe stripe = stripeFor(uploadId);
+        stripe.lock.lock();
+        try {
+            discarded.put(uploadId, clock.instant());
+            Map<Integer, PartProgressRow> parts = stripe.uploads.remove(uploadId);
+            if (parts != null) {
+                pendingParts.addAndGet(-parts.size());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Retira todas las partes pendientes; cada franja se bloquea solo el tiempo de cambiar su mapa
+     * @return partes pendientes de escribir
+     */
+    public List<PartProgressRow> drain() {
+        List<PartProgressRow> rows = new ArrayList<>(Math.max(pendingParts.get(), 0));
+        for (Stripe stripe : stripes) {
+            Map<String, Map<Integer, PartProgressRow>> drained;
+            stripe.lock.lock();
+            try {
+                if (stripe.uploads.isEmpty()) {
+                    continue;
+                }
+                drained = stripe.uploads;
+                stripe.uploads = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+            drained.values().forEach(parts -> rows.addAll(parts.values()));
+        }
+        pendingParts.addAndGet(-rows.size());
+        return rows;
+    }
+
+    /**
+     * @param uploadId ID del upload multipart
+     * @return true si la carga se descarto y todavia se recuerda
+     */
+    public boolean isDiscarded(String uploadId) {
+        return discarded.containsKey(uploadId);
+    }
+
+    /**
+     * Olvida las cargas descartadas antes del instante indicado
+     * @param before instante de corte
+     */
+    public void pruneDiscarded(Instant before) {
+        discarded.values().removeIf(discardedAt -> discardedAt.isBefore(before));
+    }
+
+    /**
+     * @return cantidad de partes pendientes de escribir
+     */
+    public int pendingParts() {
+        return pendingParts.get();
+    }
+
+    private Stripe stripeFor(String uploadId) {
+        return stripes[Math.floorMod(uploadId.hashCode(), STRIPES)];
+    }
+}
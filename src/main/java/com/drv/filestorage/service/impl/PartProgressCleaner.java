@@ -0,0 +1,50 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.repository.PartProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Elimina el avance reportado de las cargas que ya terminaron (completadas o abortadas), tanto las partes
+ * acumuladas en memoria como las filas de upload_part_progress, para que la tabla no crezca sin limite.
+ * Es un componente aparte porque lo usan la finalizacion y la limpieza de cargas abandonadas, y el servicio de
+ * avance depende a su vez del servicio de cargas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartProgressCleaner {
+
+    private final PartProgressAccumulator accumulator;
+    private final PartProgressRepository partProgressRepository;
+
+    /**
+     * @param uploadId ID del upload multipart terminado
+     */
+    public void discard(String uploadId) {
+        discardAll(List.of(uploadId));
+    }
+
+    /**
+     * Descarta el avance de varias cargas; si falla el borrado en BD solo se registra, el avance de una carga
+     * terminada ya no se consulta
+     * @param uploadIds IDs de los uploads multipart terminados
+     */
+    public void discardAll(Collection<String> uploadIds) {
+        if (uploadIds.isEmpty()) {
+            return;
+        }
+        uploadIds.forEach(accumulator::discard);
+        try {
+            int deleted = partProgressRepository.deleteByUploadIds(uploadIds);
+            log.debug("Se borraron {} partes reportadas de {} cargas terminadas", deleted, uploadIds.size());
+        } catch (DataAccessException e) {
+            log.warn("No se pudo borrar el avance de {} cargas terminadas", uploadIds.size(), e);
+        }
+    }
+}
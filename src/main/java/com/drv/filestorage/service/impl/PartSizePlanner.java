@@ -0,0 +1,113 @@
+package com.drv.filestorage.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calcula el tamaño de parte de un multipart upload a partir del tamaño del archivo,
+ * los limites configurados y las pistas opcionales del cliente (ancho de banda o paralelismo),
+ * manteniendo el numero de partes dentro de un rango razonable.
+ */
+@Slf4j
+@Component
+public class PartSizePlanner {
+
+    static final long MEGABYTE = 1024L * 1024;
+    static final int MAX_PARTS = 10_000;
+    static final long S3_MIN_PART_SIZE_BYTES = 5 * MEGABYTE;
+    static final long S3_MAX_PART_SIZE_BYTES = 5 * 1024 * MEGABYTE;
+
+    // Partes por worker cuando el cliente indica su paralelismo, para repartir mejor la carga
+    private static final int PARTS_PER_WORKER = 4;
+
+    @Value("${app.s3.part-size-megabytes}")
+    private long partSizeMegaBytes;
+
+    @Value("${app.s3.min-part-size-megabytes:5}")
+    private long minPartSizeMegaBytes;
+
+    @Value("${app.s3.max-part-size-megabytes:5120}")
+    private long maxPartSizeMegaBytes;
+
+    @Value("${app.s3.target-min-parts:16}")
+    private int targetMinParts;
+
+    @Value("${app.s3.target-max-parts:1000}")
+    private int targetMaxParts;
+
+    @Value("${app.s3.target-part-seconds:30}")
+    private int targetPartSeconds;
+
+    /**
+     * Tamaño y cantidad de partes elegidos para un archivo
+     * @param partSizeBytes tamaño de cada parte (la ultima puede ser menor)
+     * @param partCount cantidad de partes
+     */
+    public record PartPlan(long partSizeBytes, int partCount) {
+    }
+
+    /**
+     * Elige el tamaño de parte de un archivo.
+     * @param fileSizeBytes tamaño del archivo
+     * @param bandwidthMbps ancho de banda de subida del cliente en Mbps, opcional
+     * @param parallelism cantidad de partes que el cliente sube en paralelo, opcional
+     * @return tamaño y cantidad de partes
+     */
+    public PartPlan plan(long fileSizeBytes, Integer bandwidthMbps, Integer parallelism) {
+        long partSize;
+        if (parallelism != null && parallelism > 0) {
+            partSize = ceilDiv(fileSizeBytes, (long) parallelism * PARTS_PER_WORKER);
+        } else if (bandwidthMbps != null && bandwidthMbps > 0) {
+            partSize = bandwidthMbps * 1_000_000L / 8 * targetPartSeconds;
+        } else {
+            partSize = partSizeMegaBytes * MEGABYTE;
+        }
+
+        // Rango ideal de partes: suficientes para paralelizar, no tantas como para desperdiciar peticiones
+        partSize = Math.min(partSize, Math.max(1, fileSizeBytes / targetMinParts));
+        partSize = Math.max(partSize, ceilDiv(fileSizeBytes, targetMaxParts));
+
+        // Limites configurados y de S3
+        partSize = Math.max(partSize, Math.max(minPartSizeMegaBytes * MEGABYTE, S3_MIN_PART_SIZE_BYTES));
+        partSize = Math.min(partSize, Math.min(maxPartSizeMegaBytes * MEGABYTE, S3_MAX_PART_SIZE_BYTES));
+        partSize = Math.max(partSize, ceilDiv(fileSizeBytes, MAX_PARTS));
+        partSize = ceilDiv(partSize, MEGABYTE) * MEGABYTE;
+
+        if (partSize > S3_MAX_PART_SIZE_BYTES) {
+            log.error("El tamaño de partes excedio el limite");
+            throw new IllegalArgumentException("El archivo requiere más de 10,000 partes de 5 GB. Reduce el tamaño del archivo.");
+        }
+        return new PartPlan(partSize, partCount(fileSizeBytes, partSize));
+    }
+
+    /**
+     * Obtiene el tamaño de parte de un upload registrado.
+     * Los registros anteriores al planificador no tienen tamaño de parte y usan el configurado.
+     * @param partSizeBytes tamaño de parte almacenado, puede ser nulo
+     * @return tamaño de parte en bytes
+     */
+    public long partSize(Long partSizeBytes) {
+        return partSizeBytes != null ? partSizeBytes : partSizeMegaBytes * MEGABYTE;
+    }
+
+    /**
+     * Calcula la cantidad de partes de un archivo con un tamaño de parte ya definido.
+     * @param fileSizeBytes tamaño del archivo
+     * @param partSizeBytes tamaño de parte almacenado, puede ser nulo
+     * @return cantidad de partes
+     */
+    public int partCount(long fileSizeBytes, Long partSizeBytes) {
+        long partSize = partSize(partSizeBytes);
+        int partCount = (int) ceilDiv(fileSizeBytes, partSize);
+        if (partCount > MAX_PARTS) {
+            log.error("El tamaño de partes excedio el limite");
+            throw new IllegalArgumentException("El archivo requiere más de 10,000 partes. Reduce el tamaño de parte o archivo.");
+        }
+        return partCount;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
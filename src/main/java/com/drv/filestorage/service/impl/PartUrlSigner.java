@@ -0,0 +1,277 @@
+package com.drv.filestorage.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Firmador SigV4 especializado para las URLs de las partes de un multipart upload.
+ * Toma como plantilla la URL que genera S3Presigner para una parte y, como las demas partes
+ * solo cambian en el partNumber, precalcula el request canonico y reutiliza la llave de firma
+ * diaria; cada parte adicional solo requiere un SHA-256 y un HMAC sobre cadenas pequeñas.
+ */
+@Slf4j
+@Component
+public class PartUrlSigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String PART_NUMBER = "partNumber";
+    private static final String SIGNATURE = "X-Amz-Signature";
+    private static final int MAX_CACHED_KEYS = 32;
+    static final String PART_NUMBER_PLACEHOLDER = "{partNumber}";
+    static final String SIGNATURE_PLACEHOLDER = "{signature}";
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_SHA256);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    });
+
+    private final AwsCredentialsProvider credentialsProvider;
+    private final Map<String, SecretKeySpec> signingKeys = new ConcurrentHashMap<>();
+
+    public PartUrlSigner(AwsCredentialsProvider credentialsProvider) {
+        this.credentialsProvider = credentialsProvider;
+    }
+
+    /**
+     * Prepara el contexto de firma de un upload a partir de la URL generada por S3Presigner para una de sus partes.
+     * @param sample parte prefirmada por S3Presigner
+     * @return contexto de firma, o vacio si la URL no admite la firma rapida (headers adicionales, credenciales rotadas, etc.)
+     */
+    public Optional<UploadSigningContext> prepare(PresignedUploadPartRequest sample) {
+        String url = sample.url().toString();
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            return Optional.empty();
+        }
+        if (uri.getRawQuery() == null) {
+            return Optional.empty();
+        }
+
+        List<String[]> params = new ArrayList<>();
+        for (String pair : uri.getRawQuery().split("&")) {
+            int eq = pair.indexOf('=');
+            params.add(eq < 0 ? new String[]{pair, ""} : new String[]{pair.substring(0, eq), pair.substring(eq + 1)});
+        }
+
+        String credential = decode(rawValue(params, "X-Amz-Credential"));
+        String amzDate = rawValue(params, "X-Amz-Date");
+        if (credential == null || amzDate == null || rawValue(params, PART_NUMBER) == null
+                || rawValue(params, SIGNATURE) == null
+                || !ALGORITHM.equals(rawValue(params, "X-Amz-Algorithm"))
+                || !"host".equals(rawValue(params, "X-Amz-SignedHeaders"))) {
+            return Optional.empty();
+        }
+
+        int slash = credential.indexOf('/');
+        String accessKeyId = credential.substring(0, slash);
+        String scope = credential.substring(slash + 1);
+        AwsCredentials credentials = credentialsProvider.resolveCredentials();
+        if (!accessKeyId.equals(credentials.accessKeyId())) {
+            log.warn("Las credenciales cambiaron desde la firma de referencia, se usa S3Presigner");
+            return Optional.empty();
+        }
+
+        SecretKeySpec signingKey = resolveSigningKey(credentials, scope);
+        return Optional.of(new UploadSigningContext(url, uri, params, amzDate, scope, signingKey));
+    }
+
+    /**
+     * Obtiene la llave de firma derivada para el dia/region/servicio del scope, usando la cache.
+     * @param credentials credenciales actuales
+     * @param scope scope de la credencial: fecha/region/servicio/aws4_request
+     * @return llave de firma
+     */
+    private SecretKeySpec resolveSigningKey(AwsCredentials credentials, String scope) {
+        String cacheKey = credentials.accessKeyId() + "/" + scope;
+        SecretKeySpec cached = signingKeys.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        if (signingKeys.size() >= MAX_CACHED_KEYS) {
+            signingKeys.clear();
+        }
+        String[] scopeParts = scope.split("/");
+        byte[] key = ("AWS4" + credentials.secretAccessKey()).getBytes(StandardCharsets.UTF_8);
+        for (String part : scopeParts) {
+            key = hmac(key, part);
+        }
+        SecretKeySpec signingKey = new SecretKeySpec(key, HMAC_SHA256);
+        signingKeys.put(cacheKey, signingKey);
+        return signingKey;
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        return hmac(new SecretKeySpec(key, HMAC_SHA256), data);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        Mac mac = MAC.get();
+        try {
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No fue posible inicializar HmacSHA256", e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256Hex(String data) {
+        return HEX.formatHex(SHA_256.get().digest(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String rawValue(List<String[]> params, String name) {
+        return params.stream()
+                .filter(param -> param[0].equals(name))
+                .map(param -> param[1])
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String decode(String value) {
+        return value == null ? null : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Contexto de firma de un upload: todas las partes comparten host, ruta, uploadId, fecha y scope.
+     */
+    public static final class UploadSigningContext {
+
+        private final String urlPrefix;
+        private final String urlMiddle;
+        private final String urlSuffix;
+        private final boolean partNumberFirst;
+        private final String canonicalRequestHead;
+        private final String canonicalRequestTail;
+        private final String stringToSignHead;
+        private final SecretKeySpec signingKey;
+
+        private UploadSigningContext(String url, URI uri, List<String[]> params, String amzDate,
+                                     String scope, SecretKeySpec signingKey) {
+            this.signingKey = signingKey;
+            this.stringToSignHead = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n";
+
+            // Plantilla de la URL: solo cambian el valor del partNumber y la firma
+            int query = url.indexOf('?');
+            int[] partNumber = valueBounds(url, query, PART_NUMBER);
+            int[] signature = valueBounds(url, query, SIGNATURE);
+            this.partNumberFirst = partNumber[0] < signature[0];
+            int[] first = partNumberFirst ? partNumber : signature;
+            int[] second = partNumberFirst ? signature : partNumber;
+            this.urlPrefix = url.substring(0, first[0]);
+            this.urlMiddle = url.substring(first[1], second[0]);
+            this.urlSuffix = url.substring(second[1]);
+
+            // Request canonico dividido alrededor del partNumber
+            List<String[]> sorted = params.stream()
+                    .filter(param -> !param[0].equals(SIGNATURE))
+                    .sorted(Comparator.<String[], String>comparing(param -> param[0]).thenComparing(param -> param[1]))
+                    .toList();
+            StringBuilder head = new StringBuilder("PUT\n").append(uri.getRawPath()).append('\n');
+            StringBuilder tail = new StringBuilder();
+            boolean afterPartNumber = false;
+            for (String[] param : sorted) {
+                if (param[0].equals(PART_NUMBER)) {
+                    head.append(PART_NUMBER).append('=');
+                    afterPartNumber = true;
+                    continue;
+                }
+                StringBuilder target = afterPartNumber ? tail : head;
+                target.append(param[0]).append('=').append(param[1]).append('&');
+            }
+            if (tail.length() > 0) {
+                tail.setLength(tail.length() - 1);
+                tail.insert(0, '&');
+            }
+            String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+            tail.append("\nhost:").append(host).append("\n\nhost\n").append(UNSIGNED_PAYLOAD);
+            this.canonicalRequestHead = head.toString();
+            this.canonicalRequestTail = tail.toString();
+        }
+
+        /**
+         * Calcula la firma SigV4 de una parte.
+         * @param partNumber numero de la parte
+         * @return firma en hexadecimal
+         */
+        public String signature(int partNumber) {
+            return HEX.formatHex(signatureBytes(partNumber));
+        }
+
+        /**
+         * Calcula la firma SigV4 de una parte sin codificar.
+         * @param partNumber numero de la parte
+         * @return los 32 bytes de la firma
+         */
+        public byte[] signatureBytes(int partNumber) {
+            String canonicalRequest = canonicalRequestHead + partNumber + canonicalRequestTail;
+            String stringToSign = stringToSignHead + sha256Hex(canonicalRequest);
+            return hmac(signingKey, stringToSign);
+        }
+
+        /**
+         * Plantilla de la URL de las partes con los marcadores {partNumber} y {signature}.
+         * @return plantilla de la URL
+         */
+        public String urlTemplate() {
+            return partNumberFirst
+                    ? urlPrefix + PART_NUMBER_PLACEHOLDER + urlMiddle + SIGNATURE_PLACEHOLDER + urlSuffix
+                    : urlPrefix + SIGNATURE_PLACEHOLDER + urlMiddle + PART_NUMBER_PLACEHOLDER + urlSuffix;
+        }
+
+        /**
+         * Genera la URL prefirmada de una parte.
+         * @param partNumber numero de la parte
+         * @return url prefirmada
+         */
+        public String sign(int partNumber) {
+            String partValue = Integer.toString(partNumber);
+            String signatureValue = signature(partNumber);
+            return partNumberFirst
+                    ? urlPrefix + partValue + urlMiddle + signatureValue + urlSuffix
+                    : urlPrefix + signatureValue + urlMiddle + partValue + urlSuffix;
+        }
+
+        private static int[] valueBounds(String url, int query, String name) {
+            int start = url.indexOf("?" + name + "=", query);
+            if (start < 0) {
+                start = url.indexOf("&" + name + "=", query);
+            }
+            start += name.length() + 2;
+            int end = url.indexOf('&', start);
+            return new int[]{start, end < 0 ? url.length() : end};
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.PartInfoResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache acotada de las URLs prefirmadas de las partes, por uploadId y numero de parte.
+ * Permite que un cliente que reintenta o se reconecta vuelva a pedir las URLs de una ventana
+ * sin firmarlas de nuevo mientras sigan vigentes. Las entradas se descartan al leerlas si les queda
+ * menos de la vigencia minima configurada y, si se supera el tamaño maximo, se descartan las menos usadas
+ * desde el inicio del orden de acceso, sin recorrer toda la cache. Un indice por uploadId permite
+ * invalidar las URLs de una carga sin recorrer las de las demas.
+ * Usa un ReentrantLock en lugar de synchronized para no fijar los hilos virtuales que esperan el bloqueo.
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache {
+
+    @Value("${app.s3.url-cache-max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${app.s3.url-cache-min-remaining-seconds:300}")
+    private long minRemainingSeconds;
+
+    private Clock clock = Clock.systemUTC();
+
+    // Orden de acceso: las primeras entradas son las menos usadas
+    private final LinkedHashMap<PartKey, CachedUrl> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Numeros de parte en cache de cada upload
+    private final Map<String, Set<Integer>> partsByUpload = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private record PartKey(String uploadId, int partNumber) {
+    }
+
+    private record CachedUrl(String url, Instant expiresAt) {
+    }
+
+    /**
+     * Almacena las URLs de una ventana de partes.
+     * @param uploadId ID del upload multipart
+     * @param parts partes con su url prefirmada
+     * @param expiresAt instante en que vencen las URLs
+     */
+    public void putAll(String uploadId, List<PartInfoResponseDto> parts, Instant expiresAt) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Set<Integer> partNumbers = partsByUpload.computeIfAbsent(uploadId, id -> new HashSet<>());
+            for (PartInfoResponseDto part : parts) {
+                entries.put(new PartKey(uploadId, part.getPartNumber()), new CachedUrl(part.getPresignedUrl(), expiresAt));
+                partNumbers.add(part.getPartNumber());
+            }
+            if (entries.size() > maxEntries) {
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las URLs vigentes de un rango de partes.
+     * Las entradas vencidas o proximas a vencer se eliminan y no se devuelven.
+     * @param uploadId ID del upload multipart
+     * @param firstPartNumber primera parte del rango
+     * @param lastPartNumber ultima parte del rango (inclusive)
+     * @return url prefirmada por numero de parte, solo de las partes vigentes
+     */
+    public Map<Integer, String> getAll(String uploadId, int firstPartNumber, int lastPartNumber) {
+        Map<Integer, String> urls = new HashMap<>();
+        if (maxEntries <= 0) {
+            return urls;
+        }
+        Instant minExpiry = minExpiry();
+        lock.lock();
+        try {
+            for (int partNumber = firstPartNumber; partNumber <= lastPartNumber && !entries.isEmpty(); partNumber++) {
+                PartKey key = new PartKey(uploadId, partNumber);
+                CachedUrl cached = entries.get(key);
+                if (cached == null) {
+                    continue;
+                }
+                if (cached.expiresAt().isAfter(minExpiry)) {
+                    urls.put(partNumber, cached.url());
+                } else {
+                    entries.remove(key);
+                    unindex(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return urls;
+    }
+
+    /**
+     * Elimina las URLs de un upload, por ejemplo al completarlo.
+     * @param uploadId ID del upload multipart
+     */
+    public void invalidate(String uploadId) {
+        lock.lock();
+        try {
+            Set<Integer> partNumbers = partsByUpload.remove(uploadId);
+            if (partNumbers != null) {
+                partNumbers.forEach(partNumber -> entries.remove(new PartKey(uploadId, partNumber)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta las entradas menos usadas hasta volver al maximo; solo recorre las que descarta
+     */
+    private void evict() {
+        Iterator<PartKey> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            PartKey key = eldest.next();
+            eldest.remove();
+            unindex(key);
+        }
+        log.debug("Cache de URLs prefirmadas depurada, {} entradas", entries.size());
+    }
+
+    private void unindex(PartKey key) {
+        Set<Integer> partNumbers = partsByUpload.get(key.uploadId());
+        if (partNumbers != null && partNumbers.remove(key.partNumber()) && partNumbers.isEmpty()) {
+            partsByUpload.remove(key.uploadId());
+        }
+    }
+
+    private Instant minExpiry() {
+        return clock.instant().plusSeconds(minRemainingSeconds);
+    }
+}
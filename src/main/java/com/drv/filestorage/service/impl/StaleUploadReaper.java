@@ -0,0 +1,263 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.service.UploadedFileService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.Part;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Tarea programada que aborta en S3 las cargas multipart abandonadas y las marca como aborted.
+ * Recorre las cargas pending mas antiguas que la edad configurada paginando por keyset sobre (created_at, id),
+ * de modo que las que no se pudieron abortar no se vuelven a leer en la misma ejecucion.
+ * Los abortos de cada pagina se lanzan en paralelo con S3AsyncClient, limitados por un semaforo,
+ * y las filas abortadas se actualizan con una sola sentencia por pagina.
+ * El mantenimiento de particiones usa el mismo recorrido para abortar las cargas sin estado final antes de archivarlas.
+ */
+@Slf4j
+@Component
+public class StaleUploadReaper {
+
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final S3AsyncClient s3AsyncClient;
+    private final UploadedFileService uploadedFileService;
+    private final FilestorageServiceImpl filestorageService;
+    private final PartProgressCleaner partProgressCleaner;
+    private final Counter reclaimedBytes;
+    private final Counter abortedUploads;
+    private final Counter recoveredUploads;
+    private final Counter failedAborts;
+
+    @Value("${app.reaper.stale-after-hours:24}")
+    private long staleAfterHours;
+
+    @Value("${app.reaper.page-size:200}")
+    private int pageSize;
+
+    @Value("${app.reaper.max-concurrency:16}")
+    private int maxConcurrency;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public StaleUploadReaper(S3AsyncClient s3AsyncClient, UploadedFileService uploadedFileService,
+                             FilestorageServiceImpl filestorageService, PartProgressCleaner partProgressCleaner,
+                             MeterRegistry meterRegistry) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.uploadedFileService = uploadedFileService;
+        this.filestorageService = filestorageService;
+        this.partProgressCleaner = partProgressCleaner;
+        this.reclaimedBytes = Counter.builder("filestorage.reaper.reclaimed")
+                .description("Bytes de partes liberados al abortar cargas abandonadas")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.abortedUploads = Counter.builder("filestorage.reaper.aborted")
+                .description("Cargas abandonadas abortadas")
+                .register(meterRegistry);
+        this.recoveredUploads = Counter.builder("filestorage.reaper.recovered")
+                .description("Cargas abandonadas que S3 ya habia completado y se marcaron como completadas")
+                .register(meterRegistry);
+        this.failedAborts = Counter.builder("filestorage.reaper.failed")
+                .description("Cargas abandonadas que no se pudieron abortar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aborta todas las cargas pending mas antiguas que app.reaper.stale-after-hours
+     * @return cantidad de cargas marcadas como aborted
+     */
+    @Scheduled(cron = "${app.reaper.cron:0 */15 * * * *}")
+    public int reapStaleUploads() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(Duration.ofHours(staleAfterHours));
+        int aborted = abortAll(UploadStatus.PENDING, cutoff);
+        if (aborted > 0) {
+            log.info("Se abortaron {} cargas pendientes creadas antes de {}", aborted, cutoff);
+        }
+        return aborted;
+    }
+
+    /**
+     * Aborta en S3 las cargas pending y failed creadas antes del corte y las marca como aborted, para que
+     * archivarlas no deje cargas multipart huerfanas en el bucket
+     * @param cutoff fecha de creacion de corte
+     * @return cantidad de cargas marcadas como aborted
+     */
+    public int abortUnfinishedBefore(LocalDateTime cutoff) {
+        int aborted = abortAll(UploadStatus.PENDING, cutoff) + abortAll(UploadStatus.FAILED, cutoff);
+        if (aborted > 0) {
+            log.info("Se abortaron {} cargas sin estado final creadas antes de {}", aborted, cutoff);
+        }
+        return aborted;
+    }
+
+    /**
+     * Aborta todas las cargas en el estado indicado creadas antes del corte, pagina por pagina
+     * @param status estado de las cargas
+     * @param cutoff fecha de creacion de corte
+     * @return cantidad de cargas marcadas como aborted
+     */
+    private int abortAll(UploadStatus status, LocalDateTime cutoff) {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        LocalDateTime afterCreatedAt = FIRST_CREATED_AT;
+        UUID afterId = FIRST_ID;
+        int aborted = 0;
+
+        List<UploadedFileEntity> page;
+        do {
+            page = uploadedFileService.findStalePage(status, cutoff, afterCreatedAt, afterId, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            aborted += abortPage(page, status, permits);
+            UploadedFileEntity last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+        } while (page.size() == pageSize);
+        return aborted;
+    }
+
+    /**
+     * Aborta en paralelo las cargas de una pagina, marca como aborted las que se abortaron y descarta
+     * el avance reportado de sus partes
+     * @param page cargas a abortar
+     * @param status estado actual de las cargas de la pagina
+     * @param permits semaforo que limita los abortos simultaneos
+     * @return cantidad de filas actualizadas
+     */
+    private int abortPage(List<UploadedFileEntity> page, UploadStatus status, Semaphore permits) {
+        List<CompletableFuture<AbortResult>> aborts = new ArrayList<>(page.size());
+        for (UploadedFileEntity file : page) {
+            permits.acquireUninterruptibly();
+            aborts.add(abort(file).whenComplete((result, error) -> permits.release()));
+        }
+        List<AbortResult> results = aborts.stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        // La BD se actualiza en el hilo de la tarea, no en los hilos del cliente asincrono de S3
+        results.stream()
+                .filter(result -> result.outcome() == AbortOutcome.COMPLETED)
+                .forEach(result -> {
+                    log.warn("La carga {} ya no existe en S3 pero el objeto {} si, se marca como completada",
+                            result.file().getUploadId(), result.file().getS3Key());
+                    filestorageService.markCompleted(result.file().getUploadId(), result.checksumCrc32c());
+                    recoveredUploads.increment();
+                });
+
+        List<UploadedFileEntity> abortedFiles = results.stream()
+                .filter(result -> result.outcome() == AbortOutcome.ABORTED)
+                .map(AbortResult::file)
+                .toList();
+        if (abortedFiles.isEmpty()) {
+            return 0;
+        }
+        int updated = uploadedFileService.updateStatuses(abortedFiles.stream().map(UploadedFileEntity::getId).toList(),
+                status, UploadStatus.ABORTED);
+        abortedUploads.increment(updated);
+        partProgressCleaner.discardAll(abortedFiles.stream().map(UploadedFileEntity::getUploadId).toList());
+        return updated;
+    }
+
+    /**
+     * Suma el tamaño de las partes subidas y aborta la carga en S3.
+     * Si S3 ya no tiene la carga, una finalizacion anterior pudo completarla en S3 sin alcanzar a actualizar la BD:
+     * si el objeto existe la carga se da por completada, si no se considera abortada sin bytes liberados.
+     * @param file carga a abortar
+     * @return resultado del aborto
+     */
+    private CompletableFuture<AbortResult> abort(UploadedFileEntity file) {
+        AtomicLong partBytes = new AtomicLong();
+        return s3AsyncClient.listPartsPaginator(ListPartsRequest.builder()
+                        .bucket(file.getBucketName())
+                        .key(file.getS3Key())
+                        .uploadId(file.getUploadId())
+                        .build())
+                .parts()
+                .subscribe(part -> partBytes.addAndGet(sizeOf(part)))
+                .thenCompose(ignored -> s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(file.getBucketName())
+                        .key(file.getS3Key())
+                        .uploadId(file.getUploadId())
+                        .build()))
+                .handle((response, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof NoSuchUploadException) {
+                        return findCompletedObject(file);
+                    }
+                    if (cause != null) {
+                        log.warn("No se pudo abortar la carga {} del archivo {}", file.getUploadId(), file.getS3Key(), cause);
+                        failedAborts.increment();
+                        return CompletableFuture.completedFuture(new AbortResult(file, AbortOutcome.FAILED, null));
+                    }
+                    reclaimedBytes.increment(partBytes.get());
+                    log.debug("Carga {} abortada, {} bytes liberados", file.getUploadId(), partBytes.get());
+                    return CompletableFuture.completedFuture(new AbortResult(file, AbortOutcome.ABORTED, null));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Consulta el objeto de una carga que S3 ya no tiene
+     * @param file carga sin upload multipart en S3
+     * @return completada con el checksum del objeto si existe, abortada si no existe, fallida si no se pudo consultar
+     */
+    private CompletableFuture<AbortResult> findCompletedObject(UploadedFileEntity file) {
+        return s3AsyncClient.headObject(HeadObjectRequest.builder()
+                        .bucket(file.getBucketName())
+                        .key(file.getS3Key())
+                        .checksumMode(ChecksumMode.ENABLED)
+                        .build())
+                .handle((object, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof NoSuchKeyException) {
+                        log.debug("Carga {} ya no existe en S3 y no tiene objeto, se da por abortada", file.getUploadId());
+                        return new AbortResult(file, AbortOutcome.ABORTED, null);
+                    }
+                    if (cause != null) {
+                        log.warn("No se pudo consultar el objeto {} de la carga {}", file.getS3Key(), file.getUploadId(), cause);
+                        failedAborts.increment();
+                        return new AbortResult(file, AbortOutcome.FAILED, null);
+                    }
+                    return new AbortResult(file, AbortOutcome.COMPLETED, object.checksumCRC32C());
+                });
+    }
+
+    private static long sizeOf(Part part) {
+        return part.size() != null ? part.size() : 0L;
+    }
+
+    private enum AbortOutcome { ABORTED, COMPLETED, FAILED }
+
+    /**
+     * @param file carga
+     * @param outcome resultado del aborto
+     * @param checksumCrc32c checksum del objeto si S3 ya habia completado la carga
+     */
+    private record AbortResult(UploadedFileEntity file, AbortOutcome outcome, String checksumCrc32c) {
+    }
+}
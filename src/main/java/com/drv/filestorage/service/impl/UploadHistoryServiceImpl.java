@@ -0,0 +1,114 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.UploadPageResponseDto;
+import com.drv.filestorage.common.dto.UploadSummaryDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.exception.InvalidUploadQueryException;
+import com.drv.filestorage.repository.UploadHistoryRepository;
+import com.drv.filestorage.repository.UploadHistoryRepository.UploadHistoryRow;
+import com.drv.filestorage.service.UploadHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lista las cargas del usuario autenticado por paginas, con filtros opcionales por estado y tipo de contenido.
+ * El cursor de cada pagina codifica (created_at, id) de su ultima fila; la siguiente pagina continua desde alli.
+ */
+@Slf4j
+@Service
+public class UploadHistoryServiceImpl implements UploadHistoryService {
+
+    private static final String CURSOR_SEPARATOR = "_";
+
+    private final UploadHistoryRepository uploadHistoryRepository;
+
+    @Value("${app.uploads.max-page-size:200}")
+    private int maxPageSize;
+
+    private record CursorPosition(LocalDateTime createdAt, UUID id) {
+    }
+
+    public UploadHistoryServiceImpl(UploadHistoryRepository uploadHistoryRepository) {
+        this.uploadHistoryRepository = uploadHistoryRepository;
+    }
+
+    /**
+     * Obtiene una pagina de cargas del usuario autenticado, de la mas reciente a la mas antigua
+     * @param status filtro por estado, o null
+     * @param contentType filtro por tipo de contenido, o null
+     * @param cursor cursor devuelto por la pagina anterior, o null para la primera
+     * @param limit cantidad de cargas por pagina, acotada a app.uploads.max-page-size
+     * @return cargas de la pagina y cursor de la siguiente, null si no hay mas
+     */
+    @Override
+    public UploadPageResponseDto listUploads(String status, String contentType, String cursor, int limit) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadStatus statusFilter = parseStatus(status);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        CursorPosition after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        // Se pide una fila de mas para saber si existe otra pagina sin contar las filas
+        List<UploadHistoryRow> rows = uploadHistoryRepository.findPage(username, statusFilter, blankToNull(contentType),
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<UploadHistoryRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        log.debug("Se listaron {} cargas del usuario {}", page.size(), username);
+        return new UploadPageResponseDto(page.stream().map(UploadHistoryServiceImpl::toSummary).toList(), nextCursor);
+    }
+
+    static String encodeCursor(UploadHistoryRow row) {
+        String position = row.createdAt() + CURSOR_SEPARATOR + row.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica el cursor y valida su contenido
+     * @param cursor cursor en Base64 url
+     * @return fecha e id de la ultima fila de la pagina anterior
+     */
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR, 2);
+            if (position.length == 2) {
+                return new CursorPosition(LocalDateTime.parse(position[0]), UUID.fromString(position[1]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.debug("Cursor de listado invalido: {}", cursor);
+        }
+        throw new InvalidUploadQueryException("El cursor no es valido, use el nextCursor de la pagina anterior");
+    }
+
+    private static UploadStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return UploadStatus.fromValue(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUploadQueryException(String.format(
+                    "El estado %s no es valido, use pending, completing, completed, failed o aborted", status));
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static UploadSummaryDto toSummary(UploadHistoryRow row) {
+        return new UploadSummaryDto(row.s3Key(), row.uploadId(), row.filename(), row.contentType(), row.sizeBytes(),
+                row.status(), row.createdAt());
+    }
+}
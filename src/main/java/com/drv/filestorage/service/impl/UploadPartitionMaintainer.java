@@ -0,0 +1,185 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.repository.UploadPartitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tarea programada que mantiene las particiones mensuales de uploaded_files.
+ * Crea por adelantado las particiones del mes actual y de los app.partitions.months-ahead siguientes, y tambien
+ * las de los meses con filas en la particion por defecto, moviendolas a su particion. Despues archiva las
+ * particiones con mas de app.partitions.archive-after-months meses: sus filas pasan a uploaded_files_archive
+ * con su estado y la particion se elimina, de modo que uploaded_files y sus indices solo contienen los meses
+ * recientes. Antes de archivar se abortan en S3 las cargas pending y failed de esos meses; una particion que aun
+ * tenga cargas sin estado final no se archiva y se reintenta en la siguiente ejecucion.
+ * Cada particion se crea o archiva por separado, asi un error en una no detiene las demas.
+ * Si uploaded_files no esta particionada la tarea no hace nada.
+ */
+@Slf4j
+@Component
+public class UploadPartitionMaintainer {
+
+    private final UploadPartitionRepository uploadPartitionRepository;
+    private final StaleUploadReaper staleUploadReaper;
+    private final Counter createdPartitions;
+    private final Counter archivedPartitions;
+    private final Counter archivedRows;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+
+    @Value("${app.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${app.partitions.archive-after-months:12}")
+    private int archiveAfterMonths;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public UploadPartitionMaintainer(UploadPartitionRepository uploadPartitionRepository, StaleUploadReaper staleUploadReaper,
+                                     MeterRegistry meterRegistry) {
+        this.uploadPartitionRepository = uploadPartitionRepository;
+        this.staleUploadReaper = staleUploadReaper;
+        this.createdPartitions = Counter.builder("filestorage.partitions.created")
+                .description("Particiones mensuales de uploaded_files creadas")
+                .register(meterRegistry);
+        this.archivedPartitions = Counter.builder("filestorage.partitions.archived")
+                .description("Particiones mensuales de uploaded_files archivadas")
+                .register(meterRegistry);
+        this.archivedRows = Counter.builder("filestorage.partitions.archived_rows")
+                .description("Registros de cargas movidos a uploaded_files_archive")
+                .register(meterRegistry);
+        Gauge.builder("filestorage.partitions.default_rows", defaultPartitionRows, AtomicLong::get)
+                .description("Registros en la particion por defecto de uploaded_files al terminar el mantenimiento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prepara las particiones al arrancar, para no esperar a la primera ejecucion programada
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Crea las particiones que faltan y archiva las antiguas. Los errores se registran
+     * y se reintenta en la siguiente ejecucion.
+     */
+    @Scheduled(cron = "${app.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth currentMonth = YearMonth.now(clock);
+        TreeSet<YearMonth> partitions;
+        List<YearMonth> defaultMonths;
+        try {
+            if (!uploadPartitionRepository.isPartitioned()) {
+                log.debug("uploaded_files no esta particionada, no se mantienen particiones");
+                return;
+            }
+            partitions = new TreeSet<>(uploadPartitionRepository.findPartitionMonths());
+            defaultMonths = uploadPartitionRepository.findDefaultPartitionMonths();
+        } catch (DataAccessException e) {
+            log.error("No se pudieron consultar las particiones de uploaded_files", e);
+            return;
+        }
+
+        TreeSet<YearMonth> missing = new TreeSet<>(defaultMonths);
+        for (int i = 0; i <= monthsAhead; i++) {
+            missing.add(currentMonth.plusMonths(i));
+        }
+        missing.removeAll(partitions);
+        missing.forEach(month -> {
+            if (createPartition(month)) {
+                partitions.add(month);
+            }
+        });
+
+        archiveOldPartitions(currentMonth, partitions);
+        checkDefaultPartition();
+    }
+
+    /**
+     * Crea la particion del mes, moviendo a ella las filas del mes que esten en la particion por defecto
+     * @return true si se creo
+     */
+    private boolean createPartition(YearMonth month) {
+        String partition = UploadPartitionRepository.partitionName(month);
+        try {
+            int moved = uploadPartitionRepository.createPartition(month);
+            createdPartitions.increment();
+            log.info("Se creo la particion {} y se movieron {} registros desde la particion por defecto", partition, moved);
+            return true;
+        } catch (DataAccessException e) {
+            log.error("No se pudo crear la particion {}", partition, e);
+            return false;
+        }
+    }
+
+    /**
+     * Archiva, de la mas antigua a la mas reciente, las particiones anteriores al mes de corte.
+     * Primero aborta en S3 las cargas pending y failed de esos meses, para no dejar cargas multipart huerfanas
+     * que sigan ocupando almacenamiento; las particiones con cargas que siguen sin estado final no se archivan.
+     */
+    private void archiveOldPartitions(YearMonth currentMonth, TreeSet<YearMonth> partitions) {
+        YearMonth cutoff = currentMonth.minusMonths(archiveAfterMonths);
+        SortedSet<YearMonth> oldPartitions = partitions.headSet(cutoff);
+        if (oldPartitions.isEmpty()) {
+            return;
+        }
+        try {
+            staleUploadReaper.abortUnfinishedBefore(cutoff.atDay(1).atStartOfDay());
+        } catch (DataAccessException e) {
+            log.error("No se pudieron abortar las cargas sin estado final anteriores a {}", cutoff, e);
+        }
+        for (YearMonth month : oldPartitions) {
+            String partition = UploadPartitionRepository.partitionName(month);
+            try {
+                long unfinished = uploadPartitionRepository.countUnfinishedUploads(month);
+                if (unfinished > 0) {
+                    log.warn("La particion {} tiene {} cargas sin estado final, no se archiva", partition, unfinished);
+                    continue;
+                }
+                int rows = uploadPartitionRepository.archivePartition(month);
+                archivedPartitions.increment();
+                archivedRows.increment(rows);
+                log.info("Se archivo la particion {} con {} registros", partition, rows);
+            } catch (DataAccessException e) {
+                log.error("No se pudo archivar la particion {}", partition, e);
+            }
+        }
+    }
+
+    /**
+     * Publica cuantas filas quedaron en la particion por defecto; deberia estar vacia despues del mantenimiento
+     */
+    private void checkDefaultPartition() {
+        try {
+            long rows = uploadPartitionRepository.countDefaultPartitionRows();
+            defaultPartitionRows.set(rows);
+            if (rows > 0) {
+                log.warn("La particion por defecto de uploaded_files tiene {} registros sin particion mensual", rows);
+            }
+        } catch (DataAccessException e) {
+            log.error("No se pudo consultar la particion por defecto de uploaded_files", e);
+        }
+    }
+}
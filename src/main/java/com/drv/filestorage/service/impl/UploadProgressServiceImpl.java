@@ -0,0 +1,160 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.common.dto.PartProgressRequestDto;
+import com.drv.filestorage.common.dto.ReportedPartDto;
+import com.drv.filestorage.common.dto.UploadProgressResponseDto;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.exception.InvalidPartRangeException;
+import com.drv.filestorage.exception.UploadFinishedException;
+import com.drv.filestorage.exception.UploadNotFoundException;
+import com.drv.filestorage.repository.PartProgressRepository;
+import com.drv.filestorage.repository.PartProgressRepository.PartProgressRow;
+import com.drv.filestorage.repository.PartProgressRepository.ProgressSummary;
+import com.drv.filestorage.service.UploadProgressService;
+import com.drv.filestorage.service.UploadedFileService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registra el avance de las cargas multipart reportado por los clientes.
+ * Los reportes se acumulan en memoria y se escriben periodicamente en upload_part_progress
+ * con lotes JDBC, en lugar de una escritura por cada peticion.
+ */
+@Slf4j
+@Service
+public class UploadProgressServiceImpl implements UploadProgressService {
+
+    private final FilestorageServiceImpl filestorageService;
+    private final UploadedFileService uploadedFileService;
+    private final PartSizePlanner partSizePlanner;
+    private final PartProgressAccumulator accumulator;
+    private final PartProgressRepository partProgressRepository;
+
+    @Value("${app.progress.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.progress.discarded-retention-minutes:10}")
+    private long discardedRetentionMinutes;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public UploadProgressServiceImpl(FilestorageServiceImpl filestorageService, UploadedFileService uploadedFileService,
+                                     PartSizePlanner partSizePlanner, PartProgressAccumulator accumulator,
+                                     PartProgressRepository partProgressRepository) {
+        this.filestorageService = filestorageService;
+        this.uploadedFileService = uploadedFileService;
+        this.partSizePlanner = partSizePlanner;
+        this.accumulator = accumulator;
+        this.partProgressRepository = partProgressRepository;
+    }
+
+    /**
+     * Valida la carga y acumula las partes reportadas hasta la proxima escritura.
+     * Las cargas completadas o abortadas ya no aceptan reportes
+     * @param request key, uploadId y partes terminadas
+     * @return cantidad de partes aceptadas
+     */
+    @Override
+    public int reportParts(PartProgressRequestDto request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = filestorageService.findOwnedUpload(username, request.getKey(), request.getUploadId());
+        if (file.getStatus().isFinal()) {
+            throw new UploadFinishedException(file.getUploadId(), file.getStatus().value());
+        }
+
+        int partCount = partSizePlanner.partCount(file.getSizeBytes(), file.getPartSizeBytes());
+        Instant reportedAt = Instant.now();
+        List<PartProgressRow> rows = request.getParts().stream()
+                .map(part -> toRow(file.getUploadId(), part, partCount, reportedAt))
+                .toList();
+
+        accumulator.record(file.getUploadId(), rows);
+        log.debug("Se acumularon {} partes de la carga {}", rows.size(), file.getUploadId());
+        return rows.size();
+    }
+
+    /**
+     * Consulta el avance de una carga del usuario autenticado segun las partes ya escritas en BD
+     * @param uploadId ID del upload multipart
+     * @return avance de la carga
+     */
+    @Override
+    public UploadProgressResponseDto getProgress(String uploadId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UploadedFileEntity file = uploadedFileService.findByUploadId(uploadId)
+                .filter(found -> username.equals(found.getUploadedBy()))
+                .orElseThrow(() -> new UploadNotFoundException(uploadId));
+
+        int totalParts = partSizePlanner.partCount(file.getSizeBytes(), file.getPartSizeBytes());
+        ProgressSummary summary = partProgressRepository.summarize(uploadId);
+        long totalBytes = file.getSizeBytes();
+        double percentComplete = totalBytes == 0 ? 0
+                : Math.round(Math.min(summary.reportedBytes(), totalBytes) * 1000.0 / totalBytes) / 10.0;
+
+        return new UploadProgressResponseDto(file.getS3Key(), file.getUploadId(), file.getStatus().value(), totalParts,
+                summary.reportedParts(), totalBytes, summary.reportedBytes(), percentComplete);
+    }
+
+    /**
+     * Escribe en BD las partes acumuladas. Si la escritura falla se devuelven al acumulador
+     * para el siguiente intento, sin reemplazar reportes mas recientes.
+     * Si una carga termino mientras se escribian sus partes, su borrado pudo ejecutarse antes que la escritura:
+     * despues de escribir se borran de nuevo las partes de las cargas descartadas.
+     */
+    @Scheduled(fixedDelayString = "${app.progress.flush-interval-ms:2000}")
+    public void flushPendingParts() {
+        accumulator.pruneDiscarded(clock.instant().minus(Duration.ofMinutes(discardedRetentionMinutes)));
+        List<PartProgressRow> rows = accumulator.drain();
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            partProgressRepository.upsertAll(rows, batchSize);
+            log.debug("Se escribieron {} partes reportadas en BD", rows.size());
+        } catch (DataAccessException e) {
+            log.error("No se pudieron escribir {} partes reportadas, se reintentara", rows.size(), e);
+            accumulator.restore(rows);
+            return;
+        }
+        Set<String> finished = rows.stream()
+                .map(PartProgressRow::uploadId)
+                .filter(accumulator::isDiscarded)
+                .collect(Collectors.toSet());
+        if (finished.isEmpty()) {
+            return;
+        }
+        try {
+            partProgressRepository.deleteByUploadIds(finished);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo borrar el avance de {} cargas terminadas durante la escritura", finished.size(), e);
+        }
+    }
+
+    /**
+     * Escribe las partes pendientes antes de detener la aplicacion
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingParts();
+    }
+
+    private static PartProgressRow toRow(String uploadId, ReportedPartDto part, int partCount, Instant reportedAt) {
+        if (part.getPartNumber() > partCount) {
+            throw new InvalidPartRangeException(String.format(
+                    "La parte %d no existe, el archivo tiene %d partes", part.getPartNumber(), partCount));
+        }
+        return new PartProgressRow(uploadId, part.getPartNumber(), part.getETag(), part.getSizeBytes(), reportedAt);
+    }
+}
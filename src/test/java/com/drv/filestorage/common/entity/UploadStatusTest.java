@@ -0,0 +1,37 @@
+package com.drv.filestorage.common.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadStatusTest {
+
+    @Test
+    void testCanTransitionTo_finalStatesDoNotChange() {
+        for (UploadStatus target : UploadStatus.values()) {
+            assertFalse(UploadStatus.COMPLETED.canTransitionTo(target));
+            assertFalse(UploadStatus.ABORTED.canTransitionTo(target));
+            assertEquals(target == UploadStatus.COMPLETED || target == UploadStatus.ABORTED, target.isFinal());
+        }
+    }
+
+    @Test
+    void testSourcesOf_matchesAllowedTransitions() {
+        assertEquals(Set.of(UploadStatus.PENDING, UploadStatus.COMPLETING, UploadStatus.FAILED),
+                UploadStatus.sourcesOf(UploadStatus.COMPLETED));
+        assertEquals(Set.of(UploadStatus.PENDING, UploadStatus.FAILED), UploadStatus.sourcesOf(UploadStatus.COMPLETING));
+        assertEquals(Set.of(UploadStatus.PENDING, UploadStatus.COMPLETING), UploadStatus.sourcesOf(UploadStatus.FAILED));
+        assertEquals(Set.of(UploadStatus.PENDING, UploadStatus.FAILED), UploadStatus.sourcesOf(UploadStatus.ABORTED));
+    }
+
+    @Test
+    void testConverter_usesLowercaseValues() {
+        UploadStatusConverter converter = new UploadStatusConverter();
+
+        assertEquals("completing", converter.convertToDatabaseColumn(UploadStatus.COMPLETING));
+        assertEquals(UploadStatus.ABORTED, converter.convertToEntityAttribute("aborted"));
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute("unknown"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.drv.filestorage.common.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void testNext_setsVersionVariantAndTimestamp() {
+        long now = System.currentTimeMillis() + 60_000;
+
+        UUID id = UuidV7.next(now);
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        // Si otra prueba ya genero IDs en un instante posterior, el ID avanza desde ese instante
+        assertTrue((id.getMostSignificantBits() >>> 16) >= now);
+    }
+
+    @Test
+    void testNext_sameMillisecondAndClockBackwards_areStrictlyIncreasing() {
+        long now = System.currentTimeMillis() + 120_000;
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(UuidV7.next(now));
+        }
+        ids.add(UuidV7.next(now - 1000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()) < 0);
+        }
+    }
+
+    @Test
+    void testNewEntity_hasIdAndIsNewUntilPersisted() {
+        UploadedFileEntity file = new UploadedFileEntity();
+
+        assertNotNull(file.getId());
+        assertTrue(file.isNew());
+        file.markNotNew();
+        assertFalse(file.isNew());
+    }
+}
@@ -0,0 +1,58 @@
+package com.drv.filestorage.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedVirtualThreadTaskExecutorTest {
+
+    private final BoundedVirtualThreadTaskExecutor executor = new BoundedVirtualThreadTaskExecutor("test-task-", 2);
+
+    @Test
+    void testExecute_limitReached_rejectsWithoutBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = executor.submit(() -> await(release));
+        Future<?> second = executor.submit(() -> await(release));
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(2, executor.activeCount());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals("ok", executor.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSupplyAsync_limitReached_rejectionReachesTheCaller() {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> await(release));
+        try {
+            assertThrows(RejectedExecutionException.class, () -> CompletableFuture.supplyAsync(() -> "ok", executor));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testExecute_runsOnVirtualThread() throws Exception {
+        Future<Boolean> virtual = executor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertTrue(virtual.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.drv.filestorage.config;
+
+import com.drv.filestorage.TestUtils;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.ssm.model.SsmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseCredentialsRefresherTest {
+
+    private HikariDataSource dataSource;
+    private HikariConfigMXBean configMXBean;
+    private HikariPoolMXBean poolMXBean;
+    private ParameterStoreService parameterStoreService;
+    private DatabaseCredentialsRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = mock(HikariDataSource.class);
+        configMXBean = mock(HikariConfigMXBean.class);
+        poolMXBean = mock(HikariPoolMXBean.class);
+        parameterStoreService = mock(ParameterStoreService.class);
+        when(dataSource.getHikariConfigMXBean()).thenReturn(configMXBean);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(poolMXBean);
+        when(dataSource.getUsername()).thenReturn("app_user");
+        when(dataSource.getPassword()).thenReturn("old-secret");
+
+        refresher = new DatabaseCredentialsRefresher(dataSource, parameterStoreService);
+        TestUtils.setField(refresher, "dbUsernameParam", "/db/username");
+        TestUtils.setField(refresher, "dbPasswordParam", "/db/password");
+    }
+
+    @Test
+    void testRefreshCredentials_unchanged_keepsConnections() {
+        when(parameterStoreService.refreshParameter("/db/username")).thenReturn("app_user");
+        when(parameterStoreService.refreshParameter("/db/password")).thenReturn("old-secret");
+
+        assertFalse(refresher.refreshCredentials());
+        verifyNoInteractions(configMXBean, poolMXBean);
+    }
+
+    @Test
+    void testRefreshCredentials_rotatedPassword_appliesAndSoftEvicts() {
+        when(parameterStoreService.refreshParameter("/db/username")).thenReturn("app_user");
+        when(parameterStoreService.refreshParameter("/db/password")).thenReturn("new-secret");
+
+        assertTrue(refresher.refreshCredentials());
+        verify(configMXBean).setUsername("app_user");
+        verify(configMXBean).setPassword("new-secret");
+        verify(poolMXBean).softEvictConnections();
+    }
+
+    @Test
+    void testRefreshCredentials_ssmFailure_keepsCurrentCredentials() {
+        when(parameterStoreService.refreshParameter("/db/username"))
+                .thenThrow(SsmException.builder().message("sin acceso").build());
+
+        assertFalse(refresher.refreshCredentials());
+        verifyNoInteractions(configMXBean, poolMXBean);
+    }
+}
@@ -2,10 +2,23 @@ package com.drv.filestorage.controller;
 
 import com.drv.filestorage.common.GenericResponse;
 import com.drv.filestorage.common.dto.CompleteUploadRequestDto;
+import com.drv.filestorage.common.dto.CompletedPartRequestDto;
 import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
 import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
 import com.drv.filestorage.common.dto.PartInfoResponseDto;
+import com.drv.filestorage.common.dto.PartUrlsRequestDto;
+import com.drv.filestorage.common.dto.ResumeUploadResponseDto;
+import com.drv.filestorage.common.dto.UploadPageResponseDto;
+import com.drv.filestorage.common.dto.UploadReferenceRequestDto;
+import com.drv.filestorage.common.dto.UploadStatusResponseDto;
+import com.drv.filestorage.common.dto.UploadSummaryDto;
+import com.drv.filestorage.exception.NoUploadedPartsException;
+import com.drv.filestorage.service.CompletionJobService;
+import com.drv.filestorage.service.FilestorageAsyncService;
 import com.drv.filestorage.service.FilestorageService;
+import com.drv.filestorage.service.UploadHistoryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
@@ -14,10 +27,16 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,12 +44,20 @@ import static org.mockito.Mockito.*;
 class FilesUploadControllerTest {
 
     private FilestorageService filestorageService;
+    private FilestorageAsyncService filestorageAsyncService;
+    private CompletionJobService completionJobService;
+    private UploadHistoryService uploadHistoryService;
     private FilesUploadController controller;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
         filestorageService = mock(FilestorageService.class);
-        controller = new FilesUploadController(filestorageService);
+        filestorageAsyncService = mock(FilestorageAsyncService.class);
+        completionJobService = mock(CompletionJobService.class);
+        uploadHistoryService = mock(UploadHistoryService.class);
+        controller = new FilesUploadController(filestorageService, filestorageAsyncService, completionJobService,
+                uploadHistoryService, objectMapper);
     }
 
     @BeforeEach
@@ -55,7 +82,7 @@ class FilesUploadControllerTest {
         when(bindingResult.hasErrors()).thenReturn(false);
 
         MultipartUploadResponseDto mockResponse = new MultipartUploadResponseDto(
-                "s3/key", UUID.randomUUID().toString(), List.of(new PartInfoResponseDto(1, "https://fake-url"))
+                "s3/key", UUID.randomUUID().toString(), 1, 5242880L, List.of(new PartInfoResponseDto(1, "https://fake-url"))
         );
         when(filestorageService.createMultipartUpload(request)).thenReturn(mockResponse);
 
@@ -87,6 +114,149 @@ class FilesUploadControllerTest {
         assertEquals("Filename is required", ((Map<?, ?>) body.getErrors()).get("filename"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGeneratePresignedUrlsStream_writesSameJsonShape() throws Exception {
+        MultipartUploadRequestDto request = new MultipartUploadRequestDto("test.txt", 1024L, "text/plain", null, null);
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        MultipartUploadResponseDto upload = new MultipartUploadResponseDto("s3/key", "upload-123", 3, 5242880L, null);
+        when(filestorageService.initiateMultipartUpload(request)).thenReturn(upload);
+        doAnswer(invocation -> {
+            Consumer<List<PartInfoResponseDto>> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(new PartInfoResponseDto(1, "https://url1"), new PartInfoResponseDto(2, "https://url2")));
+            consumer.accept(List.of(new PartInfoResponseDto(3, "https://url3")));
+            return null;
+        }).when(filestorageService).streamInitialPartUrls(eq(upload), any());
+
+        ResponseEntity<?> response = controller.generatePresignedUrlsStream(request, bindingResult);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+
+        MultipartUploadResponseDto expectedData = new MultipartUploadResponseDto("s3/key", "upload-123", 3, 5242880L, List.of(
+                new PartInfoResponseDto(1, "https://url1"),
+                new PartInfoResponseDto(2, "https://url2"),
+                new PartInfoResponseDto(3, "https://url3")));
+        JsonNode expected = objectMapper.valueToTree(GenericResponse.success(expectedData,
+                "Multipart upload iniciado correctamente para el archivo s3/key"));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(expected, objectMapper.readTree(out.toByteArray()));
+        verify(filestorageService, never()).createMultipartUpload(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGeneratePresignedUrlsStream_withChecksum_writesChecksumAlgorithmAndPartHeaders() throws Exception {
+        MultipartUploadRequestDto request = new MultipartUploadRequestDto("test.txt", 1024L, "text/plain", null, null);
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        MultipartUploadResponseDto upload = new MultipartUploadResponseDto("s3/key", "upload-123", 1, 5242880L,
+                null, null, null, "CRC32C", Map.of("x-amz-sdk-checksum-algorithm", "CRC32C"));
+        when(filestorageService.initiateMultipartUpload(request)).thenReturn(upload);
+        doAnswer(invocation -> {
+            Consumer<List<PartInfoResponseDto>> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(new PartInfoResponseDto(1, "https://url1")));
+            return null;
+        }).when(filestorageService).streamInitialPartUrls(eq(upload), any());
+
+        ResponseEntity<?> response = controller.generatePresignedUrlsStream(request, bindingResult);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+
+        MultipartUploadResponseDto expectedData = new MultipartUploadResponseDto("s3/key", "upload-123", 1, 5242880L,
+                List.of(new PartInfoResponseDto(1, "https://url1")), null, null, "CRC32C",
+                Map.of("x-amz-sdk-checksum-algorithm", "CRC32C"));
+        JsonNode expected = objectMapper.valueToTree(GenericResponse.success(expectedData,
+                "Multipart upload iniciado correctamente para el archivo s3/key"));
+
+        assertEquals(expected, objectMapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    void testGeneratePresignedUrlsStream_withValidationErrors_returnsBadRequest() {
+        MultipartUploadRequestDto request = new MultipartUploadRequestDto();
+        BindingResult bindingResult = mock(BindingResult.class);
+
+        when(bindingResult.hasErrors()).thenReturn(true);
+        when(bindingResult.getFieldErrors()).thenReturn(List.of(
+                new FieldError("request", "filename", "Filename is required")
+        ));
+
+        ResponseEntity<?> response = controller.generatePresignedUrlsStream(request, bindingResult);
+
+        assertEquals(400, response.getStatusCode().value());
+        verify(filestorageService, never()).initiateMultipartUpload(any());
+    }
+
+    @Test
+    void testGenerateCompactPresignedUrls_validRequest_returnsTemplate() {
+        MultipartUploadRequestDto request = new MultipartUploadRequestDto("test.txt", 1024L, "text/plain", null, null);
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        MultipartUploadResponseDto compact = new MultipartUploadResponseDto("s3/key", "upload-123", 2, 5242880L, null,
+                "https://bucket/s3/key?partNumber={partNumber}&X-Amz-Signature={signature}", "AAAA");
+        when(filestorageService.createCompactMultipartUpload(request)).thenReturn(compact);
+
+        ResponseEntity<GenericResponse<MultipartUploadResponseDto>> response = controller.generateCompactPresignedUrls(request, bindingResult);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNull(response.getBody().getData().getUrls());
+        assertNotNull(response.getBody().getData().getUrlTemplate());
+        verify(filestorageService, never()).createMultipartUpload(any());
+    }
+
+    @Test
+    void testDefaultResponse_omitsCompactFields() {
+        MultipartUploadResponseDto upload = new MultipartUploadResponseDto("s3/key", "upload-123", 1, 5242880L,
+                List.of(new PartInfoResponseDto(1, "https://url1")));
+
+        JsonNode json = objectMapper.valueToTree(upload);
+
+        assertFalse(json.has("urlTemplate"));
+        assertFalse(json.has("signatures"));
+        assertTrue(json.has("urls"));
+    }
+
+    @Test
+    void testGeneratePartUrls_validRequest_returnsSuccessResponse() {
+        PartUrlsRequestDto request = new PartUrlsRequestDto("s3/key", "upload-123", 501, 1000);
+
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        MultipartUploadResponseDto mockResponse = new MultipartUploadResponseDto(
+                "s3/key", "upload-123", 1200, 104857600L, List.of(new PartInfoResponseDto(501, "https://fake-url"))
+        );
+        when(filestorageService.generatePartUrls(request)).thenReturn(mockResponse);
+
+        ResponseEntity<GenericResponse<MultipartUploadResponseDto>> response = controller.generatePartUrls(request, bindingResult);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(1200, response.getBody().getData().getTotalParts());
+        assertEquals(501, response.getBody().getData().getUrls().get(0).getPartNumber());
+    }
+
+    @Test
+    void testGeneratePartUrls_withValidationErrors_returnsBadRequest() {
+        PartUrlsRequestDto request = new PartUrlsRequestDto();
+        BindingResult bindingResult = mock(BindingResult.class);
+
+        when(bindingResult.hasErrors()).thenReturn(true);
+        when(bindingResult.getFieldErrors()).thenReturn(List.of(
+                new FieldError("request", "firstPartNumber", "El número de la primera parte es obligatorio")
+        ));
+
+        ResponseEntity<?> response = controller.generatePartUrls(request, bindingResult);
+
+        assertEquals(400, response.getStatusCode().value());
+        verify(filestorageService, never()).generatePartUrls(any());
+    }
+
     @Test
     void testCompleteUpload_validRequest_returnsSuccess() {
         CompleteUploadRequestDto request = new CompleteUploadRequestDto();
@@ -123,6 +293,155 @@ class FilesUploadControllerTest {
         assertEquals("Upload ID is required", ((Map<?, ?>) body.getErrors()).get("uploadId"));
     }
 
+    @Test
+    void testCompleteUploadFromS3_validRequest_returnsSuccess() {
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("s3/key", "upload-123");
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        ResponseEntity<GenericResponse<Void>> response = controller.completeUploadFromS3(request, bindingResult);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("Subida completada exitosamente", response.getBody().getMessage());
+        verify(filestorageService).completeMultipartUploadFromS3(request);
+        verify(filestorageService, never()).completeMultipartUpload(any());
+    }
+
+    @Test
+    void testCompleteUploadFromS3_withValidationErrors_returnsBadRequest() {
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto();
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(true);
+        when(bindingResult.getFieldErrors()).thenReturn(List.of(
+                new FieldError("request", "uploadId", "El uploadId es obligatorio")
+        ));
+
+        ResponseEntity<?> response = controller.completeUploadFromS3(request, bindingResult);
+
+        assertEquals(400, response.getStatusCode().value());
+        verify(filestorageService, never()).completeMultipartUploadFromS3(any());
+    }
+
+    @Test
+    void testSubmitCompletion_validRequest_returnsAcceptedWithLocation() {
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("s3/key", "upload-123");
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(completionJobService.submitCompletion(request))
+                .thenReturn(new UploadStatusResponseDto("s3/key", "upload-123", "completing"));
+
+        ResponseEntity<GenericResponse<UploadStatusResponseDto>> response = controller.submitCompletion(request, bindingResult);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("/files-upload/complete-multiparts-upload/jobs/upload-123", response.getHeaders().getLocation().toString());
+        assertEquals("completing", response.getBody().getData().getStatus());
+        verify(filestorageService, never()).completeMultipartUploadFromS3(any());
+    }
+
+    @Test
+    void testResumeUpload_returnsMissingPartUrls() {
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("s3/key", "upload-123");
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(filestorageService.resumeMultipartUpload(request)).thenReturn(new ResumeUploadResponseDto("s3/key", "upload-123", 2,
+                5242880L, List.of(new CompletedPartRequestDto(1, "etag-1")), List.of(new PartInfoResponseDto(2, "https://fake-url"))));
+
+        ResponseEntity<GenericResponse<ResumeUploadResponseDto>> response = controller.resumeUpload(request, bindingResult);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().getData().getUrls().size());
+        assertEquals("Carga reanudada, faltan 1 partes del archivo s3/key", response.getBody().getMessage());
+    }
+
+    @Test
+    void testGetCompletionStatus_returnsStatus() {
+        when(completionJobService.getStatus("upload-123"))
+                .thenReturn(new UploadStatusResponseDto("s3/key", "upload-123", "completed"));
+
+        ResponseEntity<GenericResponse<UploadStatusResponseDto>> response = controller.getCompletionStatus("upload-123");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("completed", response.getBody().getData().getStatus());
+    }
+
+    @Test
+    void testListUploads_returnsPageWithCursor() {
+        UploadSummaryDto upload = new UploadSummaryDto("s3/key", "upload-123", "archivo.jpg", "image/jpeg", 1024L,
+                "completed", LocalDateTime.of(2025, 6, 14, 10, 15, 30));
+        when(uploadHistoryService.listUploads("completed", null, null, 50))
+                .thenReturn(new UploadPageResponseDto(List.of(upload), "next-cursor"));
+
+        ResponseEntity<GenericResponse<UploadPageResponseDto>> response = controller.listUploads("completed", null, null, 50);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().getData().getUploads().size());
+        assertEquals("next-cursor", response.getBody().getData().getNextCursor());
+    }
+
+    @Test
+    void testGeneratePresignedUrlsAsync_validRequest_returnsSuccessResponse() {
+        MultipartUploadRequestDto request = new MultipartUploadRequestDto("test.txt", 1024L, "text/plain", null, null);
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        MultipartUploadResponseDto upload = new MultipartUploadResponseDto(
+                "s3/key", "upload-123", 1, 5242880L, List.of(new PartInfoResponseDto(1, "https://fake-url")));
+        when(filestorageAsyncService.createMultipartUpload(request)).thenReturn(CompletableFuture.completedFuture(upload));
+
+        ResponseEntity<GenericResponse<MultipartUploadResponseDto>> response =
+                controller.generatePresignedUrlsAsync(request, bindingResult).join();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("s3/key", response.getBody().getData().getKey());
+        verify(filestorageService, never()).createMultipartUpload(any());
+    }
+
+    @Test
+    void testGeneratePresignedUrlsAsync_withValidationErrors_returnsBadRequest() {
+        MultipartUploadRequestDto request = new MultipartUploadRequestDto();
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(true);
+        when(bindingResult.getFieldErrors()).thenReturn(List.of(
+                new FieldError("request", "filename", "El nombre del archivo es obligatorio")
+        ));
+
+        ResponseEntity<?> response = controller.generatePresignedUrlsAsync(request, bindingResult).join();
+
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(filestorageAsyncService);
+    }
+
+    @Test
+    void testCompleteUploadAsync_validRequest_returnsSuccess() {
+        CompleteUploadRequestDto request = new CompleteUploadRequestDto();
+        request.setKey("s3/key");
+        request.setUploadId("upload-123");
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(filestorageAsyncService.completeMultipartUpload(request)).thenReturn(CompletableFuture.completedFuture(null));
+
+        ResponseEntity<GenericResponse<Void>> response = controller.completeUploadAsync(request, bindingResult).join();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("Subida completada exitosamente", response.getBody().getMessage());
+    }
+
+    @Test
+    void testCompleteUploadAsync_serviceFails_propagatesException() {
+        CompleteUploadRequestDto request = new CompleteUploadRequestDto();
+        request.setKey("s3/key");
+        request.setUploadId("upload-123");
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(filestorageAsyncService.completeMultipartUpload(request)).thenReturn(
+                CompletableFuture.failedFuture(new NoUploadedPartsException("s3/key", "upload-123")));
+
+        CompletableFuture<ResponseEntity<GenericResponse<Void>>> response = controller.completeUploadAsync(request, bindingResult);
+
+        CompletionException exception = assertThrows(CompletionException.class, response::join);
+        assertInstanceOf(NoUploadedPartsException.class, exception.getCause());
+    }
+
     @Test
     void testHealthCheck_returnsOk() {
         ResponseEntity<String> response = controller.healthCheck();
@@ -0,0 +1,72 @@
+package com.drv.filestorage.controller;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.GenericResponse;
+import com.drv.filestorage.common.dto.PartProgressRequestDto;
+import com.drv.filestorage.common.dto.ReportedPartDto;
+import com.drv.filestorage.common.dto.UploadProgressResponseDto;
+import com.drv.filestorage.service.UploadProgressService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UploadProgressControllerTest {
+
+    private UploadProgressService uploadProgressService;
+    private UploadProgressController controller;
+
+    @BeforeEach
+    void setUp() {
+        uploadProgressService = mock(UploadProgressService.class);
+        controller = new UploadProgressController(uploadProgressService);
+        TestUtils.mockAuthentication("testuser");
+    }
+
+    @Test
+    void testReportParts_validRequest_returnsAccepted() {
+        PartProgressRequestDto request = buildRequest();
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(uploadProgressService.reportParts(request)).thenReturn(1);
+
+        ResponseEntity<GenericResponse<Void>> response = controller.reportParts(request, bindingResult);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("Se registraron 1 partes", response.getBody().getMessage());
+    }
+
+    @Test
+    void testReportParts_invalidRequest_returnsBadRequest() {
+        BindingResult bindingResult = mock(BindingResult.class);
+        when(bindingResult.hasErrors()).thenReturn(true);
+        when(bindingResult.getFieldErrors()).thenReturn(List.of(
+                new FieldError("partProgressRequestDto", "parts", "Debe reportar al menos una parte")));
+
+        ResponseEntity<GenericResponse<Void>> response = controller.reportParts(buildRequest(), bindingResult);
+
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(uploadProgressService);
+    }
+
+    @Test
+    void testGetProgress_returnsProgress() {
+        when(uploadProgressService.getProgress("upload-123")).thenReturn(
+                new UploadProgressResponseDto("s3/key", "upload-123", "pending", 4, 1, 400L, 100L, 25.0));
+
+        ResponseEntity<GenericResponse<UploadProgressResponseDto>> response = controller.getProgress("upload-123");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(25.0, response.getBody().getData().getPercentComplete());
+    }
+
+    private PartProgressRequestDto buildRequest() {
+        return new PartProgressRequestDto("s3/key", "upload-123", List.of(new ReportedPartDto(1, "etag-1", 100L)));
+    }
+}
@@ -1,12 +1,16 @@
 package com.drv.filestorage.service;
 
+import com.drv.filestorage.common.entity.UploadStatus;
 import com.drv.filestorage.common.entity.UploadedFileEntity;
 import com.drv.filestorage.repository.UploadedFileRepository;
+import com.drv.filestorage.service.impl.MetadataWriteBehind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import java.util.Optional;
-import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -14,12 +18,14 @@ import static org.mockito.Mockito.*;
 class UploadedFileServiceTest {
 
     private UploadedFileRepository uploadedFileRepository;
+    private MetadataWriteBehind metadataWriteBehind;
     private UploadedFileService uploadedFileService;
 
     @BeforeEach
     void setUp() {
         uploadedFileRepository = mock(UploadedFileRepository.class);
-        uploadedFileService = new UploadedFileService(uploadedFileRepository);
+        metadataWriteBehind = mock(MetadataWriteBehind.class);
+        uploadedFileService = new UploadedFileService(uploadedFileRepository, metadataWriteBehind);
     }
 
     @Test
@@ -36,59 +42,83 @@ class UploadedFileServiceTest {
     }
 
     @Test
-    void testUpdateStatusByUUID_foundAndUpdated() {
-        UUID id = UUID.randomUUID();
-        UploadedFileEntity file = new UploadedFileEntity();
-        file.setStatus("pending");
-
-        when(uploadedFileRepository.findById(id)).thenReturn(Optional.of(file));
-        when(uploadedFileRepository.save(file)).thenReturn(file);
+    void testSaveFiles_savesAllInOneCall() {
+        List<UploadedFileEntity> files = List.of(new UploadedFileEntity(), new UploadedFileEntity());
 
-        Optional<UploadedFileEntity> result = uploadedFileService.updateStatus(id, "completed");
+        when(uploadedFileRepository.saveAll(files)).thenReturn(files);
 
-        assertTrue(result.isPresent());
-        assertEquals("completed", result.get().getStatus());
-        verify(uploadedFileRepository).save(file);
+        assertEquals(2, uploadedFileService.saveFiles(files).size());
+        verify(uploadedFileRepository).saveAll(files);
+        verify(uploadedFileRepository, never()).save(any());
     }
 
     @Test
-    void testUpdateStatusByUUID_notFound() {
-        UUID id = UUID.randomUUID();
+    void testTransition_appliedInSingleConditionalUpdate() {
+        when(uploadedFileRepository.transitionStatus(eq("upload-123"),
+                eq(Set.of(UploadStatus.PENDING, UploadStatus.COMPLETING, UploadStatus.FAILED)), eq(UploadStatus.COMPLETED),
+                any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        assertTrue(uploadedFileService.transition("upload-123", UploadStatus.COMPLETED));
+        verify(uploadedFileRepository, never()).findByUploadId(anyString());
+        verify(uploadedFileRepository, never()).save(any());
+    }
 
-        when(uploadedFileRepository.findById(id)).thenReturn(Optional.empty());
+    @Test
+    void testTransition_notAllowedOrMissing_returnsFalse() {
+        when(uploadedFileRepository.transitionStatus(eq("upload-123"), anyCollection(), eq(UploadStatus.FAILED),
+                any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        assertFalse(uploadedFileService.transition("upload-123", UploadStatus.FAILED));
+        verify(uploadedFileRepository).transitionStatus(eq("upload-123"), eq(Set.of(UploadStatus.COMPLETING)),
+                eq(UploadStatus.FAILED), any(LocalDateTime.class));
+    }
 
-        Optional<UploadedFileEntity> result = uploadedFileService.updateStatus(id, "completed");
+    @Test
+    void testCompleteWithChecksum_storesChecksumInSameUpdate() {
+        when(uploadedFileRepository.transitionStatusWithChecksum(eq("upload-123"), anyCollection(),
+                eq(UploadStatus.COMPLETED), eq("hDqJ7w==-2"), any(LocalDateTime.class))).thenReturn(1);
 
-        assertFalse(result.isPresent());
+        assertTrue(uploadedFileService.completeWithChecksum("upload-123", "hDqJ7w==-2"));
         verify(uploadedFileRepository, never()).save(any());
     }
 
     @Test
-    void testUpdateStatusByUploadId_success() {
-        String uploadId = "upload-123";
+    void testRegisterFile_queuedWriteBehind_doesNotInsert() {
         UploadedFileEntity file = new UploadedFileEntity();
-        file.setStatus("pending");
+        when(metadataWriteBehind.offer(file)).thenReturn(true);
 
-        when(uploadedFileRepository.findByUploadId(uploadId)).thenReturn(Optional.of(file));
-        when(uploadedFileRepository.save(file)).thenReturn(file);
+        uploadedFileService.registerFile(file);
+
+        verify(uploadedFileRepository, never()).save(any());
+    }
+
+    @Test
+    void testRegisterFile_notQueued_insertsImmediately() {
+        UploadedFileEntity file = new UploadedFileEntity();
+        when(metadataWriteBehind.offer(file)).thenReturn(false);
 
-        uploadedFileService.updateStatus(uploadId, "completed");
+        uploadedFileService.registerFile(file);
 
-        assertEquals("completed", file.getStatus());
         verify(uploadedFileRepository).save(file);
     }
 
     @Test
-    void testUpdateStatusByUploadId_notFound_shouldThrow() {
-        String uploadId = "missing-upload";
+    void testTransition_recordStillQueued_resolvedWithoutUpdate() {
+        when(metadataWriteBehind.transition("upload-123", UploadStatus.COMPLETED, null)).thenReturn(Optional.of(true));
 
-        when(uploadedFileRepository.findByUploadId(uploadId)).thenReturn(Optional.empty());
+        assertTrue(uploadedFileService.transition("upload-123", UploadStatus.COMPLETED));
+        verify(uploadedFileRepository, never()).transitionStatus(anyString(), anyCollection(), any(), any());
+    }
 
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
-            uploadedFileService.updateStatus(uploadId, "completed");
-        });
+    @Test
+    void testClaimStuck_onlyOneCallerTakesTheUpload() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 6, 14, 10, 0);
+        when(uploadedFileRepository.claimStale(eq("upload-123"), eq(UploadStatus.COMPLETING), eq(cutoff),
+                any(LocalDateTime.class))).thenReturn(1, 0);
 
-        assertEquals("Archivo no encontrado", exception.getMessage());
-        verify(uploadedFileRepository, never()).save(any());
+        assertTrue(uploadedFileService.claimStuck("upload-123", UploadStatus.COMPLETING, cutoff));
+        assertFalse(uploadedFileService.claimStuck("upload-123", UploadStatus.COMPLETING, cutoff));
     }
 }
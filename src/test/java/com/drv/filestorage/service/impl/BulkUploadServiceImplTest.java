@@ -0,0 +1,124 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.BulkUploadRequestDto;
+import com.drv.filestorage.common.dto.BulkUploadResponseDto;
+import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.service.UploadedFileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkUploadServiceImplTest {
+
+    private static final long MB = 1024L * 1024;
+
+    private S3AsyncClient s3AsyncClient;
+    private FilestorageServiceImpl filestorageService;
+    private UploadedFileService uploadedFileService;
+    private BulkUploadServiceImpl bulkUploadService;
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        filestorageService = mock(FilestorageServiceImpl.class);
+        uploadedFileService = mock(UploadedFileService.class);
+
+        PartSizePlanner partSizePlanner = new PartSizePlanner();
+        TestUtils.setField(partSizePlanner, "partSizeMegaBytes", 5L);
+        TestUtils.setField(partSizePlanner, "minPartSizeMegaBytes", 5L);
+        TestUtils.setField(partSizePlanner, "maxPartSizeMegaBytes", 5120L);
+        TestUtils.setField(partSizePlanner, "targetMinParts", 16);
+        TestUtils.setField(partSizePlanner, "targetMaxParts", 1000);
+        TestUtils.setField(partSizePlanner, "targetPartSeconds", 30);
+
+        bulkUploadService = new BulkUploadServiceImpl(s3AsyncClient, filestorageService, partSizePlanner, uploadedFileService);
+        TestUtils.setField(bulkUploadService, "bulkMaxConcurrency", 2);
+        TestUtils.mockAuthentication("test-user");
+
+        when(filestorageService.resolveBucketName()).thenReturn("test-bucket");
+        when(filestorageService.generateS3Key(eq("test-user"), anyString()))
+                .thenAnswer(invocation -> "test-user/2025/06/x_" + invocation.getArgument(1));
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class))).thenAnswer(invocation -> {
+            CreateMultipartUploadRequest request = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder()
+                    .uploadId("upload-" + request.key().substring(request.key().lastIndexOf('_') + 1))
+                    .build());
+        });
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+    }
+
+    @Test
+    void testInitiateMultipartUploads_initiatesAllAndSavesInOneBatch() {
+        BulkUploadResponseDto response = bulkUploadService.initiateMultipartUploads(
+                request(file("a.jpg", 10 * MB), file("b.jpg", 20 * MB), file("c.jpg", 5 * MB)));
+
+        assertEquals(3, response.getInitiated());
+        assertEquals(0, response.getFailed());
+        assertEquals(List.of("a.jpg", "b.jpg", "c.jpg"),
+                response.getFiles().stream().map(result -> result.getFilename()).toList());
+        assertEquals("upload-b.jpg", response.getFiles().get(1).getUpload().getUploadId());
+        assertEquals(4, response.getFiles().get(1).getUpload().getTotalParts());
+        verify(s3AsyncClient, times(3)).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        verify(filestorageService, times(1)).resolveBucketName();
+        verify(uploadedFileService).saveFiles(argThat((List<UploadedFileEntity> files) -> files.size() == 3
+                && files.stream().allMatch(file -> "test-user".equals(file.getUploadedBy())
+                && "test-bucket".equals(file.getBucketName()))));
+        verify(uploadedFileService, never()).saveFile(any());
+    }
+
+    @Test
+    void testInitiateMultipartUploads_s3Failure_reportsOnlyThatFile() {
+        when(s3AsyncClient.createMultipartUpload(argThat((CreateMultipartUploadRequest request) ->
+                request.key().endsWith("_b.jpg"))))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("acceso denegado").statusCode(403).build()));
+
+        BulkUploadResponseDto response = bulkUploadService.initiateMultipartUploads(
+                request(file("a.jpg", 10 * MB), file("b.jpg", 10 * MB), file("c.jpg", 10 * MB)));
+
+        assertEquals(2, response.getInitiated());
+        assertEquals(1, response.getFailed());
+        assertFalse(response.getFiles().get(1).isSuccess());
+        assertEquals(BulkUploadServiceImpl.ERROR_INITIATE_FAILED, response.getFiles().get(1).getError());
+        assertTrue(response.getFiles().get(2).isSuccess());
+        verify(uploadedFileService).saveFiles(argThat((List<UploadedFileEntity> files) -> files.size() == 2));
+    }
+
+    @Test
+    void testInitiateMultipartUploads_tooManyParts_failsWithoutCallingS3() {
+        BulkUploadResponseDto response = bulkUploadService.initiateMultipartUploads(
+                request(file("a.jpg", 10 * MB), file("enorme.iso", 60L * 1024 * 1024 * MB)));
+
+        assertEquals(1, response.getInitiated());
+        assertEquals(BulkUploadServiceImpl.ERROR_INVALID_FILE, response.getFiles().get(1).getError());
+        verify(s3AsyncClient, times(1)).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testInitiateMultipartUploads_saveFailure_abortsInitiatedUploads() {
+        when(uploadedFileService.saveFiles(anyList())).thenThrow(new DataAccessResourceFailureException("BD no disponible"));
+
+        BulkUploadRequestDto request = request(file("a.jpg", 10 * MB), file("b.jpg", 10 * MB));
+        assertThrows(DataAccessResourceFailureException.class, () -> bulkUploadService.initiateMultipartUploads(request));
+
+        verify(s3AsyncClient, times(2)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    private static BulkUploadRequestDto request(MultipartUploadRequestDto... files) {
+        return new BulkUploadRequestDto(List.of(files));
+    }
+
+    private static MultipartUploadRequestDto file(String filename, long sizeBytes) {
+        return new MultipartUploadRequestDto(filename, sizeBytes, "image/jpeg", null, null);
+    }
+}
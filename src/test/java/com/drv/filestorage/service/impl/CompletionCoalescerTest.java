@@ -0,0 +1,143 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionCoalescerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    private CompletionCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new CompletionCoalescer();
+        TestUtils.setField(coalescer, "completedCacheSeconds", 300L);
+        TestUtils.setField(coalescer, "completedCacheMaxEntries", 2);
+        TestUtils.setField(coalescer, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testComplete_concurrentDuplicates_runOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<?> first = executor.submit(() -> coalescer.complete("upload-1", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<?>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            duplicates.add(executor.submit(() -> coalescer.complete("upload-1", runs::incrementAndGet)));
+        }
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        for (Future<?> duplicate : duplicates) {
+            duplicate.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testComplete_failure_isNotCached() {
+        assertThrows(IllegalStateException.class, () -> coalescer.complete("upload-1", () -> {
+            throw new IllegalStateException("S3 no disponible");
+        }));
+
+        AtomicInteger retries = new AtomicInteger();
+        coalescer.complete("upload-1", retries::incrementAndGet);
+        assertEquals(1, retries.get());
+    }
+
+    @Test
+    void testComplete_recentlyCompleted_isAnsweredFromCacheUntilExpiry() {
+        AtomicInteger runs = new AtomicInteger();
+        coalescer.complete("upload-1", runs::incrementAndGet);
+        coalescer.complete("upload-1", runs::incrementAndGet);
+        assertEquals(1, runs.get());
+
+        TestUtils.setField(coalescer, "clock", Clock.fixed(NOW.plusSeconds(301), ZoneOffset.UTC));
+        coalescer.complete("upload-1", runs::incrementAndGet);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void testComplete_overCapacity_forgetsOldestCompleted() {
+        AtomicInteger runs = new AtomicInteger();
+        coalescer.complete("upload-1", runs::incrementAndGet);
+        coalescer.complete("upload-2", runs::incrementAndGet);
+        coalescer.complete("upload-3", runs::incrementAndGet);
+
+        coalescer.complete("upload-1", runs::incrementAndGet);
+        coalescer.complete("upload-3", runs::incrementAndGet);
+
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void testCompleteAsync_duplicatesShareInFlightCompletion() {
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        CompletableFuture<Void> first = coalescer.completeAsync("upload-1", () -> {
+            runs.incrementAndGet();
+            return completion;
+        });
+        CompletableFuture<Void> duplicate = coalescer.completeAsync("upload-1", () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        assertFalse(duplicate.isDone());
+        completion.complete(null);
+
+        first.join();
+        duplicate.join();
+        coalescer.complete("upload-1", runs::incrementAndGet);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testCompleteAsync_failure_isSharedAndNotCached() {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        CompletableFuture<Void> first = coalescer.completeAsync("upload-1", () -> completion);
+        CompletableFuture<Void> duplicate = coalescer.completeAsync("upload-1", CompletableFuture::new);
+        completion.completeExceptionally(new IllegalStateException("S3 no disponible"));
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, duplicate::join);
+        AtomicInteger retries = new AtomicInteger();
+        coalescer.complete("upload-1", retries::incrementAndGet);
+        assertEquals(1, retries.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.UploadReferenceRequestDto;
+import com.drv.filestorage.common.dto.UploadStatusResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.exception.CompletionQueueFullException;
+import com.drv.filestorage.exception.UploadNotFoundException;
+import com.drv.filestorage.service.UploadedFileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CompletionJobServiceImplTest {
+
+    private FilestorageServiceImpl filestorageService;
+    private UploadedFileService uploadedFileService;
+    private ThreadPoolExecutor completionExecutor;
+    private CompletionJobServiceImpl completionJobService;
+
+    @BeforeEach
+    void setUp() {
+        filestorageService = mock(FilestorageServiceImpl.class);
+        uploadedFileService = mock(UploadedFileService.class);
+        completionExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        completionJobService = new CompletionJobServiceImpl(filestorageService, uploadedFileService, completionExecutor);
+        TestUtils.setField(completionJobService, "staleAfterMinutes", 15L);
+        TestUtils.setField(completionJobService, "recoveryBatchSize", 100);
+        TestUtils.mockAuthentication("test-user");
+    }
+
+    @Test
+    void testSubmitCompletion_pendingUpload_marksCompletingAndCompletesInBackground() throws InterruptedException {
+        UploadedFileEntity file = buildUpload(UploadStatus.PENDING);
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(file);
+        when(uploadedFileService.transition("upload-123", UploadStatus.COMPLETING)).thenReturn(true);
+
+        UploadStatusResponseDto status = completionJobService.submitCompletion(new UploadReferenceRequestDto("test-key", "upload-123"));
+        awaitCompletions();
+
+        assertEquals("completing", status.getStatus());
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETING);
+        verify(filestorageService).completeFromS3(file);
+        verify(uploadedFileService, never()).transition("upload-123", UploadStatus.FAILED);
+    }
+
+    @Test
+    void testSubmitCompletion_backgroundFailure_marksFailed() throws InterruptedException {
+        UploadedFileEntity file = buildUpload(UploadStatus.PENDING);
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(file);
+        when(uploadedFileService.transition("upload-123", UploadStatus.COMPLETING)).thenReturn(true);
+        doThrow(new IllegalStateException("S3 no disponible")).when(filestorageService).completeFromS3(file);
+
+        completionJobService.submitCompletion(new UploadReferenceRequestDto("test-key", "upload-123"));
+        awaitCompletions();
+
+        verify(uploadedFileService).transition("upload-123", UploadStatus.FAILED);
+        verify(uploadedFileService, never()).findByUploadId(anyString());
+    }
+
+    @Test
+    void testSubmitCompletion_alreadyCompleting_isNotQueuedAgain() throws InterruptedException {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload(UploadStatus.COMPLETING));
+
+        UploadStatusResponseDto status = completionJobService.submitCompletion(new UploadReferenceRequestDto("test-key", "upload-123"));
+        awaitCompletions();
+
+        assertEquals("completing", status.getStatus());
+        verify(uploadedFileService, never()).transition(anyString(), any());
+        verify(filestorageService, never()).completeFromS3(any());
+    }
+
+    @Test
+    void testSubmitCompletion_staleCompleting_isClaimedAndQueuedAgain() throws InterruptedException {
+        UploadedFileEntity file = buildUpload(UploadStatus.COMPLETING);
+        file.setStatusUpdatedAt(LocalDateTime.now().minusHours(1));
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(file);
+        when(uploadedFileService.claimStuck(eq("upload-123"), eq(UploadStatus.COMPLETING), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        UploadStatusResponseDto status = completionJobService.submitCompletion(new UploadReferenceRequestDto("test-key", "upload-123"));
+        awaitCompletions();
+
+        assertEquals("completing", status.getStatus());
+        verify(uploadedFileService, never()).transition("upload-123", UploadStatus.COMPLETING);
+        verify(filestorageService).completeFromS3(file);
+    }
+
+    @Test
+    void testResumeLostCompletions_queuesOnlyClaimedUploads() throws InterruptedException {
+        UploadedFileEntity claimed = buildUpload(UploadStatus.COMPLETING);
+        UploadedFileEntity takenByOtherInstance = buildUpload(UploadStatus.COMPLETING);
+        takenByOtherInstance.setUploadId("upload-456");
+        when(uploadedFileService.findStuck(eq(UploadStatus.COMPLETING), any(LocalDateTime.class), eq(100)))
+                .thenReturn(List.of(claimed, takenByOtherInstance));
+        when(uploadedFileService.claimStuck(eq("upload-123"), eq(UploadStatus.COMPLETING), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        assertEquals(1, completionJobService.resumeLostCompletions());
+        awaitCompletions();
+
+        verify(filestorageService).completeFromS3(claimed);
+        verify(filestorageService, never()).completeFromS3(takenByOtherInstance);
+    }
+
+    @Test
+    void testSubmitCompletion_queueFull_restoresStatusAndThrows() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload(UploadStatus.PENDING));
+        when(uploadedFileService.transition("upload-123", UploadStatus.COMPLETING)).thenReturn(true);
+        completionExecutor.shutdown();
+
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("test-key", "upload-123");
+        assertThrows(CompletionQueueFullException.class, () -> completionJobService.submitCompletion(request));
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETING);
+        verify(uploadedFileService).transition("upload-123", UploadStatus.PENDING);
+    }
+
+    @Test
+    void testSubmitCompletion_concurrentlyAborted_returnsCurrentStatusWithoutQueueing() throws InterruptedException {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload(UploadStatus.PENDING));
+        when(uploadedFileService.transition("upload-123", UploadStatus.COMPLETING)).thenReturn(false);
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload(UploadStatus.ABORTED)));
+
+        UploadStatusResponseDto status = completionJobService.submitCompletion(new UploadReferenceRequestDto("test-key", "upload-123"));
+        awaitCompletions();
+
+        assertEquals("aborted", status.getStatus());
+        verify(filestorageService, never()).completeFromS3(any());
+    }
+
+    @Test
+    void testGetStatus_otherUser_throwsNotFound() {
+        UploadedFileEntity file = buildUpload(UploadStatus.COMPLETED);
+        file.setUploadedBy("other-user");
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(file));
+
+        assertThrows(UploadNotFoundException.class, () -> completionJobService.getStatus("upload-123"));
+    }
+
+    @Test
+    void testGetStatus_returnsStoredStatus() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload(UploadStatus.COMPLETED)));
+
+        UploadStatusResponseDto status = completionJobService.getStatus("upload-123");
+
+        assertEquals("completed", status.getStatus());
+        assertEquals("test-key", status.getKey());
+    }
+
+    private void awaitCompletions() throws InterruptedException {
+        completionExecutor.shutdown();
+        assertTrue(completionExecutor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private UploadedFileEntity buildUpload(UploadStatus status) {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setS3Key("test-key");
+        file.setUploadId("upload-123");
+        file.setUploadedBy("test-user");
+        file.setStatus(status);
+        return file;
+    }
+}
@@ -0,0 +1,181 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.ComposeRequestDto;
+import com.drv.filestorage.common.dto.ComposeResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.exception.InvalidComposeSourceException;
+import com.drv.filestorage.service.UploadedFileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ComposeServiceImplTest {
+
+    private static final long MB = 1024L * 1024;
+
+    private S3AsyncClient s3AsyncClient;
+    private FilestorageServiceImpl filestorageService;
+    private UploadedFileService uploadedFileService;
+    private ComposeServiceImpl composeService;
+    // Tamaño real de cada objeto origen en S3
+    private final Map<String, Long> objectSizes = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        filestorageService = mock(FilestorageServiceImpl.class);
+        uploadedFileService = mock(UploadedFileService.class);
+        composeService = new ComposeServiceImpl(s3AsyncClient, filestorageService, uploadedFileService);
+        TestUtils.setField(composeService, "composePartSizeMegaBytes", 20L);
+        TestUtils.setField(composeService, "composeMaxConcurrency", 2);
+        TestUtils.mockAuthentication("test-user");
+
+        when(filestorageService.resolveBucketName()).thenReturn("test-bucket");
+        when(filestorageService.generateS3Key("test-user", "merged.log")).thenReturn("test-user/2025/06/x_merged.log");
+        when(filestorageService.buildCompletedMultipartUpload(anyList())).thenAnswer(invocation ->
+                CompletedMultipartUpload.builder().parts((List<CompletedPart>) invocation.getArgument(0)).build());
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("compose-1").build()));
+        when(s3AsyncClient.uploadPartCopy(any(UploadPartCopyRequest.class))).thenAnswer(invocation -> {
+            UploadPartCopyRequest request = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(UploadPartCopyResponse.builder()
+                    .copyPartResult(CopyPartResult.builder().eTag("etag-" + request.partNumber()).build())
+                    .build());
+        });
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenAnswer(invocation -> {
+            HeadObjectRequest request = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(HeadObjectResponse.builder()
+                    .contentLength(objectSizes.get(request.key()))
+                    .build());
+        });
+    }
+
+    @Test
+    void testPlanCopyParts_splitsLargeSourcesIntoEqualRanges() {
+        List<ComposeServiceImpl.CopyPart> parts = ComposeServiceImpl.planCopyParts(
+                List.of(sourceObject("a.log", 50 * MB), sourceObject("b.log", 3 * MB)), 20 * MB);
+
+        // 50 MB en 3 rangos iguales y el ultimo origen, menor a 5 MB, en una sola parte
+        assertEquals(4, parts.size());
+        assertEquals(0, parts.get(0).firstByte());
+        assertEquals(50 * MB - 1, parts.get(2).lastByte());
+        assertEquals(parts.get(0).lastByte() + 1, parts.get(1).firstByte());
+        assertEquals(4, parts.get(3).partNumber());
+        assertEquals(3 * MB - 1, parts.get(3).lastByte());
+    }
+
+    @Test
+    void testPlanCopyParts_smallSourceBeforeLast_throws() {
+        List<ComposeServiceImpl.SourceObject> sources = List.of(sourceObject("a.log", 3 * MB), sourceObject("b.log", 10 * MB));
+
+        assertThrows(InvalidComposeSourceException.class, () -> ComposeServiceImpl.planCopyParts(sources, 20 * MB));
+    }
+
+    @Test
+    void testCompose_copiesAllPartsCompletesAndSavesFile() {
+        when(uploadedFileService.findByKeys(anyCollection(), eq("test-user"), eq(UploadStatus.COMPLETED)))
+                .thenReturn(List.of(source("a.log", 30 * MB), source("b.log", 10 * MB)));
+
+        ComposeResponseDto response = composeService.compose(
+                new ComposeRequestDto("merged.log", null, List.of("a.log", "b.log")));
+
+        assertEquals("test-user/2025/06/x_merged.log", response.getKey());
+        assertEquals(40 * MB, response.getSizeBytes());
+        assertEquals(3, response.getTotalParts());
+        verify(s3AsyncClient).uploadPartCopy(argThat((UploadPartCopyRequest request) -> request.partNumber() == 3
+                && "b.log".equals(request.sourceKey()) && ("bytes=0-" + (10 * MB - 1)).equals(request.copySourceRange())));
+        verify(s3AsyncClient).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+                request.multipartUpload().parts().size() == 3
+                        && "etag-3".equals(request.multipartUpload().parts().get(2).eTag())));
+        verify(uploadedFileService).saveFile(argThat((UploadedFileEntity file) ->
+                file.getStatus() == UploadStatus.COMPLETED && file.getSizeBytes() == 40 * MB
+                        && "text/plain".equals(file.getContentType())));
+    }
+
+    @Test
+    void testCompose_usesObjectSizeInsteadOfDeclaredSize() {
+        UploadedFileEntity declaredLarger = source("a.log", 30 * MB);
+        objectSizes.put("a.log", 12 * MB);
+        when(uploadedFileService.findByKeys(anyCollection(), eq("test-user"), eq(UploadStatus.COMPLETED)))
+                .thenReturn(List.of(declaredLarger, source("b.log", 10 * MB)));
+
+        ComposeResponseDto response = composeService.compose(
+                new ComposeRequestDto("merged.log", null, List.of("a.log", "b.log")));
+
+        assertEquals(22 * MB, response.getSizeBytes());
+        verify(s3AsyncClient).uploadPartCopy(argThat((UploadPartCopyRequest request) -> request.partNumber() == 1
+                && ("bytes=0-" + (12 * MB - 1)).equals(request.copySourceRange())));
+    }
+
+    @Test
+    void testCompose_missingSourceObject_throwsBeforeCreatingUpload() {
+        when(uploadedFileService.findByKeys(anyCollection(), eq("test-user"), eq(UploadStatus.COMPLETED)))
+                .thenReturn(List.of(source("a.log", 10 * MB), source("b.log", 10 * MB)));
+        when(s3AsyncClient.headObject(argThat((HeadObjectRequest request) -> "b.log".equals(request.key()))))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("no existe").build()));
+
+        ComposeRequestDto request = new ComposeRequestDto("merged.log", null, List.of("a.log", "b.log"));
+        assertThrows(InvalidComposeSourceException.class, () -> composeService.compose(request));
+        verify(s3AsyncClient, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testCompose_copyFailure_abortsUpload() {
+        when(uploadedFileService.findByKeys(anyCollection(), eq("test-user"), eq(UploadStatus.COMPLETED)))
+                .thenReturn(List.of(source("a.log", 10 * MB), source("b.log", 10 * MB)));
+        when(s3AsyncClient.uploadPartCopy(argThat((UploadPartCopyRequest request) -> request.partNumber() == 2)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("acceso denegado").statusCode(403).build()));
+
+        ComposeRequestDto request = new ComposeRequestDto("merged.log", null, List.of("a.log", "b.log"));
+        assertThrows(S3Exception.class, () -> composeService.compose(request));
+
+        verify(s3AsyncClient).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(uploadedFileService, never()).saveFile(any());
+    }
+
+    @Test
+    void testCompose_unknownSource_throwsBeforeCallingS3() {
+        when(uploadedFileService.findByKeys(anyCollection(), eq("test-user"), eq(UploadStatus.COMPLETED)))
+                .thenReturn(List.of(source("a.log", 10 * MB)));
+
+        ComposeRequestDto request = new ComposeRequestDto("merged.log", null, List.of("a.log", "otro.log"));
+        assertThrows(InvalidComposeSourceException.class, () -> composeService.compose(request));
+        verifyNoInteractions(s3AsyncClient);
+    }
+
+    private UploadedFileEntity source(String key, long sizeBytes) {
+        objectSizes.putIfAbsent(key, sizeBytes);
+        return sourceFile(key, sizeBytes);
+    }
+
+    private static ComposeServiceImpl.SourceObject sourceObject(String key, long sizeBytes) {
+        return new ComposeServiceImpl.SourceObject(sourceFile(key, sizeBytes), sizeBytes);
+    }
+
+    private static UploadedFileEntity sourceFile(String key, long sizeBytes) {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setS3Key(key);
+        file.setBucketName("test-bucket");
+        file.setSizeBytes(sizeBytes);
+        file.setContentType("text/plain");
+        file.setStatus(UploadStatus.COMPLETED);
+        file.setUploadedBy("test-user");
+        return file;
+    }
+}
@@ -0,0 +1,253 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.CompleteUploadRequestDto;
+import com.drv.filestorage.common.dto.CompletedPartRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadRequestDto;
+import com.drv.filestorage.common.dto.MultipartUploadResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.config.ParameterStoreService;
+import com.drv.filestorage.exception.NoUploadedPartsException;
+import com.drv.filestorage.service.UploadedFileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FilestorageAsyncServiceImplTest {
+
+    private S3AsyncClient s3AsyncClient;
+    private S3Presigner s3Presigner;
+    private ParameterStoreService parameterStoreService;
+    private UploadedFileService uploadedFileService;
+    private ThreadPoolTaskExecutor uploadTaskExecutor;
+    private FilestorageAsyncServiceImpl filestorageAsyncService;
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        s3Presigner = mock(S3Presigner.class);
+        parameterStoreService = mock(ParameterStoreService.class);
+        uploadedFileService = mock(UploadedFileService.class);
+
+        PartSizePlanner partSizePlanner = new PartSizePlanner();
+        TestUtils.setField(partSizePlanner, "partSizeMegaBytes", 5L);
+        TestUtils.setField(partSizePlanner, "minPartSizeMegaBytes", 5L);
+        TestUtils.setField(partSizePlanner, "maxPartSizeMegaBytes", 5120L);
+        TestUtils.setField(partSizePlanner, "targetMinParts", 16);
+        TestUtils.setField(partSizePlanner, "targetMaxParts", 1000);
+        TestUtils.setField(partSizePlanner, "targetPartSeconds", 30);
+
+        FilestorageServiceImpl filestorageService = new FilestorageServiceImpl(
+                mock(S3Client.class),
+                s3Presigner,
+                parameterStoreService,
+                uploadedFileService,
+                new ForkJoinPool(2),
+                new PartUrlSigner(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret"))),
+                partSizePlanner,
+                new PresignedUrlCache(),
+                new CompletionCoalescer(),
+                mock(PartProgressCleaner.class)
+        );
+        TestUtils.setField(filestorageService, "bucketNameParam", "test-bucket-param");
+        TestUtils.setField(filestorageService, "presignDurationMinutes", 15);
+        TestUtils.setField(filestorageService, "parallelPresignThreshold", 64);
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+
+        uploadTaskExecutor = new ThreadPoolTaskExecutor();
+        uploadTaskExecutor.setCorePoolSize(2);
+        uploadTaskExecutor.initialize();
+
+        filestorageAsyncService = new FilestorageAsyncServiceImpl(s3AsyncClient, filestorageService, partSizePlanner, uploadTaskExecutor,
+                new CompletionCoalescer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadTaskExecutor.shutdown();
+    }
+
+    @Test
+    void testCreateMultipartUpload_savesMetadataAndSignsParts() {
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("upload-123").build()));
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 10 * 1024 * 1024L, "text/plain", null, null);
+        MultipartUploadResponseDto response = filestorageAsyncService.createMultipartUpload(requestDto).join();
+
+        assertEquals("upload-123", response.getUploadId());
+        assertEquals(2, response.getUrls().size());
+        assertTrue(response.getKey().startsWith("test-user/"));
+        verify(uploadedFileService).registerFile(argThat((UploadedFileEntity file) ->
+                "test-user".equals(file.getUploadedBy()) && "upload-123".equals(file.getUploadId())));
+    }
+
+    @Test
+    void testCompleteMultipartUpload_completesAndUpdatesStatus() {
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class))).thenReturn(CompletableFuture.completedFuture(uploadedParts()));
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        filestorageAsyncService.completeMultipartUpload(buildCompleteRequest()).join();
+
+        verify(s3AsyncClient).listParts(argThat((ListPartsRequest request) -> request.maxParts() == 1));
+        verify(s3AsyncClient).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETED);
+    }
+
+    @Test
+    void testCompleteMultipartUpload_withoutParts_failsWithNoUploadedParts() {
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("no existe").build()));
+        mockObjectMissing();
+
+        CompletableFuture<Void> result = filestorageAsyncService.completeMultipartUpload(buildCompleteRequest());
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(NoUploadedPartsException.class, exception.getCause());
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verifyNoInteractions(uploadedFileService);
+    }
+
+    @Test
+    void testCompleteMultipartUpload_emptyPartList_failsWithNoUploadedParts() {
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(ListPartsResponse.builder().build()));
+        mockObjectMissing();
+
+        CompletableFuture<Void> result = filestorageAsyncService.completeMultipartUpload(buildCompleteRequest());
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(NoUploadedPartsException.class, exception.getCause());
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testCompleteMultipartUpload_listPartsThrottled_propagatesS3Error() {
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                S3Exception.builder().message("SlowDown").statusCode(503).build()));
+
+        CompletableFuture<Void> result = filestorageAsyncService.completeMultipartUpload(buildCompleteRequest());
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(S3Exception.class, exception.getCause());
+        assertEquals(503, ((S3Exception) exception.getCause()).statusCode());
+        verify(s3AsyncClient, never()).headObject(any(HeadObjectRequest.class));
+        verifyNoInteractions(uploadedFileService);
+    }
+
+    @Test
+    void testCompleteMultipartUpload_uploadGoneButObjectExists_marksCompleted() {
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("no existe").build()));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().build()));
+
+        filestorageAsyncService.completeMultipartUpload(buildCompleteRequest()).orTimeout(5, TimeUnit.SECONDS).join();
+
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3AsyncClient).headObject(argThat((HeadObjectRequest request) ->
+                "test-bucket".equals(request.bucket()) && "test-key".equals(request.key())));
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETED);
+    }
+
+    @Test
+    void testCompleteMultipartUpload_completeFailsWithNoSuchUploadButObjectExists_marksCompletedWithChecksum() {
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class))).thenReturn(CompletableFuture.completedFuture(uploadedParts()));
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("no existe").build()));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().checksumCRC32C("hDqJ7w==-2").build()));
+
+        filestorageAsyncService.completeMultipartUpload(buildCompleteRequest()).orTimeout(5, TimeUnit.SECONDS).join();
+
+        verify(uploadedFileService).completeWithChecksum("upload-123", "hDqJ7w==-2");
+    }
+
+    @Test
+    void testCompleteMultipartUpload_concurrentDuplicates_completeOnce() {
+        CompletableFuture<ListPartsResponse> listParts = new CompletableFuture<>();
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class))).thenReturn(listParts);
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        CompletableFuture<Void> first = filestorageAsyncService.completeMultipartUpload(buildCompleteRequest());
+        CompletableFuture<Void> duplicate = filestorageAsyncService.completeMultipartUpload(buildCompleteRequest());
+        listParts.complete(uploadedParts());
+
+        first.join();
+        duplicate.join();
+        verify(s3AsyncClient).listParts(any(ListPartsRequest.class));
+        verify(s3AsyncClient).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETED);
+    }
+
+    @Test
+    void testCompleteMultipartUpload_rejectedByTaskExecutor_failsInsteadOfHanging() {
+        CompletableFuture<CompleteMultipartUploadResponse> completion = new CompletableFuture<>();
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class))).thenReturn(CompletableFuture.completedFuture(uploadedParts()));
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenReturn(completion);
+
+        CompletableFuture<Void> result = filestorageAsyncService.completeMultipartUpload(buildCompleteRequest());
+        uploadTaskExecutor.shutdown();
+        completion.complete(CompleteMultipartUploadResponse.builder().build());
+
+        CompletionException exception = assertThrows(CompletionException.class, result.orTimeout(5, TimeUnit.SECONDS)::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        verify(uploadedFileService, never()).transition(anyString(), any());
+    }
+
+    private static ListPartsResponse uploadedParts() {
+        return ListPartsResponse.builder().parts(Part.builder().partNumber(1).build()).build();
+    }
+
+    private void mockObjectMissing() {
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("no existe").build()));
+    }
+
+    private CompleteUploadRequestDto buildCompleteRequest() {
+        CompleteUploadRequestDto request = new CompleteUploadRequestDto();
+        request.setKey("test-key");
+        request.setUploadId("upload-123");
+        CompletedPartRequestDto part = new CompletedPartRequestDto();
+        part.setPartNumber(1);
+        part.setETag("etag-1");
+        request.setParts(List.of(part));
+        return request;
+    }
+
+    private void mockPresigner() {
+        when(s3Presigner.presignUploadPart(any(UploadPartPresignRequest.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartPresignRequest presignReq = invocation.getArgument(0);
+                    PresignedUploadPartRequest presigned = mock(PresignedUploadPartRequest.class);
+                    when(presigned.url()).thenReturn(
+                            URI.create("https://s3.amazonaws.com/fake-url/part" + presignReq.uploadPartRequest().partNumber()).toURL());
+                    return presigned;
+                });
+    }
+}
@@ -2,21 +2,43 @@ package com.drv.filestorage.service.impl;
 
 import com.drv.filestorage.TestUtils;
 import com.drv.filestorage.common.dto.*;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
 import com.drv.filestorage.config.ParameterStoreService;
+import com.drv.filestorage.exception.ChecksumMismatchException;
+import com.drv.filestorage.exception.InvalidPartRangeException;
+import com.drv.filestorage.exception.NoUploadedPartsException;
+import com.drv.filestorage.exception.UploadNotFoundException;
+import com.drv.filestorage.exception.UploadPartsMismatchException;
 import com.drv.filestorage.service.UploadedFileService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.paginators.ListPartsIterable;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
 import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,9 +57,17 @@ class FilestorageServiceImplTest {
     @Mock
     private UploadedFileService uploadedFileService;
 
+    @Mock
+    private PartProgressCleaner partProgressCleaner;
+
     @InjectMocks
     private FilestorageServiceImpl filestorageService;
 
+    private final ForkJoinPool presignForkJoinPool = new ForkJoinPool(4);
+    private final PartSizePlanner partSizePlanner = new PartSizePlanner();
+    private final PresignedUrlCache presignedUrlCache = new PresignedUrlCache();
+    private final CompletionCoalescer completionCoalescer = new CompletionCoalescer();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -47,12 +77,25 @@ class FilestorageServiceImplTest {
                 s3Client,
                 s3Presigner,
                 parameterStoreService,
-                uploadedFileService
+                uploadedFileService,
+                presignForkJoinPool,
+                new PartUrlSigner(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret"))),
+                partSizePlanner,
+                presignedUrlCache,
+                completionCoalescer,
+                partProgressCleaner
         );
         // Usar reflexión para inyectar los valores de las propiedades @Value
         TestUtils.setField(filestorageService, "bucketNameParam", "test-bucket-param");
         TestUtils.setField(filestorageService, "presignDurationMinutes", 15);
-        TestUtils.setField(filestorageService, "partSizeMegaBytes", 5);
+        TestUtils.setField(partSizePlanner, "partSizeMegaBytes", 5L);
+        TestUtils.setField(partSizePlanner, "minPartSizeMegaBytes", 5L);
+        TestUtils.setField(partSizePlanner, "maxPartSizeMegaBytes", 5120L);
+        TestUtils.setField(partSizePlanner, "targetMinParts", 16);
+        TestUtils.setField(partSizePlanner, "targetMaxParts", 1000);
+        TestUtils.setField(partSizePlanner, "targetPartSeconds", 30);
+        TestUtils.setField(filestorageService, "maxPartWindow", 1000);
+        TestUtils.setField(filestorageService, "parallelPresignThreshold", 64);
     }
 
     @Test
@@ -73,18 +116,7 @@ class FilestorageServiceImplTest {
                         .uploadId(uploadId)
                         .build());
 
-        when(s3Presigner.presignUploadPart(any(UploadPartPresignRequest.class)))
-                .thenAnswer(invocation -> {
-                    UploadPartPresignRequest presignReq = invocation.getArgument(0);
-                    int partNumber = presignReq.uploadPartRequest().partNumber();
-
-                    PresignedUploadPartRequest mockPresignedRequest = mock(PresignedUploadPartRequest.class);
-                    when(mockPresignedRequest.url()).thenReturn(
-                            URI.create("https://s3.amazonaws.com/fake-url/part" + partNumber).toURL()
-                    );
-
-                    return mockPresignedRequest;
-                });
+        mockPresigner();
 
 
         // Simular autenticación
@@ -96,6 +128,7 @@ class FilestorageServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals(uploadId, response.getUploadId());
+        assertEquals(2, response.getTotalParts());
         assertEquals(2, response.getUrls().size());
 
         PartInfoResponseDto part1 = response.getUrls().get(0);
@@ -103,6 +136,214 @@ class FilestorageServiceImplTest {
         assertTrue(part1.getPresignedUrl().contains("part1"));
     }
 
+    @Test
+    void testCreateMultipartUpload_withInitialWindow_signsOnlyFirstParts() {
+        TestUtils.setField(filestorageService, "initialPartWindow", 3);
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-123").build());
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 50 * 1024 * 1024L, "text/plain", null, null);
+        MultipartUploadResponseDto response = filestorageService.createMultipartUpload(requestDto);
+
+        assertEquals(10, response.getTotalParts());
+        assertEquals(5 * 1024 * 1024L, response.getPartSizeBytes());
+        assertEquals(3, response.getUrls().size());
+        verify(s3Presigner, times(3)).presignUploadPart(any(UploadPartPresignRequest.class));
+    }
+
+    @Test
+    void testCreateCompactMultipartUpload_returnsTemplateAndSignatures() {
+        TestUtils.setField(filestorageService, "fastPartSigner", true);
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-123").build());
+        TestUtils.mockAuthentication("test-user");
+
+        try (S3Presigner realPresigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret")))
+                .build()) {
+            when(s3Presigner.presignUploadPart(any(UploadPartPresignRequest.class)))
+                    .thenAnswer(invocation -> realPresigner.presignUploadPart((UploadPartPresignRequest) invocation.getArgument(0)));
+
+            MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 50 * 1024 * 1024L, "text/plain", null, null);
+            MultipartUploadResponseDto response = filestorageService.createCompactMultipartUpload(requestDto);
+
+            assertNull(response.getUrls());
+            assertTrue(response.getUrlTemplate().contains("partNumber={partNumber}"));
+            assertTrue(response.getUrlTemplate().contains("X-Amz-Signature={signature}"));
+            byte[] signatures = Base64.getDecoder().decode(response.getSignatures());
+            assertEquals(10 * 32, signatures.length);
+
+            // La firma de la parte 1 coincide con la URL de referencia generada por S3Presigner
+            String firstUrl = response.getUrlTemplate()
+                    .replace("{partNumber}", "1")
+                    .replace("{signature}", HexFormat.of().formatHex(signatures, 0, 32));
+            verify(s3Presigner, times(1)).presignUploadPart(any(UploadPartPresignRequest.class));
+            assertTrue(firstUrl.startsWith("https://test-bucket."));
+        }
+    }
+
+    @Test
+    void testCreateCompactMultipartUpload_withoutTemplate_fallsBackToUrlList() {
+        TestUtils.setField(filestorageService, "fastPartSigner", true);
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-123").build());
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 50 * 1024 * 1024L, "text/plain", null, null);
+        MultipartUploadResponseDto response = filestorageService.createCompactMultipartUpload(requestDto);
+
+        assertNull(response.getUrlTemplate());
+        assertNull(response.getSignatures());
+        assertEquals(10, response.getUrls().size());
+    }
+
+    @Test
+    void testStreamInitialPartUrls_deliversChunksInOrder() {
+        TestUtils.setField(filestorageService, "streamChunkParts", 4);
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        mockPresigner();
+
+        List<List<PartInfoResponseDto>> chunks = new ArrayList<>();
+        filestorageService.streamInitialPartUrls(
+                new MultipartUploadResponseDto("test-key", "upload-123", 10, 5 * 1024 * 1024L, null), chunks::add);
+
+        assertEquals(3, chunks.size());
+        assertEquals(List.of(4, 4, 2), chunks.stream().map(List::size).toList());
+        assertEquals(5, chunks.get(1).get(0).getPartNumber());
+        assertEquals(10, chunks.get(2).get(1).getPartNumber());
+    }
+
+    @Test
+    void testGeneratePartUrls_returnsRequestedWindow() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadResponseDto response = filestorageService.generatePartUrls(
+                new PartUrlsRequestDto("test-key", "upload-123", 4, 20));
+
+        assertEquals(10, response.getTotalParts());
+        assertEquals(7, response.getUrls().size());
+        assertEquals(4, response.getUrls().get(0).getPartNumber());
+        assertTrue(response.getUrls().get(6).getPresignedUrl().contains("part10"));
+    }
+
+    @Test
+    void testGeneratePartUrls_parallelPresign_keepsPartOrder() {
+        TestUtils.setField(filestorageService, "parallelPresignThreshold", 2);
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadResponseDto response = filestorageService.generatePartUrls(
+                new PartUrlsRequestDto("test-key", "upload-123", 1, 10));
+
+        assertEquals(10, response.getUrls().size());
+        for (int i = 0; i < 10; i++) {
+            PartInfoResponseDto part = response.getUrls().get(i);
+            assertEquals(i + 1, part.getPartNumber());
+            assertTrue(part.getPresignedUrl().endsWith("part" + (i + 1)));
+        }
+        verify(s3Presigner, times(10)).presignUploadPart(any(UploadPartPresignRequest.class));
+    }
+
+    @Test
+    void testGeneratePartUrls_fastSigner_signsFromPresignerTemplate() {
+        TestUtils.setField(filestorageService, "fastPartSigner", true);
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        TestUtils.mockAuthentication("test-user");
+
+        AwsBasicCredentials credentials = AwsBasicCredentials.create("AKIDEXAMPLE", "secret");
+        try (S3Presigner realPresigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .build()) {
+            when(s3Presigner.presignUploadPart(any(UploadPartPresignRequest.class)))
+                    .thenAnswer(invocation -> realPresigner.presignUploadPart((UploadPartPresignRequest) invocation.getArgument(0)));
+
+            MultipartUploadResponseDto response = filestorageService.generatePartUrls(
+                    new PartUrlsRequestDto("test-key", "upload-123", 1, 10));
+
+            assertEquals(10, response.getUrls().size());
+            assertTrue(response.getUrls().get(9).getPresignedUrl().contains("partNumber=10"));
+            assertTrue(response.getUrls().get(9).getPresignedUrl().contains("X-Amz-Signature="));
+            // Solo la parte de referencia pasa por S3Presigner
+            verify(s3Presigner, times(1)).presignUploadPart(any(UploadPartPresignRequest.class));
+        }
+    }
+
+    @Test
+    void testGeneratePartUrls_fastSignerWithoutTemplate_fallsBackToPresigner() {
+        TestUtils.setField(filestorageService, "fastPartSigner", true);
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadResponseDto response = filestorageService.generatePartUrls(
+                new PartUrlsRequestDto("test-key", "upload-123", 1, 5));
+
+        assertEquals(5, response.getUrls().size());
+        verify(s3Presigner, times(5)).presignUploadPart(any(UploadPartPresignRequest.class));
+    }
+
+    @Test
+    void testGeneratePartUrls_cachedWindow_reusesUrlsAndSignsOnlyMissingParts() {
+        TestUtils.setField(presignedUrlCache, "maxEntries", 100);
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        filestorageService.generatePartUrls(new PartUrlsRequestDto("test-key", "upload-123", 1, 5));
+        MultipartUploadResponseDto response = filestorageService.generatePartUrls(
+                new PartUrlsRequestDto("test-key", "upload-123", 3, 7));
+
+        assertEquals(5, response.getUrls().size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 3, response.getUrls().get(i).getPartNumber());
+            assertTrue(response.getUrls().get(i).getPresignedUrl().endsWith("part" + (i + 3)));
+        }
+        // Las partes 3 a 5 salen de la cache, solo se firman la 6 y la 7
+        verify(s3Presigner, times(7)).presignUploadPart(any(UploadPartPresignRequest.class));
+    }
+
+    @Test
+    void testGeneratePresignedUrls_initiationAndStreaming_doNotFillCache() {
+        TestUtils.setField(presignedUrlCache, "maxEntries", 100);
+        mockPresigner();
+
+        filestorageService.generatePresignedUrls("test-bucket", "test-key", "upload-123", 1, 5);
+
+        assertTrue(presignedUrlCache.getAll("upload-123", 1, 5).isEmpty());
+    }
+
+    @Test
+    void testGeneratePartUrls_otherUser_throwsNotFound() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("other-user")));
+        TestUtils.mockAuthentication("test-user");
+
+        PartUrlsRequestDto request = new PartUrlsRequestDto("test-key", "upload-123", 1, 5);
+        assertThrows(UploadNotFoundException.class, () -> filestorageService.generatePartUrls(request));
+        verifyNoInteractions(s3Presigner);
+    }
+
+    @Test
+    void testGeneratePartUrls_windowTooLarge_throwsInvalidRange() {
+        TestUtils.setField(filestorageService, "maxPartWindow", 2);
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        TestUtils.mockAuthentication("test-user");
+
+        PartUrlsRequestDto request = new PartUrlsRequestDto("test-key", "upload-123", 1, 5);
+        assertThrows(InvalidPartRangeException.class, () -> filestorageService.generatePartUrls(request));
+        verifyNoInteractions(s3Presigner);
+    }
+
     @Test
     void testCompleteMultipartUpload_executesSuccessfully() {
         // Arrange
@@ -132,6 +373,323 @@ class FilestorageServiceImplTest {
 
         // Assert
         verify(s3Client, times(1)).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
-        verify(uploadedFileService).updateStatus("upload-123", "completed");
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETED);
+        verify(partProgressCleaner).discard("upload-123");
+    }
+
+    @Test
+    void testCompleteMultipartUpload_retryAfterCompletion_doesNotCallS3Again() {
+        TestUtils.setField(completionCoalescer, "completedCacheSeconds", 300L);
+        TestUtils.setField(completionCoalescer, "completedCacheMaxEntries", 100);
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.listParts(any(ListPartsRequest.class))).thenReturn(ListPartsResponse.builder().build());
+
+        CompleteUploadRequestDto request = new CompleteUploadRequestDto();
+        request.setKey("test-key");
+        request.setUploadId("upload-123");
+        CompletedPartRequestDto part = new CompletedPartRequestDto();
+        part.setPartNumber(1);
+        part.setETag("etag-1");
+        request.setParts(List.of(part));
+
+        filestorageService.completeMultipartUpload(request);
+        filestorageService.completeMultipartUpload(request);
+
+        verify(s3Client, times(1)).listParts(any(ListPartsRequest.class));
+        verify(s3Client, times(1)).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(uploadedFileService, times(1)).transition("upload-123", UploadStatus.COMPLETED);
+    }
+
+    @Test
+    void testCreateMultipartUpload_withCrc32c_initiatesAndSignsWithChecksum() {
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-123").build());
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 10 * 1024 * 1024L, "text/plain", null, null);
+        requestDto.setChecksumAlgorithm("CRC32C");
+        MultipartUploadResponseDto response = filestorageService.createMultipartUpload(requestDto);
+
+        assertEquals("CRC32C", response.getChecksumAlgorithm());
+        verify(s3Client).createMultipartUpload(argThat((CreateMultipartUploadRequest request) ->
+                request.checksumAlgorithm() == ChecksumAlgorithm.CRC32_C));
+        // Dos partes mas la firma de la parte 1 de la que se leen los headers firmados
+        verify(s3Presigner, times(3)).presignUploadPart(argThat((UploadPartPresignRequest request) ->
+                request.uploadPartRequest().checksumAlgorithm() == ChecksumAlgorithm.CRC32_C));
+        verify(uploadedFileService).registerFile(argThat((UploadedFileEntity file) -> "CRC32C".equals(file.getChecksumAlgorithm())));
+    }
+
+    @Test
+    void testCreateMultipartUpload_withCrc32c_returnsHeadersSignedInTheUrls() {
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-123").build());
+        TestUtils.mockAuthentication("test-user");
+
+        try (S3Presigner realPresigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret")))
+                .build()) {
+            when(s3Presigner.presignUploadPart(any(UploadPartPresignRequest.class)))
+                    .thenAnswer(invocation -> realPresigner.presignUploadPart((UploadPartPresignRequest) invocation.getArgument(0)));
+
+            MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 10 * 1024 * 1024L, "text/plain", null, null);
+            requestDto.setChecksumAlgorithm("CRC32C");
+            MultipartUploadResponseDto response = filestorageService.createMultipartUpload(requestDto);
+
+            // Todo header firmado en la URL, salvo host, debe estar en partHeaders con su valor
+            String url = response.getUrls().get(0).getPresignedUrl();
+            String signedHeaders = URLDecoder.decode(url.replaceAll(".*[?&]X-Amz-SignedHeaders=([^&]*).*", "$1"),
+                    StandardCharsets.UTF_8);
+            Set<String> expected = Arrays.stream(signedHeaders.split(";"))
+                    .filter(header -> !"host".equals(header))
+                    .collect(Collectors.toSet());
+            assertTrue(expected.contains("x-amz-sdk-checksum-algorithm"));
+            assertEquals(expected, response.getPartHeaders().keySet());
+            assertEquals("CRC32C", response.getPartHeaders().get("x-amz-sdk-checksum-algorithm"));
+        }
+    }
+
+    @Test
+    void testCreateMultipartUpload_withoutChecksum_returnsNoPartHeaders() {
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-123").build());
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        MultipartUploadRequestDto requestDto = new MultipartUploadRequestDto("archivo.txt", 10 * 1024 * 1024L, "text/plain", null, null);
+        MultipartUploadResponseDto response = filestorageService.createMultipartUpload(requestDto);
+
+        assertNull(response.getPartHeaders());
+        verify(s3Presigner, times(2)).presignUploadPart(any(UploadPartPresignRequest.class));
+    }
+
+    @Test
+    void testCompleteMultipartUpload_withCrc32c_verifiesAndStoresChecksum() {
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.listParts(any(ListPartsRequest.class))).thenReturn(ListPartsResponse.builder().build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().checksumCRC32C("hDqJ7w==-2").build());
+
+        filestorageService.completeMultipartUpload(buildChecksumCompleteRequest());
+
+        verify(s3Client).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+                "SqQ1XQ==".equals(request.multipartUpload().parts().get(1).checksumCRC32C())));
+        verify(uploadedFileService).completeWithChecksum("upload-123", "hDqJ7w==-2");
+        verify(uploadedFileService, never()).transition(anyString(), any());
+    }
+
+    @Test
+    void testCompleteMultipartUpload_checksumMismatch_deletesObjectAndMarksFailed() {
+        when(parameterStoreService.getParameter("test-bucket-param")).thenReturn("test-bucket");
+        when(s3Client.listParts(any(ListPartsRequest.class))).thenReturn(ListPartsResponse.builder().build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().checksumCRC32C("AAAAAA==-2").build());
+
+        CompleteUploadRequestDto request = buildChecksumCompleteRequest();
+        assertThrows(ChecksumMismatchException.class, () -> filestorageService.completeMultipartUpload(request));
+        verify(uploadedFileService, never()).completeWithChecksum(anyString(), anyString());
+        verify(uploadedFileService, never()).transition(anyString(), eq(UploadStatus.COMPLETED));
+        verify(s3Client).deleteObject(argThat((DeleteObjectRequest delete) ->
+                "test-bucket".equals(delete.bucket()) && request.getKey().equals(delete.key())));
+        verify(uploadedFileService).transition("upload-123", UploadStatus.FAILED);
+        verify(partProgressCleaner).discard("upload-123");
+    }
+
+    @Test
+    void testCompleteMultipartUploadFromS3_pagesAllPartsAndCompletes() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockListParts(IntStream.rangeClosed(1, 10).boxed().toList(), 5 * 1024 * 1024L);
+        TestUtils.mockAuthentication("test-user");
+
+        filestorageService.completeMultipartUploadFromS3(new UploadReferenceRequestDto("test-key", "upload-123"));
+
+        // 10 partes en paginas de 4: se consultan 3 paginas
+        verify(s3Client, times(3)).listParts(any(ListPartsRequest.class));
+        verify(s3Client).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+                request.multipartUpload().parts().size() == 10
+                        && request.multipartUpload().parts().get(9).partNumber() == 10
+                        && "etag-10".equals(request.multipartUpload().parts().get(9).eTag())));
+        verify(uploadedFileService).transition("upload-123", UploadStatus.COMPLETED);
+    }
+
+    @Test
+    void testCompleteMultipartUploadFromS3_missingPart_throwsMismatch() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockListParts(List.of(1, 2, 3, 5, 6, 7, 8, 9, 10), 5 * 1024 * 1024L);
+        TestUtils.mockAuthentication("test-user");
+
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("test-key", "upload-123");
+        UploadPartsMismatchException exception = assertThrows(UploadPartsMismatchException.class,
+                () -> filestorageService.completeMultipartUploadFromS3(request));
+        assertTrue(exception.getMessage().contains("parte 4"));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testCompleteMultipartUploadFromS3_wrongPartSize_throwsMismatch() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockListParts(IntStream.rangeClosed(1, 10).boxed().toList(), 4 * 1024 * 1024L);
+        TestUtils.mockAuthentication("test-user");
+
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("test-key", "upload-123");
+        assertThrows(UploadPartsMismatchException.class, () -> filestorageService.completeMultipartUploadFromS3(request));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testCompleteMultipartUploadFromS3_noParts_throwsNoUploadedParts() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockListParts(List.of(), 5 * 1024 * 1024L);
+        TestUtils.mockAuthentication("test-user");
+
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("test-key", "upload-123");
+        assertThrows(NoUploadedPartsException.class, () -> filestorageService.completeMultipartUploadFromS3(request));
+    }
+
+    @Test
+    void testCompleteMultipartUploadFromS3_uploadGoneButObjectExists_marksCompleted() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        when(s3Client.listPartsPaginator(any(ListPartsRequest.class)))
+                .thenAnswer(invocation -> new ListPartsIterable(s3Client, invocation.getArgument(0)));
+        when(s3Client.listParts(any(ListPartsRequest.class)))
+                .thenThrow(NoSuchUploadException.builder().message("no existe").build());
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(HeadObjectResponse.builder().checksumCRC32C("hDqJ7w==-2").build());
+        TestUtils.mockAuthentication("test-user");
+
+        filestorageService.completeMultipartUploadFromS3(new UploadReferenceRequestDto("test-key", "upload-123"));
+
+        // Una finalizacion anterior completo el objeto en S3 pero no actualizo la BD
+        verify(s3Client).headObject(argThat((HeadObjectRequest request) ->
+                "test-key".equals(request.key()) && request.checksumMode() == ChecksumMode.ENABLED));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(uploadedFileService).completeWithChecksum("upload-123", "hDqJ7w==-2");
+    }
+
+    @Test
+    void testCompleteMultipartUploadFromS3_uploadAndObjectGone_throwsNoUploadedParts() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        when(s3Client.listPartsPaginator(any(ListPartsRequest.class)))
+                .thenAnswer(invocation -> new ListPartsIterable(s3Client, invocation.getArgument(0)));
+        when(s3Client.listParts(any(ListPartsRequest.class)))
+                .thenThrow(NoSuchUploadException.builder().message("no existe").build());
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow(NoSuchKeyException.builder().message("no existe").build());
+        TestUtils.mockAuthentication("test-user");
+
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("test-key", "upload-123");
+        assertThrows(NoUploadedPartsException.class, () -> filestorageService.completeMultipartUploadFromS3(request));
+        verify(uploadedFileService, never()).transition(anyString(), any());
+    }
+
+    @Test
+    void testResumeMultipartUpload_returnsUrlsOnlyForMissingParts() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockListParts(List.of(1, 2, 3, 5, 6, 7, 8, 9), 5 * 1024 * 1024L);
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        ResumeUploadResponseDto response = filestorageService.resumeMultipartUpload(
+                new UploadReferenceRequestDto("test-key", "upload-123"));
+
+        assertEquals(10, response.getTotalParts());
+        assertEquals(8, response.getUploadedParts().size());
+        assertEquals("etag-9", response.getUploadedParts().get(7).getETag());
+        assertEquals(List.of(4, 10), response.getUrls().stream().map(PartInfoResponseDto::getPartNumber).toList());
+        verify(s3Presigner, times(2)).presignUploadPart(any(UploadPartPresignRequest.class));
+    }
+
+    @Test
+    void testResumeMultipartUpload_wrongPartSize_isTreatedAsMissing() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        mockListParts(IntStream.rangeClosed(1, 10).boxed().toList(), 4 * 1024 * 1024L);
+        mockPresigner();
+        TestUtils.mockAuthentication("test-user");
+
+        ResumeUploadResponseDto response = filestorageService.resumeMultipartUpload(
+                new UploadReferenceRequestDto("test-key", "upload-123"));
+
+        assertTrue(response.getUploadedParts().isEmpty());
+        assertEquals(10, response.getUrls().size());
+    }
+
+    @Test
+    void testResumeMultipartUpload_uploadGoneInS3_throwsNotFound() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload("test-user")));
+        when(s3Client.listPartsPaginator(any(ListPartsRequest.class)))
+                .thenAnswer(invocation -> new ListPartsIterable(s3Client, invocation.getArgument(0)));
+        when(s3Client.listParts(any(ListPartsRequest.class)))
+                .thenThrow(NoSuchUploadException.builder().message("no existe").build());
+        TestUtils.mockAuthentication("test-user");
+
+        UploadReferenceRequestDto request = new UploadReferenceRequestDto("test-key", "upload-123");
+        assertThrows(UploadNotFoundException.class, () -> filestorageService.resumeMultipartUpload(request));
+        verifyNoInteractions(s3Presigner);
+    }
+
+    /**
+     * Partes con el CRC32C de "parte-1" y "parte-2"; su checksum compuesto es hDqJ7w==-2
+     */
+    private CompleteUploadRequestDto buildChecksumCompleteRequest() {
+        CompleteUploadRequestDto request = new CompleteUploadRequestDto();
+        request.setKey("test-key");
+        request.setUploadId("upload-123");
+        request.setParts(List.of(
+                new CompletedPartRequestDto(2, "etag-2", "SqQ1XQ=="),
+                new CompletedPartRequestDto(1, "etag-1", "WfTGqQ==")));
+        return request;
+    }
+
+    /**
+     * Simula ListParts paginado de a 4 partes; todas las partes miden partSize
+     */
+    private void mockListParts(List<Integer> partNumbers, long partSize) {
+        when(s3Client.listPartsPaginator(any(ListPartsRequest.class)))
+                .thenAnswer(invocation -> new ListPartsIterable(s3Client, invocation.getArgument(0)));
+        when(s3Client.listParts(any(ListPartsRequest.class))).thenAnswer(invocation -> {
+            ListPartsRequest request = invocation.getArgument(0);
+            int marker = request.partNumberMarker() == null ? 0 : request.partNumberMarker();
+            List<Part> page = partNumbers.stream()
+                    .filter(partNumber -> partNumber > marker)
+                    .limit(4)
+                    .map(partNumber -> Part.builder().partNumber(partNumber).eTag("etag-" + partNumber).size(partSize).build())
+                    .toList();
+            boolean truncated = !page.isEmpty() && page.get(page.size() - 1).partNumber() < partNumbers.get(partNumbers.size() - 1);
+            return ListPartsResponse.builder()
+                    .parts(page)
+                    .isTruncated(truncated)
+                    .nextPartNumberMarker(page.isEmpty() ? null : page.get(page.size() - 1).partNumber())
+                    .build();
+        });
+    }
+
+    private void mockPresigner() {
+        when(s3Presigner.presignUploadPart(any(UploadPartPresignRequest.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartPresignRequest presignReq = invocation.getArgument(0);
+                    int partNumber = presignReq.uploadPartRequest().partNumber();
+
+                    PresignedUploadPartRequest mockPresignedRequest = mock(PresignedUploadPartRequest.class);
+                    when(mockPresignedRequest.url()).thenReturn(
+                            URI.create("https://s3.amazonaws.com/fake-url/part" + partNumber).toURL()
+                    );
+
+                    return mockPresignedRequest;
+                });
+    }
+
+    private UploadedFileEntity buildUpload(String owner) {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setS3Key("test-key");
+        file.setUploadId("upload-123");
+        file.setBucketName("test-bucket");
+        file.setSizeBytes(50 * 1024 * 1024L); // 10 partes de 5MB
+        file.setPartSizeBytes(5 * 1024 * 1024L);
+        file.setUploadedBy(owner);
+        return file;
     }
 }
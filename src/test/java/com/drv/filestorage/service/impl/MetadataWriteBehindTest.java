@@ -0,0 +1,207 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.repository.UploadedFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetadataWriteBehindTest {
+
+    @TempDir
+    Path tempDir;
+
+    private UploadedFileRepository uploadedFileRepository;
+    private MetadataWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        uploadedFileRepository = mock(UploadedFileRepository.class);
+        writeBehind = buildWriteBehind(2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        doReturn(List.of()).when(uploadedFileRepository).saveAll(anyList());
+        writeBehind.flushOnShutdown();
+    }
+
+    @Test
+    void testOffer_queuesRecordVisibleBeforeFlush() {
+        UploadedFileEntity file = buildUpload("upload-1");
+
+        assertTrue(writeBehind.offer(file));
+
+        assertSame(file, writeBehind.find("upload-1").orElseThrow());
+        assertEquals(1, writeBehind.pendingRecords());
+        verifyNoInteractions(uploadedFileRepository);
+    }
+
+    @Test
+    void testFlush_writesBatchesAndEmptiesJournal() throws IOException {
+        writeBehind.offer(buildUpload("upload-1"));
+        writeBehind.offer(buildUpload("upload-2"));
+        when(uploadedFileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        writeBehind.flush();
+
+        verify(uploadedFileRepository).saveAll(argThat((List<UploadedFileEntity> files) -> files.size() == 2));
+        assertEquals(0, writeBehind.pendingRecords());
+        assertTrue(writeBehind.find("upload-1").isEmpty());
+        assertEquals(0, Files.size(journalPath()));
+    }
+
+    @Test
+    void testOffer_fullQueue_returnsFalse() {
+        assertTrue(writeBehind.offer(buildUpload("upload-1")));
+        assertTrue(writeBehind.offer(buildUpload("upload-2")));
+
+        assertFalse(writeBehind.offer(buildUpload("upload-3")));
+        assertTrue(writeBehind.find("upload-3").isEmpty());
+    }
+
+    @Test
+    void testFlush_databaseFailure_keepsRecordsQueued() {
+        writeBehind.offer(buildUpload("upload-1"));
+        when(uploadedFileRepository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("BD no disponible"));
+
+        writeBehind.flush();
+
+        assertEquals(1, writeBehind.pendingRecords());
+        assertTrue(writeBehind.find("upload-1").isPresent());
+    }
+
+    @Test
+    void testFlush_rejectedRecord_isDeadLetteredAndOthersWritten() throws IOException {
+        writeBehind.offer(buildUpload("upload-1"));
+        writeBehind.offer(buildUpload("upload-2"));
+        when(uploadedFileRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<UploadedFileEntity> files = invocation.getArgument(0);
+            if (files.stream().anyMatch(file -> "upload-1".equals(file.getUploadId()))) {
+                throw new DataIntegrityViolationException("registro rechazado");
+            }
+            return files;
+        });
+
+        writeBehind.flush();
+
+        verify(uploadedFileRepository, times(3)).saveAll(anyList());
+        assertEquals(0, writeBehind.pendingRecords());
+        assertEquals(0, Files.size(journalPath()));
+        assertTrue(Files.readString(tempDir.resolve("metadata-journal.log.dead")).contains("upload-1"));
+        assertTrue(writeBehind.offer(buildUpload("upload-3")));
+    }
+
+    @Test
+    void testFlush_rotatedSegments_areDeletedOnceWritten() throws IOException {
+        writeBehind.flushOnShutdown();
+        writeBehind = buildWriteBehind(2, 1);
+        writeBehind.offer(buildUpload("upload-1"));
+        writeBehind.offer(buildUpload("upload-2"));
+        Path sealedSegment = tempDir.resolve("metadata-journal.log.000001");
+        assertTrue(Files.exists(sealedSegment));
+        when(uploadedFileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        writeBehind.flush();
+
+        assertFalse(Files.exists(sealedSegment));
+        assertEquals(0, Files.size(journalPath()));
+    }
+
+    @Test
+    void testStart_replaysRotatedSegments() throws IOException {
+        writeBehind.flushOnShutdown();
+        writeBehind = buildWriteBehind(3, 1);
+        writeBehind.offer(buildUpload("upload-1"));
+        writeBehind.offer(buildUpload("upload-2"));
+        writeBehind.offer(buildUpload("upload-3"));
+        when(uploadedFileRepository.findAllById(anyList())).thenReturn(List.of());
+
+        MetadataWriteBehind restarted = buildWriteBehind(3, 1);
+
+        assertEquals(3, restarted.pendingRecords());
+        assertFalse(Files.exists(tempDir.resolve("metadata-journal.log.000001")));
+        restarted.flushOnShutdown();
+    }
+
+    @Test
+    void testTransition_queuedRecord_appliesOnlyAllowedTransitions() {
+        writeBehind.offer(buildUpload("upload-1"));
+
+        assertEquals(Optional.of(true), writeBehind.transition("upload-1", UploadStatus.COMPLETED, "hDqJ7w==-2"));
+        assertEquals(Optional.of(false), writeBehind.transition("upload-1", UploadStatus.FAILED, null));
+        assertEquals(Optional.empty(), writeBehind.transition("upload-2", UploadStatus.COMPLETED, null));
+
+        UploadedFileEntity file = writeBehind.find("upload-1").orElseThrow();
+        assertEquals(UploadStatus.COMPLETED, file.getStatus());
+        assertEquals("hDqJ7w==-2", file.getChecksumCrc32c());
+    }
+
+    @Test
+    void testStart_replaysUnwrittenRecordsWithLatestStatus() throws IOException {
+        UploadedFileEntity written = buildUpload("upload-1");
+        writeBehind.offer(written);
+        writeBehind.offer(buildUpload("upload-2"));
+        writeBehind.transition("upload-2", UploadStatus.COMPLETED, null);
+        when(uploadedFileRepository.findAllById(anyList())).thenReturn(List.of(written));
+
+        // Simula una caida: otra instancia abre la misma bitacora sin haber escrito nada en BD
+        MetadataWriteBehind restarted = buildWriteBehind(2);
+
+        assertTrue(restarted.find("upload-1").isEmpty());
+        UploadedFileEntity recovered = restarted.find("upload-2").orElseThrow();
+        assertEquals(UploadStatus.COMPLETED, recovered.getStatus());
+        assertEquals("test-user", recovered.getUploadedBy());
+        assertTrue(recovered.isNew());
+        restarted.flushOnShutdown();
+    }
+
+    private MetadataWriteBehind buildWriteBehind(int queueCapacity) throws IOException {
+        return buildWriteBehind(queueCapacity, 10000);
+    }
+
+    private MetadataWriteBehind buildWriteBehind(int queueCapacity, int journalSegmentRecords) throws IOException {
+        MetadataWriteBehind instance = new MetadataWriteBehind(uploadedFileRepository, new SimpleMeterRegistry());
+        TestUtils.setField(instance, "enabled", true);
+        TestUtils.setField(instance, "queueCapacity", queueCapacity);
+        TestUtils.setField(instance, "batchSize", 500);
+        TestUtils.setField(instance, "offerTimeoutMs", 0L);
+        TestUtils.setField(instance, "journalPath", journalPath().toString());
+        TestUtils.setField(instance, "journalFsync", false);
+        TestUtils.setField(instance, "journalSegmentRecords", journalSegmentRecords);
+        instance.start();
+        return instance;
+    }
+
+    private Path journalPath() {
+        return tempDir.resolve("metadata-journal.log");
+    }
+
+    private UploadedFileEntity buildUpload(String uploadId) {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setFilename("archivo.txt");
+        file.setContentType("text/plain");
+        file.setS3Key("test-user/" + uploadId);
+        file.setUploadId(uploadId);
+        file.setBucketName("test-bucket");
+        file.setSizeBytes(10L);
+        file.setPartSizeBytes(5L);
+        file.setUploadedBy("test-user");
+        return file;
+    }
+}
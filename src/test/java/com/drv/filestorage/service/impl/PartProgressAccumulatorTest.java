@@ -0,0 +1,109 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.repository.PartProgressRepository.PartProgressRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartProgressAccumulatorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    private final PartProgressAccumulator accumulator = new PartProgressAccumulator();
+
+    @Test
+    void testRecord_samePartTwice_keepsLatestReport() {
+        accumulator.record("upload-1", List.of(row("upload-1", 1, "etag-a"), row("upload-1", 2, "etag-b")));
+        accumulator.record("upload-1", List.of(row("upload-1", 1, "etag-c")));
+
+        assertEquals(2, accumulator.pendingParts());
+        List<PartProgressRow> drained = accumulator.drain();
+
+        assertEquals(2, drained.size());
+        assertTrue(drained.contains(row("upload-1", 1, "etag-c")));
+        assertEquals(0, accumulator.pendingParts());
+        assertTrue(accumulator.drain().isEmpty());
+    }
+
+    @Test
+    void testRestore_doesNotOverrideNewerReports() {
+        accumulator.record("upload-1", List.of(row("upload-1", 1, "etag-old"), row("upload-1", 2, "etag-b")));
+        List<PartProgressRow> failed = accumulator.drain();
+        accumulator.record("upload-1", List.of(row("upload-1", 1, "etag-new")));
+
+        accumulator.restore(failed);
+
+        List<PartProgressRow> drained = accumulator.drain();
+        assertEquals(2, drained.size());
+        assertTrue(drained.contains(row("upload-1", 1, "etag-new")));
+        assertTrue(drained.contains(row("upload-1", 2, "etag-b")));
+    }
+
+    @Test
+    void testDiscard_removesOnlyThatUpload() {
+        accumulator.record("upload-1", List.of(row("upload-1", 1, "etag-a"), row("upload-1", 2, "etag-b")));
+        accumulator.record("upload-2", List.of(row("upload-2", 1, "etag-c")));
+
+        accumulator.discard("upload-1");
+        accumulator.discard("upload-desconocido");
+
+        assertEquals(1, accumulator.pendingParts());
+        assertEquals(List.of(row("upload-2", 1, "etag-c")), accumulator.drain());
+    }
+
+    @Test
+    void testDiscard_ignoresLateReportsAndRestores() {
+        accumulator.record("upload-1", List.of(row("upload-1", 1, "etag-a")));
+        List<PartProgressRow> failed = accumulator.drain();
+
+        accumulator.discard("upload-1");
+        accumulator.record("upload-1", List.of(row("upload-1", 2, "etag-b")));
+        accumulator.restore(failed);
+
+        assertTrue(accumulator.isDiscarded("upload-1"));
+        assertEquals(0, accumulator.pendingParts());
+        assertTrue(accumulator.drain().isEmpty());
+    }
+
+    @Test
+    void testPruneDiscarded_forgetsOnlyOlderUploads() {
+        accumulator.discard("upload-1");
+
+        accumulator.pruneDiscarded(Instant.now().minus(Duration.ofMinutes(10)));
+        assertTrue(accumulator.isDiscarded("upload-1"));
+
+        accumulator.pruneDiscarded(Instant.now().plus(Duration.ofMinutes(1)));
+        assertFalse(accumulator.isDiscarded("upload-1"));
+    }
+
+    @Test
+    void testRecord_concurrentUploads_drainsEveryPart() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int upload = 0; upload < 32; upload++) {
+            String uploadId = "upload-" + upload;
+            futures.add(executor.submit(() -> IntStream.rangeClosed(1, 100)
+                    .forEach(part -> accumulator.record(uploadId, List.of(row(uploadId, part, "etag-" + part))))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(3200, accumulator.pendingParts());
+        assertEquals(3200, accumulator.drain().size());
+    }
+
+    private static PartProgressRow row(String uploadId, int partNumber, String eTag) {
+        return new PartProgressRow(uploadId, partNumber, eTag, 5_242_880L, NOW);
+    }
+}
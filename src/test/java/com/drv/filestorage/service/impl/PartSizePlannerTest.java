@@ -0,0 +1,88 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartSizePlannerTest {
+
+    private static final long MB = 1024L * 1024;
+    private static final long GB = 1024 * MB;
+
+    private PartSizePlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new PartSizePlanner();
+        TestUtils.setField(planner, "partSizeMegaBytes", 100L);
+        TestUtils.setField(planner, "minPartSizeMegaBytes", 5L);
+        TestUtils.setField(planner, "maxPartSizeMegaBytes", 5120L);
+        TestUtils.setField(planner, "targetMinParts", 16);
+        TestUtils.setField(planner, "targetMaxParts", 1000);
+        TestUtils.setField(planner, "targetPartSeconds", 30);
+    }
+
+    @Test
+    void testPlan_withoutHints_usesConfiguredPartSize() {
+        PartSizePlanner.PartPlan plan = planner.plan(10 * GB, null, null);
+
+        assertEquals(100 * MB, plan.partSizeBytes());
+        assertEquals(103, plan.partCount());
+    }
+
+    @Test
+    void testPlan_midSizeFile_keepsEnoughPartsToParallelize() {
+        PartSizePlanner.PartPlan plan = planner.plan(800 * MB, null, null);
+
+        assertEquals(50 * MB, plan.partSizeBytes());
+        assertEquals(16, plan.partCount());
+    }
+
+    @Test
+    void testPlan_hugeFile_growsPartSizeToStayInSweetSpot() {
+        PartSizePlanner.PartPlan plan = planner.plan(1024 * GB, null, null);
+
+        assertTrue(plan.partCount() <= 1000);
+        assertEquals(0, plan.partSizeBytes() % MB);
+    }
+
+    @Test
+    void testPlan_maxObjectSize_staysUnderS3PartLimit() {
+        PartSizePlanner.PartPlan plan = planner.plan(5 * 1024 * GB, null, null);
+
+        assertTrue(plan.partCount() <= 10_000);
+        assertTrue(plan.partSizeBytes() <= 5 * GB);
+    }
+
+    @Test
+    void testPlan_parallelismHint_splitsIntoRoundsPerWorker() {
+        PartSizePlanner.PartPlan plan = planner.plan(3200 * MB, null, 8);
+
+        assertEquals(100 * MB, plan.partSizeBytes());
+        assertEquals(32, plan.partCount());
+    }
+
+    @Test
+    void testPlan_bandwidthHint_sizesPartsByTargetDuration() {
+        // 8 Mbps -> 1 MB/s -> 30 MB por parte, redondeado a MiB
+        PartSizePlanner.PartPlan plan = planner.plan(10 * GB, 8, null);
+
+        assertEquals(29 * MB, plan.partSizeBytes());
+    }
+
+    @Test
+    void testPlan_smallFile_respectsS3MinimumPartSize() {
+        PartSizePlanner.PartPlan plan = planner.plan(6 * MB, null, 64);
+
+        assertEquals(5 * MB, plan.partSizeBytes());
+        assertEquals(2, plan.partCount());
+    }
+
+    @Test
+    void testPartCount_legacyRowWithoutPartSize_usesConfiguredSize() {
+        assertEquals(3, planner.partCount(250 * MB, null));
+        assertEquals(5, planner.partCount(250 * MB, 50 * MB));
+    }
+}
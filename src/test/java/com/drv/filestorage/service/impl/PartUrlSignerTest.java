@@ -0,0 +1,117 @@
+package com.drv.filestorage.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el firmador rapido produzca exactamente las mismas URLs que S3Presigner
+ */
+class PartUrlSignerTest {
+
+    private static final String BUCKET = "test-bucket";
+    private static final String UPLOAD_ID = "VXBsb2FkSUQ+MTIz/NDU2Nzg5MA==";
+
+    private S3Presigner presigner;
+
+    @AfterEach
+    void tearDown() {
+        if (presigner != null) {
+            presigner.close();
+        }
+    }
+
+    @Test
+    void testSign_samePart_matchesS3Presigner() {
+        PartUrlSigner signer = buildSigner(AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        PresignedUploadPartRequest sample = presign("user123/2025/06/uuid_archivo.bin", 7);
+
+        PartUrlSigner.UploadSigningContext context = signer.prepare(sample).orElseThrow();
+
+        assertEquals(sample.url().toString(), context.sign(7));
+    }
+
+    @Test
+    void testSign_otherParts_matchS3Presigner() {
+        PartUrlSigner signer = buildSigner(AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        String key = "user123/2025/06/uuid_archivo.bin";
+        PresignedUploadPartRequest sample = presign(key, 1);
+        PartUrlSigner.UploadSigningContext context = signer.prepare(sample).orElseThrow();
+
+        int compared = 0;
+        for (int partNumber = 2; partNumber <= 200; partNumber++) {
+            String expected = presign(key, partNumber).url().toString();
+            // S3Presigner toma la hora actual: solo se comparan las firmas generadas en el mismo segundo
+            if (amzDate(expected).equals(amzDate(sample.url().toString()))) {
+                assertEquals(expected, context.sign(partNumber));
+                compared++;
+            }
+        }
+        assertTrue(compared > 0);
+    }
+
+    @Test
+    void testSign_sessionCredentialsAndEncodedKey_matchS3Presigner() {
+        PartUrlSigner signer = buildSigner(AwsSessionCredentials.create(
+                "ASIAEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY", "token/with+special=chars"));
+        PresignedUploadPartRequest sample = presign("user name/2025/06/uuid_mi archivo+v2.bin", 10_000);
+
+        PartUrlSigner.UploadSigningContext context = signer.prepare(sample).orElseThrow();
+
+        assertTrue(sample.url().toString().contains("X-Amz-Security-Token="));
+        assertEquals(sample.url().toString(), context.sign(10_000));
+    }
+
+    @Test
+    void testPrepare_rotatedCredentials_returnsEmpty() {
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDOLD", "secret")))
+                .build();
+        PartUrlSigner signer = new PartUrlSigner(
+                StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDNEW", "secret")));
+
+        Optional<PartUrlSigner.UploadSigningContext> context = signer.prepare(presign("user/2025/06/a.bin", 1));
+
+        assertTrue(context.isEmpty());
+    }
+
+    private PartUrlSigner buildSigner(AwsCredentials credentials) {
+        StaticCredentialsProvider provider = StaticCredentialsProvider.create(credentials);
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(provider)
+                .build();
+        return new PartUrlSigner(provider);
+    }
+
+    private PresignedUploadPartRequest presign(String key, int partNumber) {
+        return presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(60))
+                .uploadPartRequest(UploadPartRequest.builder()
+                        .bucket(BUCKET)
+                        .key(key)
+                        .uploadId(UPLOAD_ID)
+                        .partNumber(partNumber)
+                        .build())
+                .build());
+    }
+
+    private static String amzDate(String url) {
+        int start = url.indexOf("X-Amz-Date=") + "X-Amz-Date=".length();
+        return url.substring(start, start + 16);
+    }
+}
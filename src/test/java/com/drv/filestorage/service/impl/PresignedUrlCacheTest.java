@@ -0,0 +1,87 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.PartInfoResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresignedUrlCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    private PresignedUrlCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PresignedUrlCache();
+        TestUtils.setField(cache, "maxEntries", 10);
+        TestUtils.setField(cache, "minRemainingSeconds", 300L);
+        TestUtils.setField(cache, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testGetAll_returnsOnlyCachedPartsOfRange() {
+        cache.putAll("upload-1", parts(1, 5), NOW.plusSeconds(3600));
+
+        Map<Integer, String> urls = cache.getAll("upload-1", 4, 8);
+
+        assertEquals(2, urls.size());
+        assertEquals("https://url/4", urls.get(4));
+        assertEquals("https://url/5", urls.get(5));
+        assertTrue(cache.getAll("upload-2", 1, 5).isEmpty());
+    }
+
+    @Test
+    void testGetAll_nearExpiry_isDiscarded() {
+        cache.putAll("upload-1", parts(1, 2), NOW.plusSeconds(120));
+
+        assertTrue(cache.getAll("upload-1", 1, 2).isEmpty());
+    }
+
+    @Test
+    void testPutAll_overCapacity_evictsLeastRecentlyUsed() {
+        cache.putAll("upload-1", parts(1, 4), NOW.plusSeconds(60));
+        cache.putAll("upload-2", parts(1, 5), NOW.plusSeconds(3600));
+        cache.getAll("upload-2", 1, 1);
+        cache.putAll("upload-3", parts(1, 8), NOW.plusSeconds(3600));
+
+        // Salen las menos usadas: todas las de upload-1 y las de upload-2 que no se leyeron, salvo la ultima
+        assertTrue(cache.getAll("upload-1", 1, 4).isEmpty());
+        assertEquals(Map.of(1, "https://url/1", 5, "https://url/5"), cache.getAll("upload-2", 1, 5));
+        assertEquals(8, cache.getAll("upload-3", 1, 8).size());
+    }
+
+    @Test
+    void testInvalidate_removesOnlyThatUpload() {
+        cache.putAll("upload-1", parts(1, 3), NOW.plusSeconds(3600));
+        cache.putAll("upload-2", parts(1, 3), NOW.plusSeconds(3600));
+
+        cache.invalidate("upload-1");
+
+        assertTrue(cache.getAll("upload-1", 1, 3).isEmpty());
+        assertEquals(3, cache.getAll("upload-2", 1, 3).size());
+    }
+
+    @Test
+    void testDisabled_doesNotStore() {
+        TestUtils.setField(cache, "maxEntries", 0);
+        cache.putAll("upload-1", parts(1, 3), NOW.plusSeconds(3600));
+
+        assertTrue(cache.getAll("upload-1", 1, 3).isEmpty());
+    }
+
+    private static List<PartInfoResponseDto> parts(int first, int last) {
+        return IntStream.rangeClosed(first, last)
+                .mapToObj(partNumber -> new PartInfoResponseDto(partNumber, "https://url/" + partNumber))
+                .toList();
+    }
+}
@@ -0,0 +1,209 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.service.UploadedFileService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.paginators.ListPartsPublisher;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StaleUploadReaperTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-02T10:00:00Z");
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 1, 1, 10, 0);
+    private static final long PART_SIZE = 5 * 1024 * 1024L;
+
+    private S3AsyncClient s3AsyncClient;
+    private UploadedFileService uploadedFileService;
+    private FilestorageServiceImpl filestorageService;
+    private PartProgressCleaner partProgressCleaner;
+    private SimpleMeterRegistry meterRegistry;
+    private StaleUploadReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        s3AsyncClient = mock(S3AsyncClient.class);
+        uploadedFileService = mock(UploadedFileService.class);
+        filestorageService = mock(FilestorageServiceImpl.class);
+        partProgressCleaner = mock(PartProgressCleaner.class);
+        meterRegistry = new SimpleMeterRegistry();
+        reaper = new StaleUploadReaper(s3AsyncClient, uploadedFileService, filestorageService, partProgressCleaner,
+                meterRegistry);
+        TestUtils.setField(reaper, "staleAfterHours", 24L);
+        TestUtils.setField(reaper, "pageSize", 2);
+        TestUtils.setField(reaper, "maxConcurrency", 2);
+        TestUtils.setField(reaper, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+
+        when(s3AsyncClient.listPartsPaginator(any(ListPartsRequest.class)))
+                .thenAnswer(invocation -> new ListPartsPublisher(s3AsyncClient, invocation.getArgument(0)));
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(ListPartsResponse.builder()
+                        .parts(Part.builder().partNumber(1).size(PART_SIZE).build(),
+                                Part.builder().partNumber(2).size(PART_SIZE).build())
+                        .build()));
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("no existe").build()));
+        when(uploadedFileService.updateStatuses(anyCollection(), eq(UploadStatus.PENDING), eq(UploadStatus.ABORTED)))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+    }
+
+    @Test
+    void testReapStaleUploads_pagesByKeysetAndAbortsEveryUpload() {
+        UploadedFileEntity first = buildUpload(1, "upload-1");
+        UploadedFileEntity second = buildUpload(2, "upload-2");
+        UploadedFileEntity third = buildUpload(3, "upload-3");
+        when(uploadedFileService.findStalePage(eq(UploadStatus.PENDING), eq(CUTOFF), any(), any(), eq(2)))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        int aborted = reaper.reapStaleUploads();
+
+        assertEquals(3, aborted);
+        // La segunda pagina continua despues de la ultima fila de la primera
+        verify(uploadedFileService).findStalePage(UploadStatus.PENDING, CUTOFF, second.getCreatedAt(), second.getId(), 2);
+        verify(s3AsyncClient, times(3)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(uploadedFileService).updateStatuses(List.of(first.getId(), second.getId()), UploadStatus.PENDING, UploadStatus.ABORTED);
+        verify(uploadedFileService).updateStatuses(List.of(third.getId()), UploadStatus.PENDING, UploadStatus.ABORTED);
+        verify(partProgressCleaner).discardAll(List.of("upload-1", "upload-2"));
+        verify(partProgressCleaner).discardAll(List.of("upload-3"));
+        assertEquals(3 * 2 * PART_SIZE, meterRegistry.counter("filestorage.reaper.reclaimed").count());
+        assertEquals(3, meterRegistry.counter("filestorage.reaper.aborted").count());
+    }
+
+    @Test
+    void testReapStaleUploads_abortFailure_keepsRowPending() {
+        UploadedFileEntity ok = buildUpload(1, "upload-ok");
+        UploadedFileEntity failing = buildUpload(2, "upload-fail");
+        when(uploadedFileService.findStalePage(eq(UploadStatus.PENDING), eq(CUTOFF), any(), any(), eq(2)))
+                .thenReturn(List.of(ok, failing), List.of());
+        when(s3AsyncClient.abortMultipartUpload(argThat((AbortMultipartUploadRequest request) ->
+                "upload-fail".equals(request.uploadId()))))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("acceso denegado").statusCode(403).build()));
+
+        int aborted = reaper.reapStaleUploads();
+
+        assertEquals(1, aborted);
+        verify(uploadedFileService).updateStatuses(List.of(ok.getId()), UploadStatus.PENDING, UploadStatus.ABORTED);
+        verify(partProgressCleaner).discardAll(List.of("upload-ok"));
+        assertEquals(1, meterRegistry.counter("filestorage.reaper.failed").count());
+    }
+
+    @Test
+    void testReapStaleUploads_uploadAlreadyGoneInS3_isMarkedAbortedWithoutBytes() {
+        UploadedFileEntity gone = buildUpload(1, "upload-gone");
+        when(uploadedFileService.findStalePage(eq(UploadStatus.PENDING), eq(CUTOFF), any(), any(), eq(2)))
+                .thenReturn(List.of(gone));
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("no existe").build()));
+
+        int aborted = reaper.reapStaleUploads();
+
+        assertEquals(1, aborted);
+        verify(s3AsyncClient, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3AsyncClient).headObject(HeadObjectRequest.builder()
+                .bucket("test-bucket").key("test-user/upload-gone").checksumMode(ChecksumMode.ENABLED).build());
+        verify(uploadedFileService).updateStatuses(List.of(gone.getId()), UploadStatus.PENDING, UploadStatus.ABORTED);
+        verifyNoInteractions(filestorageService);
+        assertEquals(0, meterRegistry.counter("filestorage.reaper.reclaimed").count());
+    }
+
+    @Test
+    void testReapStaleUploads_uploadCompletedInS3_isMarkedCompletedNotAborted() {
+        UploadedFileEntity completed = buildUpload(1, "upload-completed");
+        UploadedFileEntity stale = buildUpload(2, "upload-stale");
+        when(uploadedFileService.findStalePage(eq(UploadStatus.PENDING), eq(CUTOFF), any(), any(), eq(2)))
+                .thenReturn(List.of(completed, stale), List.of());
+        when(s3AsyncClient.abortMultipartUpload(argThat((AbortMultipartUploadRequest request) ->
+                "upload-completed".equals(request.uploadId()))))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("no existe").build()));
+        when(s3AsyncClient.headObject(argThat((HeadObjectRequest request) ->
+                "test-user/upload-completed".equals(request.key()))))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder()
+                        .contentLength(2 * PART_SIZE).checksumCRC32C("AAAAAA==").build()));
+
+        int aborted = reaper.reapStaleUploads();
+
+        assertEquals(1, aborted);
+        verify(filestorageService).markCompleted("upload-completed", "AAAAAA==");
+        verify(uploadedFileService).updateStatuses(List.of(stale.getId()), UploadStatus.PENDING, UploadStatus.ABORTED);
+        verify(partProgressCleaner).discardAll(List.of("upload-stale"));
+        assertEquals(1, meterRegistry.counter("filestorage.reaper.recovered").count());
+        assertEquals(1, meterRegistry.counter("filestorage.reaper.aborted").count());
+    }
+
+    @Test
+    void testReapStaleUploads_headObjectFailure_keepsRowPending() {
+        UploadedFileEntity gone = buildUpload(1, "upload-gone");
+        when(uploadedFileService.findStalePage(eq(UploadStatus.PENDING), eq(CUTOFF), any(), any(), eq(2)))
+                .thenReturn(List.of(gone), List.of());
+        when(s3AsyncClient.listParts(any(ListPartsRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchUploadException.builder().message("no existe").build()));
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("ralentizado").statusCode(503).build()));
+
+        assertEquals(0, reaper.reapStaleUploads());
+        verify(uploadedFileService, never()).updateStatuses(anyCollection(), any(), any());
+        verifyNoInteractions(filestorageService);
+        assertEquals(1, meterRegistry.counter("filestorage.reaper.failed").count());
+    }
+
+    @Test
+    void testAbortUnfinishedBefore_abortsPendingAndFailedUploads() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 6, 1, 0, 0);
+        UploadedFileEntity pending = buildUpload(1, "upload-pending");
+        UploadedFileEntity failed = buildUpload(2, "upload-failed");
+        failed.setStatus(UploadStatus.FAILED);
+        when(uploadedFileService.findStalePage(eq(UploadStatus.PENDING), eq(cutoff), any(), any(), eq(2)))
+                .thenReturn(List.of(pending));
+        when(uploadedFileService.findStalePage(eq(UploadStatus.FAILED), eq(cutoff), any(), any(), eq(2)))
+                .thenReturn(List.of(failed));
+        when(uploadedFileService.updateStatuses(anyCollection(), eq(UploadStatus.FAILED), eq(UploadStatus.ABORTED)))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        int aborted = reaper.abortUnfinishedBefore(cutoff);
+
+        assertEquals(2, aborted);
+        verify(s3AsyncClient, times(2)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(uploadedFileService).updateStatuses(List.of(pending.getId()), UploadStatus.PENDING, UploadStatus.ABORTED);
+        verify(uploadedFileService).updateStatuses(List.of(failed.getId()), UploadStatus.FAILED, UploadStatus.ABORTED);
+        verify(partProgressCleaner).discardAll(List.of("upload-failed"));
+    }
+
+    @Test
+    void testReapStaleUploads_nothingStale_doesNotTouchS3() {
+        when(uploadedFileService.findStalePage(anyString(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, reaper.reapStaleUploads());
+        verifyNoInteractions(s3AsyncClient);
+        verify(uploadedFileService, never()).updateStatuses(anyCollection(), any(), any());
+        verifyNoInteractions(partProgressCleaner);
+    }
+
+    private UploadedFileEntity buildUpload(int minutesOffset, String uploadId) {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setId(UUID.randomUUID());
+        file.setBucketName("test-bucket");
+        file.setS3Key("test-user/" + uploadId);
+        file.setUploadId(uploadId);
+        file.setStatus(UploadStatus.PENDING);
+        file.setCreatedAt(CUTOFF.minusDays(1).plusMinutes(minutesOffset));
+        return file;
+    }
+}
@@ -0,0 +1,79 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.UploadPageResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.exception.InvalidUploadQueryException;
+import com.drv.filestorage.repository.UploadHistoryRepository;
+import com.drv.filestorage.repository.UploadHistoryRepository.UploadHistoryRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UploadHistoryServiceImplTest {
+
+    private UploadHistoryRepository uploadHistoryRepository;
+    private UploadHistoryServiceImpl uploadHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        uploadHistoryRepository = mock(UploadHistoryRepository.class);
+        uploadHistoryService = new UploadHistoryServiceImpl(uploadHistoryRepository);
+        TestUtils.setField(uploadHistoryService, "maxPageSize", 200);
+        TestUtils.mockAuthentication("test-user");
+    }
+
+    @Test
+    void testListUploads_morePages_returnsCursorOfLastRow() {
+        UploadHistoryRow first = buildRow(LocalDateTime.of(2025, 6, 14, 10, 0, 0, 123456000));
+        UploadHistoryRow second = buildRow(LocalDateTime.of(2025, 6, 14, 9, 0));
+        UploadHistoryRow extra = buildRow(LocalDateTime.of(2025, 6, 14, 8, 0));
+        when(uploadHistoryRepository.findPage("test-user", UploadStatus.COMPLETED, "image/jpeg", null, null, 3))
+                .thenReturn(List.of(first, second, extra));
+
+        UploadPageResponseDto page = uploadHistoryService.listUploads("completed", "image/jpeg", null, 2);
+
+        assertEquals(2, page.getUploads().size());
+        assertEquals(UploadHistoryServiceImpl.encodeCursor(second), page.getNextCursor());
+
+        uploadHistoryService.listUploads("completed", "image/jpeg", page.getNextCursor(), 2);
+        verify(uploadHistoryRepository).findPage("test-user", UploadStatus.COMPLETED, "image/jpeg",
+                second.createdAt(), second.id(), 3);
+    }
+
+    @Test
+    void testListUploads_lastPage_hasNoCursor() {
+        when(uploadHistoryRepository.findPage("test-user", null, null, null, null, 51))
+                .thenReturn(List.of(buildRow(LocalDateTime.of(2025, 6, 14, 10, 0))));
+
+        UploadPageResponseDto page = uploadHistoryService.listUploads(null, " ", null, 50);
+
+        assertEquals(1, page.getUploads().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testListUploads_limitAboveMaximum_isCapped() {
+        uploadHistoryService.listUploads(null, null, null, 100000);
+
+        verify(uploadHistoryRepository).findPage("test-user", null, null, null, null, 201);
+    }
+
+    @Test
+    void testListUploads_invalidCursorOrStatus_throws() {
+        assertThrows(InvalidUploadQueryException.class, () -> uploadHistoryService.listUploads(null, null, "no-es-un-cursor", 50));
+        assertThrows(InvalidUploadQueryException.class, () -> uploadHistoryService.listUploads("unknown", null, null, 50));
+        verifyNoInteractions(uploadHistoryRepository);
+    }
+
+    private UploadHistoryRow buildRow(LocalDateTime createdAt) {
+        return new UploadHistoryRow(UUID.randomUUID(), "test-user/archivo.jpg", "upload-" + createdAt, "archivo.jpg",
+                "image/jpeg", 1024L, "completed", createdAt);
+    }
+}
@@ -0,0 +1,132 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.repository.UploadPartitionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UploadPartitionMaintainerTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-15T10:00:00Z");
+
+    private UploadPartitionRepository uploadPartitionRepository;
+    private StaleUploadReaper staleUploadReaper;
+    private SimpleMeterRegistry meterRegistry;
+    private UploadPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        uploadPartitionRepository = mock(UploadPartitionRepository.class);
+        staleUploadReaper = mock(StaleUploadReaper.class);
+        meterRegistry = new SimpleMeterRegistry();
+        maintainer = new UploadPartitionMaintainer(uploadPartitionRepository, staleUploadReaper, meterRegistry);
+        TestUtils.setField(maintainer, "enabled", true);
+        TestUtils.setField(maintainer, "monthsAhead", 2);
+        TestUtils.setField(maintainer, "archiveAfterMonths", 12);
+        TestUtils.setField(maintainer, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        when(uploadPartitionRepository.isPartitioned()).thenReturn(true);
+    }
+
+    @Test
+    void testMaintainPartitions_createsMissingUpcomingMonths() {
+        when(uploadPartitionRepository.findPartitionMonths())
+                .thenReturn(List.of(YearMonth.of(2025, 5), YearMonth.of(2025, 6)));
+
+        maintainer.maintainPartitions();
+
+        verify(uploadPartitionRepository).createPartition(YearMonth.of(2025, 7));
+        verify(uploadPartitionRepository).createPartition(YearMonth.of(2025, 8));
+        verify(uploadPartitionRepository, never()).createPartition(YearMonth.of(2025, 6));
+        verify(uploadPartitionRepository, never()).archivePartition(any());
+        verifyNoInteractions(staleUploadReaper);
+        assertEquals(2.0, meterRegistry.counter("filestorage.partitions.created").count());
+    }
+
+    @Test
+    void testMaintainPartitions_abortsUnfinishedUploadsAndSkipsPartitionsStillHoldingThem() {
+        YearMonth finished = YearMonth.of(2024, 4);
+        YearMonth unfinished = YearMonth.of(2024, 5);
+        YearMonth recent = YearMonth.of(2024, 6);
+        when(uploadPartitionRepository.findPartitionMonths()).thenReturn(List.of(finished, unfinished, recent,
+                YearMonth.of(2025, 6), YearMonth.of(2025, 7), YearMonth.of(2025, 8)));
+        when(uploadPartitionRepository.countUnfinishedUploads(unfinished)).thenReturn(3L);
+        when(uploadPartitionRepository.archivePartition(finished)).thenReturn(150);
+
+        maintainer.maintainPartitions();
+
+        // Las cargas pending y failed anteriores al mes de corte se abortan en S3 antes de archivar
+        verify(staleUploadReaper).abortUnfinishedBefore(LocalDateTime.of(2024, 6, 1, 0, 0));
+        verify(uploadPartitionRepository).archivePartition(finished);
+        verify(uploadPartitionRepository, never()).archivePartition(unfinished);
+        verify(uploadPartitionRepository, never()).archivePartition(recent);
+        verify(uploadPartitionRepository, never()).createPartition(any());
+        assertEquals(1.0, meterRegistry.counter("filestorage.partitions.archived").count());
+        assertEquals(150.0, meterRegistry.counter("filestorage.partitions.archived_rows").count());
+    }
+
+    @Test
+    void testMaintainPartitions_defaultPartitionRows_movedToTheirMonthAndArchived() {
+        YearMonth oldMonth = YearMonth.of(2023, 2);
+        when(uploadPartitionRepository.findPartitionMonths())
+                .thenReturn(List.of(YearMonth.of(2025, 6), YearMonth.of(2025, 7), YearMonth.of(2025, 8)));
+        when(uploadPartitionRepository.findDefaultPartitionMonths()).thenReturn(List.of(oldMonth));
+        when(uploadPartitionRepository.createPartition(oldMonth)).thenReturn(40);
+
+        maintainer.maintainPartitions();
+
+        verify(uploadPartitionRepository).createPartition(oldMonth);
+        verify(uploadPartitionRepository).archivePartition(oldMonth);
+        assertEquals(0.0, meterRegistry.get("filestorage.partitions.default_rows").gauge().value());
+    }
+
+    @Test
+    void testMaintainPartitions_creationFailure_stillArchivesAndReportsDefaultRows() {
+        YearMonth old = YearMonth.of(2024, 1);
+        when(uploadPartitionRepository.findPartitionMonths()).thenReturn(List.of(old));
+        doThrow(new DataAccessResourceFailureException("la particion por defecto tiene filas del mes"))
+                .when(uploadPartitionRepository).createPartition(any());
+        when(uploadPartitionRepository.countDefaultPartitionRows()).thenReturn(12L);
+
+        maintainer.maintainPartitions();
+
+        verify(uploadPartitionRepository, times(3)).createPartition(any());
+        verify(uploadPartitionRepository).archivePartition(old);
+        assertEquals(12.0, meterRegistry.get("filestorage.partitions.default_rows").gauge().value());
+    }
+
+    @Test
+    void testMaintainPartitions_notPartitioned_doesNothing() {
+        when(uploadPartitionRepository.isPartitioned()).thenReturn(false);
+
+        maintainer.maintainPartitions();
+
+        verify(uploadPartitionRepository).isPartitioned();
+        verifyNoMoreInteractions(uploadPartitionRepository);
+    }
+
+    @Test
+    void testMaintainPartitions_databaseFailure_isLogged() {
+        when(uploadPartitionRepository.findPartitionMonths())
+                .thenThrow(new DataAccessResourceFailureException("BD no disponible"));
+
+        assertDoesNotThrow(maintainer::maintainPartitions);
+        verify(uploadPartitionRepository, never()).createPartition(any());
+    }
+
+    @Test
+    void testPartitionName_usesYearAndMonth() {
+        assertEquals("uploaded_files_p202501", UploadPartitionRepository.partitionName(YearMonth.of(2025, 1)));
+    }
+}
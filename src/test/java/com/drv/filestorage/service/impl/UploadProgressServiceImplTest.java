@@ -0,0 +1,187 @@
+package com.drv.filestorage.service.impl;
+
+import com.drv.filestorage.TestUtils;
+import com.drv.filestorage.common.dto.PartProgressRequestDto;
+import com.drv.filestorage.common.dto.ReportedPartDto;
+import com.drv.filestorage.common.dto.UploadProgressResponseDto;
+import com.drv.filestorage.common.entity.UploadStatus;
+import com.drv.filestorage.common.entity.UploadedFileEntity;
+import com.drv.filestorage.exception.InvalidPartRangeException;
+import com.drv.filestorage.exception.UploadFinishedException;
+import com.drv.filestorage.exception.UploadNotFoundException;
+import com.drv.filestorage.repository.PartProgressRepository;
+import com.drv.filestorage.repository.PartProgressRepository.PartProgressRow;
+import com.drv.filestorage.repository.PartProgressRepository.ProgressSummary;
+import com.drv.filestorage.service.UploadedFileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UploadProgressServiceImplTest {
+
+    private static final long PART_SIZE = 5 * 1024 * 1024L;
+
+    private FilestorageServiceImpl filestorageService;
+    private UploadedFileService uploadedFileService;
+    private PartProgressAccumulator accumulator;
+    private PartProgressRepository partProgressRepository;
+    private UploadProgressServiceImpl uploadProgressService;
+
+    @BeforeEach
+    void setUp() {
+        filestorageService = mock(FilestorageServiceImpl.class);
+        uploadedFileService = mock(UploadedFileService.class);
+        partProgressRepository = mock(PartProgressRepository.class);
+        accumulator = new PartProgressAccumulator();
+
+        PartSizePlanner partSizePlanner = new PartSizePlanner();
+        TestUtils.setField(partSizePlanner, "partSizeMegaBytes", 5L);
+
+        uploadProgressService = new UploadProgressServiceImpl(filestorageService, uploadedFileService,
+                partSizePlanner, accumulator, partProgressRepository);
+        TestUtils.setField(uploadProgressService, "batchSize", 500);
+        TestUtils.setField(uploadProgressService, "discardedRetentionMinutes", 10L);
+        TestUtils.mockAuthentication("test-user");
+    }
+
+    @Test
+    void testReportParts_accumulatesWithoutWritingToDatabase() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload());
+
+        int accepted = uploadProgressService.reportParts(buildRequest(1, 2));
+
+        assertEquals(2, accepted);
+        assertEquals(2, accumulator.pendingParts());
+        verifyNoInteractions(partProgressRepository);
+    }
+
+    @Test
+    void testReportParts_partBeyondFile_throwsInvalidRange() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload());
+
+        PartProgressRequestDto request = buildRequest(4, 5);
+        assertThrows(InvalidPartRangeException.class, () -> uploadProgressService.reportParts(request));
+        assertEquals(0, accumulator.pendingParts());
+    }
+
+    @Test
+    void testReportParts_finishedUpload_isRejected() {
+        UploadedFileEntity file = buildUpload();
+        file.setStatus(UploadStatus.COMPLETED);
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(file);
+
+        PartProgressRequestDto request = buildRequest(1);
+        assertThrows(UploadFinishedException.class, () -> uploadProgressService.reportParts(request));
+        assertEquals(0, accumulator.pendingParts());
+    }
+
+    @Test
+    void testFlushPendingParts_uploadFinishedDuringWrite_deletesWrittenRows() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload());
+        uploadProgressService.reportParts(buildRequest(1, 2));
+        // La carga termina y borra su avance entre drain y la escritura
+        doAnswer(invocation -> {
+            accumulator.discard("upload-123");
+            return null;
+        }).when(partProgressRepository).upsertAll(anyList(), anyInt());
+
+        uploadProgressService.flushPendingParts();
+
+        verify(partProgressRepository).deleteByUploadIds(Set.of("upload-123"));
+    }
+
+    @Test
+    void testFlushPendingParts_databaseFailure_doesNotRestoreFinishedUploads() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload());
+        uploadProgressService.reportParts(buildRequest(1, 2));
+        doAnswer(invocation -> {
+            accumulator.discard("upload-123");
+            throw new DataAccessResourceFailureException("BD no disponible");
+        }).when(partProgressRepository).upsertAll(anyList(), anyInt());
+
+        uploadProgressService.flushPendingParts();
+
+        assertEquals(0, accumulator.pendingParts());
+        verify(partProgressRepository, never()).deleteByUploadIds(any());
+    }
+
+    @Test
+    void testFlushPendingParts_writesAllReportsInOneBatch() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload());
+        uploadProgressService.reportParts(buildRequest(1));
+        uploadProgressService.reportParts(buildRequest(2, 3));
+
+        uploadProgressService.flushPendingParts();
+
+        verify(partProgressRepository).upsertAll(argThat((List<PartProgressRow> rows) -> rows.size() == 3), eq(500));
+        verify(partProgressRepository, never()).deleteByUploadIds(any());
+        assertEquals(0, accumulator.pendingParts());
+    }
+
+    @Test
+    void testFlushPendingParts_databaseFailure_keepsPartsForNextFlush() {
+        when(filestorageService.findOwnedUpload("test-user", "test-key", "upload-123")).thenReturn(buildUpload());
+        uploadProgressService.reportParts(buildRequest(1, 2));
+        doThrow(new DataAccessResourceFailureException("BD no disponible"))
+                .when(partProgressRepository).upsertAll(anyList(), anyInt());
+
+        uploadProgressService.flushPendingParts();
+
+        assertEquals(2, accumulator.pendingParts());
+    }
+
+    @Test
+    void testFlushPendingParts_nothingPending_skipsDatabase() {
+        uploadProgressService.flushPendingParts();
+
+        verifyNoInteractions(partProgressRepository);
+    }
+
+    @Test
+    void testGetProgress_returnsReportedTotals() {
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(buildUpload()));
+        when(partProgressRepository.summarize("upload-123")).thenReturn(new ProgressSummary(1, PART_SIZE));
+
+        UploadProgressResponseDto progress = uploadProgressService.getProgress("upload-123");
+
+        assertEquals(3, progress.getTotalParts());
+        assertEquals(1, progress.getReportedParts());
+        assertEquals(PART_SIZE, progress.getReportedBytes());
+        assertEquals(33.3, progress.getPercentComplete());
+    }
+
+    @Test
+    void testGetProgress_otherUser_throwsNotFound() {
+        UploadedFileEntity file = buildUpload();
+        file.setUploadedBy("other-user");
+        when(uploadedFileService.findByUploadId("upload-123")).thenReturn(Optional.of(file));
+
+        assertThrows(UploadNotFoundException.class, () -> uploadProgressService.getProgress("upload-123"));
+    }
+
+    private PartProgressRequestDto buildRequest(int... partNumbers) {
+        List<ReportedPartDto> parts = Arrays.stream(partNumbers)
+                .mapToObj(partNumber -> new ReportedPartDto(partNumber, "etag-" + partNumber, PART_SIZE))
+                .toList();
+        return new PartProgressRequestDto("test-key", "upload-123", parts);
+    }
+
+    private UploadedFileEntity buildUpload() {
+        UploadedFileEntity file = new UploadedFileEntity();
+        file.setS3Key("test-key");
+        file.setUploadId("upload-123");
+        file.setUploadedBy("test-user");
+        file.setSizeBytes(3 * PART_SIZE);
+        file.setPartSizeBytes(PART_SIZE);
+        file.setStatus(UploadStatus.PENDING);
+        return file;
+    }
+}